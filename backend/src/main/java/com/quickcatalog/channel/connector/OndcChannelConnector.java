@@ -6,6 +6,7 @@ import com.quickcatalog.channel.entity.ProductChannelListing;
 import com.quickcatalog.channel.entity.enums.ChannelType;
 import com.quickcatalog.channel.entity.enums.ListingStatus;
 import com.quickcatalog.entity.Product;
+import com.quickcatalog.event.ProductChangedEvent;
 import com.quickcatalog.ondc.entity.OndcProductConfig;
 import com.quickcatalog.ondc.entity.OndcProvider;
 import com.quickcatalog.ondc.entity.OndcSubscriber;
@@ -15,6 +16,7 @@ import com.quickcatalog.ondc.repository.OndcProviderRepository;
 import com.quickcatalog.ondc.repository.OndcSubscriberRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
@@ -30,6 +32,7 @@ public class OndcChannelConnector implements ChannelConnector {
     private final OndcProductConfigRepository ondcProductConfigRepository;
     private final OndcProviderRepository ondcProviderRepository;
     private final OndcSubscriberRepository ondcSubscriberRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public ChannelType getChannelType() {
@@ -90,6 +93,7 @@ public class OndcChannelConnector implements ChannelConnector {
         config.setPublishedToOndc(true);
         config.setLastPublishedAt(LocalDateTime.now());
         ondcProductConfigRepository.save(config);
+        eventPublisher.publishEvent(new ProductChangedEvent(tenantId, product.getId()));
 
         log.info("Published product {} to ONDC for tenant {}", product.getId(), tenantId);
         return PublishResult.success("Published to ONDC", config.getId().toString(), null);
@@ -103,6 +107,7 @@ public class OndcChannelConnector implements ChannelConnector {
         if (config != null) {
             config.setPublishedToOndc(false);
             ondcProductConfigRepository.save(config);
+            eventPublisher.publishEvent(new ProductChangedEvent(channel.getTenantId(), listing.getProductId()));
         }
         return PublishResult.success("Unpublished from ONDC", null, null);
     }
@@ -3,6 +3,8 @@ package com.quickcatalog.channel.repository;
 import com.quickcatalog.channel.entity.ProductChannelListing;
 import com.quickcatalog.channel.entity.enums.ListingStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,6 +14,15 @@ public interface ProductChannelListingRepository extends JpaRepository<ProductCh
 
     List<ProductChannelListing> findByProductIdAndTenantId(UUID productId, UUID tenantId);
 
+    /**
+     * Listings of a product together with their channels in one query. Returns
+     * [ProductChannelListing, Channel] pairs; the channel is null if it no longer exists.
+     */
+    @Query("SELECT l, c FROM ProductChannelListing l LEFT JOIN Channel c ON c.id = l.channelId " +
+            "WHERE l.productId = :productId AND l.tenantId = :tenantId")
+    List<Object[]> findWithChannelByProductIdAndTenantId(@Param("productId") UUID productId,
+                                                         @Param("tenantId") UUID tenantId);
+
     Optional<ProductChannelListing> findByProductIdAndChannelId(UUID productId, UUID channelId);
 
     Optional<ProductChannelListing> findByIdAndTenantId(UUID id, UUID tenantId);
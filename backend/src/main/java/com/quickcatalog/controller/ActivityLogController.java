@@ -2,22 +2,26 @@ package com.quickcatalog.controller;
 
 import com.quickcatalog.config.TenantContext;
 import com.quickcatalog.dto.common.ApiResponse;
+import com.quickcatalog.dto.common.PageCursor;
 import com.quickcatalog.dto.common.PagedResponse;
 import com.quickcatalog.dto.dashboard.RecentActivityResponse;
 import com.quickcatalog.entity.ActivityLog;
 import com.quickcatalog.entity.enums.ActionType;
 import com.quickcatalog.entity.enums.EntityType;
+import com.quickcatalog.exception.BadRequestException;
 import com.quickcatalog.repository.ActivityLogRepository;
 import com.quickcatalog.repository.UserRepository;
+import com.quickcatalog.service.RowCountEstimator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-import java.util.UUID;
+import java.time.LocalDateTime;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @RestController
@@ -27,17 +31,32 @@ public class ActivityLogController {
 
     private final ActivityLogRepository activityLogRepository;
     private final UserRepository userRepository;
+    private final RowCountEstimator rowCountEstimator;
 
+    @Value("${app.log-retention.activity-log-months:24}")
+    private int retentionMonths;
+
+    /**
+     * Activity newest first. Pass the {@code nextCursor} of a page as {@code cursor} to get
+     * the next one by keyset instead of offset; its total is then an estimate. Without
+     * {@code days}, everything still within the retention window is listed.
+     */
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
     public ApiResponse<PagedResponse<ActivityLogResponse>> list(
             @RequestParam(required = false) String entityType,
             @RequestParam(required = false) String action,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Integer days) {
 
         UUID tenantId = TenantContext.getTenantId();
         Pageable pageable = PageRequest.of(page, size);
+        // Always bounded, so partitions past retention are pruned from the scan
+        LocalDateTime since = days != null
+                ? LocalDateTime.now().minusDays(days)
+                : LocalDateTime.now().minusMonths(retentionMonths);
 
         EntityType et = null;
         ActionType at = null;
@@ -49,42 +68,92 @@ public class ActivityLogController {
             try { at = ActionType.valueOf(action); } catch (IllegalArgumentException ignored) {}
         }
 
+        if (cursor != null && !cursor.isBlank()) {
+            PageCursor after = PageCursor.decode(cursor, "createdAt");
+            LocalDateTime createdAt = after.timestampValue();
+            if (createdAt == null) {
+                throw new BadRequestException("Invalid page cursor");
+            }
+            Pageable limit = PageRequest.of(0, size + 1);
+            List<ActivityLog> rows;
+            if (et != null && at != null) {
+                rows = activityLogRepository.findByTenantIdAndEntityTypeAndActionAfter(tenantId, et, at, since, createdAt, after.getId(), limit);
+            } else if (et != null) {
+                rows = activityLogRepository.findByTenantIdAndEntityTypeAfter(tenantId, et, since, createdAt, after.getId(), limit);
+            } else if (at != null) {
+                rows = activityLogRepository.findByTenantIdAndActionAfter(tenantId, at, since, createdAt, after.getId(), limit);
+            } else {
+                rows = activityLogRepository.findByTenantIdAfter(tenantId, since, createdAt, after.getId(), limit);
+            }
+            Map<UUID, String> userNames = userNames(rows);
+            return ApiResponse.success(PagedResponse.ofCursor(rows, page, size, estimateCount(tenantId, et, at, since),
+                    log -> toResponse(log, userNames), log -> PageCursor.encode("createdAt", log.getCreatedAt(), log.getId())));
+        }
+
         Page<ActivityLog> logPage;
         if (et != null && at != null) {
-            logPage = activityLogRepository.findByTenantIdAndEntityTypeAndActionOrderByCreatedAtDesc(tenantId, et, at, pageable);
+            logPage = activityLogRepository.findByTenantIdAndEntityTypeAndActionAndCreatedAtAfterOrderByCreatedAtDescIdDesc(tenantId, et, at, since, pageable);
         } else if (et != null) {
-            logPage = activityLogRepository.findByTenantIdAndEntityTypeOrderByCreatedAtDesc(tenantId, et, pageable);
+            logPage = activityLogRepository.findByTenantIdAndEntityTypeAndCreatedAtAfterOrderByCreatedAtDescIdDesc(tenantId, et, since, pageable);
         } else if (at != null) {
-            logPage = activityLogRepository.findByTenantIdAndActionOrderByCreatedAtDesc(tenantId, at, pageable);
+            logPage = activityLogRepository.findByTenantIdAndActionAndCreatedAtAfterOrderByCreatedAtDescIdDesc(tenantId, at, since, pageable);
         } else {
-            logPage = activityLogRepository.findByTenantIdOrderByCreatedAtDesc(tenantId, pageable);
+            logPage = activityLogRepository.findByTenantIdAndCreatedAtAfterOrderByCreatedAtDescIdDesc(tenantId, since, pageable);
         }
 
+        Map<UUID, String> userNames = userNames(logPage.getContent());
         List<ActivityLogResponse> content = logPage.getContent().stream()
-                .map(log -> {
-                    String userName = null;
-                    if (log.getUserId() != null) {
-                        userName = userRepository.findById(log.getUserId())
-                                .map(u -> u.getName())
-                                .orElse(null);
-                    }
-                    return ActivityLogResponse.builder()
-                            .id(log.getId())
-                            .entityType(log.getEntityType() != null ? log.getEntityType().name() : null)
-                            .entityId(log.getEntityId())
-                            .action(log.getAction() != null ? log.getAction().name() : null)
-                            .details(log.getDetails())
-                            .userName(userName)
-                            .createdAt(log.getCreatedAt())
-                            .build();
-                })
+                .map(log -> toResponse(log, userNames))
                 .collect(Collectors.toList());
 
         PagedResponse<ActivityLogResponse> response = PagedResponse.of(
                 content, page, size, logPage.getTotalElements(), logPage.getTotalPages());
+        if (!response.isLast() && logPage.hasContent()) {
+            ActivityLog lastLog = logPage.getContent().get(logPage.getNumberOfElements() - 1);
+            response.setNextCursor(PageCursor.encode("createdAt", lastLog.getCreatedAt(), lastLog.getId()));
+        }
         return ApiResponse.success(response);
     }
 
+    private long estimateCount(UUID tenantId, EntityType et, ActionType at, LocalDateTime since) {
+        StringBuilder sql = new StringBuilder("SELECT 1 FROM activity_log WHERE tenant_id = ? AND created_at > ?");
+        List<Object> args = new ArrayList<>(List.of(tenantId, since));
+        if (et != null) {
+            sql.append(" AND entity_type = CAST(? AS entity_type)");
+            args.add(et.name());
+        }
+        if (at != null) {
+            sql.append(" AND action = CAST(? AS action_type)");
+            args.add(at.name());
+        }
+        return rowCountEstimator.estimate(sql.toString(), args.toArray());
+    }
+
+    /**
+     * Names of the users behind the given entries, looked up in one query.
+     */
+    private Map<UUID, String> userNames(List<ActivityLog> logs) {
+        Set<UUID> userIds = logs.stream()
+                .map(ActivityLog::getUserId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<UUID, String> names = new HashMap<>();
+        userRepository.findAllById(userIds).forEach(user -> names.put(user.getId(), user.getName()));
+        return names;
+    }
+
+    private static ActivityLogResponse toResponse(ActivityLog log, Map<UUID, String> userNames) {
+        return ActivityLogResponse.builder()
+                .id(log.getId())
+                .entityType(log.getEntityType() != null ? log.getEntityType().name() : null)
+                .entityId(log.getEntityId())
+                .action(log.getAction() != null ? log.getAction().name() : null)
+                .details(log.getDetails())
+                .userName(log.getUserId() != null ? userNames.get(log.getUserId()) : null)
+                .createdAt(log.getCreatedAt())
+                .build();
+    }
+
     @lombok.Data
     @lombok.Builder
     @lombok.NoArgsConstructor
@@ -6,6 +6,7 @@ import com.quickcatalog.dto.common.PagedResponse;
 import com.quickcatalog.dto.product.*;
 import com.quickcatalog.service.BarcodeService;
 import com.quickcatalog.service.DuplicateDetectionService;
+import com.quickcatalog.service.InventoryLedgerService;
 import com.quickcatalog.service.ProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -27,6 +28,7 @@ public class ProductController {
     private final ProductService productService;
     private final BarcodeService barcodeService;
     private final DuplicateDetectionService duplicateDetectionService;
+    private final InventoryLedgerService ledgerService;
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
@@ -35,6 +37,7 @@ public class ProductController {
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String sort,
             @RequestParam(required = false) String q,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         if (q != null && !q.isBlank()) {
@@ -51,7 +54,7 @@ public class ProductController {
             PagedResponse<ProductListResponse> response = productService.search(q.trim(), page, size);
             return ApiResponse.success(response);
         }
-        PagedResponse<ProductListResponse> response = productService.list(categoryId, status, sort, page, size);
+        PagedResponse<ProductListResponse> response = productService.list(categoryId, status, sort, cursor, page, size);
         return ApiResponse.success(response);
     }
 
@@ -120,6 +123,15 @@ public class ProductController {
         return ApiResponse.success(response);
     }
 
+    @GetMapping("/{id}/inventory-movements")
+    @ResponseStatus(HttpStatus.OK)
+    public ApiResponse<PagedResponse<InventoryMovementResponse>> getInventoryMovements(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ApiResponse.success(ledgerService.getMovements(id, page, size));
+    }
+
     @GetMapping("/low-stock")
     @ResponseStatus(HttpStatus.OK)
     public ApiResponse<List<ProductListResponse>> getLowStock() {
@@ -0,0 +1,67 @@
+package com.quickcatalog.dto.common;
+
+import com.quickcatalog.exception.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position after the last row of a page for keyset pagination: the sort key, that
+ * row's value of the sort key and its id as tie-breaker. Clients receive it as an
+ * opaque URL-safe token and pass it back to fetch the next page.
+ */
+@Data
+@AllArgsConstructor
+public class PageCursor {
+    private String sortKey;
+    /** The sort value in string form, or null if the row had none. */
+    private String value;
+    private UUID id;
+
+    public static String encode(String sortKey, Object value, UUID id) {
+        String text = id + "|" + sortKey + "|" + (value != null ? "=" + stringValue(value) : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws BadRequestException if the token is malformed or was issued for another sort
+     */
+    public static PageCursor decode(String token, String expectedSortKey) {
+        try {
+            String text = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = text.split("\\|", 3);
+            if (parts.length == 3 && parts[1].equals(expectedSortKey)) {
+                return new PageCursor(parts[1], parts[2].isEmpty() ? null : parts[2].substring(1),
+                        UUID.fromString(parts[0]));
+            }
+        } catch (IllegalArgumentException ignored) {
+            // Fall through to the error below
+        }
+        throw new BadRequestException("Invalid page cursor");
+    }
+
+    public LocalDateTime timestampValue() {
+        try {
+            return value != null ? LocalDateTime.parse(value) : null;
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid page cursor");
+        }
+    }
+
+    public BigDecimal decimalValue() {
+        try {
+            return value != null ? new BigDecimal(value) : null;
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid page cursor");
+        }
+    }
+
+    private static String stringValue(Object value) {
+        return value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+    }
+}
@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.function.Function;
 
 @Data
 @NoArgsConstructor
@@ -16,8 +17,35 @@ public class PagedResponse<T> {
     private long totalElements;
     private int totalPages;
     private boolean last;
+    /** Token for the page after this one, or null on the last page. */
+    private String nextCursor;
+    /** Whether totalElements is a planner estimate rather than an exact count. */
+    private boolean approximateTotal;
 
     public static <T> PagedResponse<T> of(List<T> content, int page, int size, long totalElements, int totalPages) {
-        return new PagedResponse<>(content, page, size, totalElements, totalPages, page >= totalPages - 1);
+        return new PagedResponse<>(content, page, size, totalElements, totalPages, page >= totalPages - 1, null, false);
+    }
+
+    /**
+     * A page fetched with a cursor. The total is an estimate, raised to at least the
+     * rows seen so far, and {@code last} follows from whether there is a next cursor.
+     */
+    public static <T> PagedResponse<T> ofCursor(List<T> content, int page, int size, long estimatedTotal,
+                                                String nextCursor) {
+        long total = Math.max(estimatedTotal, (long) page * size + content.size());
+        int totalPages = size > 0 ? (int) Math.max(page + 1, (total + size - 1) / size) : 1;
+        return new PagedResponse<>(content, page, size, total, totalPages, nextCursor == null,
+                nextCursor, true);
+    }
+
+    /**
+     * A keyset page from rows fetched with a limit of {@code size + 1}; an extra row only
+     * signals that there is a next page, which starts after the last row kept.
+     */
+    public static <E, T> PagedResponse<T> ofCursor(List<E> rows, int page, int size, long estimatedTotal,
+                                                   Function<E, T> mapper, Function<E, String> cursorOf) {
+        List<E> kept = rows.size() > size ? rows.subList(0, size) : rows;
+        String nextCursor = rows.size() > size ? cursorOf.apply(kept.get(kept.size() - 1)) : null;
+        return ofCursor(kept.stream().map(mapper).toList(), page, size, estimatedTotal, nextCursor);
     }
 }
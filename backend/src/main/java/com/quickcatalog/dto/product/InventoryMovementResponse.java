@@ -0,0 +1,25 @@
+package com.quickcatalog.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryMovementResponse {
+    private UUID id;
+    private UUID variantId;
+    private String movementType;
+    private BigDecimal quantity;
+    private String reference;
+    private String note;
+    private UUID createdBy;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,54 @@
+package com.quickcatalog.entity;
+
+import com.quickcatalog.entity.enums.InventoryMovementType;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Entity
+@Table(name = "inventory_movement")
+public class InventoryMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private UUID tenantId;
+
+    @Column(name = "product_id", nullable = false)
+    private UUID productId;
+
+    @Column(name = "variant_id")
+    private UUID variantId;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.NAMED_ENUM)
+    @Column(name = "movement_type", nullable = false, columnDefinition = "inventory_movement_type")
+    private InventoryMovementType movementType;
+
+    /** Units moved; signed only for ADJUST. */
+    @Column(name = "quantity", nullable = false, precision = 12, scale = 3)
+    private BigDecimal quantity;
+
+    /** What caused the movement, e.g. the Beckn order ID. */
+    @Column(name = "reference")
+    private String reference;
+
+    @Column(name = "note", length = 500)
+    private String note;
+
+    @Column(name = "created_by")
+    private UUID createdBy;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -7,6 +7,7 @@ import com.quickcatalog.entity.enums.UnitType;
 import jakarta.persistence.*;
 import lombok.Data;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.type.SqlTypes;
@@ -18,6 +19,7 @@ import java.util.UUID;
 
 @Data
 @Entity
+@DynamicUpdate
 @Table(name = "product")
 public class Product {
 
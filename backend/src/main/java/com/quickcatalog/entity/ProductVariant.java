@@ -3,6 +3,7 @@ package com.quickcatalog.entity;
 import jakarta.persistence.*;
 import lombok.Data;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.type.SqlTypes;
@@ -13,6 +14,7 @@ import java.util.UUID;
 
 @Data
 @Entity
+@DynamicUpdate
 @Table(name = "product_variant")
 public class ProductVariant {
 
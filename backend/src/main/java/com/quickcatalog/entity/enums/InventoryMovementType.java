@@ -0,0 +1,9 @@
+package com.quickcatalog.entity.enums;
+
+public enum InventoryMovementType {
+    RESERVE,
+    RELEASE,
+    SALE,
+    RETURN,
+    ADJUST
+}
@@ -0,0 +1,28 @@
+package com.quickcatalog.event;
+
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * Published whenever a product, its images, variants, price, stock or ONDC config changes.
+ * Listeners use it to refresh derived, in-memory views of the catalog. Order bookings,
+ * cancellations and returns publish it with {@code stockOnly} set, so views that do not
+ * depend on stock can ignore them.
+ */
+@Data
+public class ProductChangedEvent {
+    private final UUID tenantId;
+    private final UUID productId;
+    private final boolean stockOnly;
+
+    public ProductChangedEvent(UUID tenantId, UUID productId) {
+        this(tenantId, productId, false);
+    }
+
+    public ProductChangedEvent(UUID tenantId, UUID productId, boolean stockOnly) {
+        this.tenantId = tenantId;
+        this.productId = productId;
+        this.stockOnly = stockOnly;
+    }
+}
@@ -1,8 +1,11 @@
 package com.quickcatalog.ondc.beckn.controller;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.quickcatalog.ondc.beckn.model.*;
-import com.quickcatalog.ondc.beckn.service.CancelProcessingService;
+import com.quickcatalog.ondc.beckn.service.BecknRequestReader;
+import com.quickcatalog.ondc.idempotency.MessageDeduplicator;
+import com.quickcatalog.ondc.job.BecknJobQueue;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -14,25 +17,33 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class CancelController {
 
-    private final CancelProcessingService cancelProcessingService;
-    private final ObjectMapper objectMapper;
+    private final BecknJobQueue jobQueue;
+    private final BecknRequestReader requestReader;
+    private final MessageDeduplicator messageDeduplicator;
 
     @PostMapping("/cancel")
-    public ResponseEntity<BecknResponse> handleCancel(@RequestBody String rawBody) {
-        BecknContext context;
+    public ResponseEntity<BecknResponse> handleCancel(HttpServletRequest httpRequest) {
+        byte[] rawBody;
+        BecknRequest<JsonNode> request;
         try {
-            var request = objectMapper.readTree(rawBody);
-            context = objectMapper.treeToValue(request.get("context"), BecknContext.class);
+            rawBody = requestReader.readBody(httpRequest);
+            request = requestReader.parse(rawBody);
         } catch (Exception e) {
             log.error("Failed to parse cancel request: {}", e.getMessage());
             return ResponseEntity.badRequest().body(
                     BecknResponse.nack(null, new BecknError("JSON-PARSING-ERROR", "400", "Invalid request")));
         }
+        BecknContext context = request.getContext();
+        if (!messageDeduplicator.claim(context, "cancel")) {
+            log.info("Duplicate /cancel message {} from BAP: {}, acknowledged without reprocessing",
+                    context.getMessageId(), context.getBapId());
+            return ResponseEntity.ok(BecknResponse.ack(context));
+        }
 
         log.info("Received /cancel from BAP: {}, txn: {}", context.getBapId(), context.getTransactionId());
 
         BecknResponse ack = BecknResponse.ack(context);
-        cancelProcessingService.processCancelAsync(rawBody, context);
+        jobQueue.submit("cancel", rawBody, request);
 
         return ResponseEntity.ok(ack);
     }
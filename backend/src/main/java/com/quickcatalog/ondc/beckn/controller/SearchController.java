@@ -1,8 +1,11 @@
 package com.quickcatalog.ondc.beckn.controller;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.quickcatalog.ondc.beckn.model.*;
-import com.quickcatalog.ondc.beckn.service.SearchProcessingService;
+import com.quickcatalog.ondc.beckn.service.BecknRequestReader;
+import com.quickcatalog.ondc.idempotency.MessageDeduplicator;
+import com.quickcatalog.ondc.job.BecknJobQueue;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -11,7 +14,7 @@ import org.springframework.web.bind.annotation.*;
 /**
  * BPP endpoint for handling Beckn /search requests.
  * Receives a search intent from BAP (via ONDC Gateway), returns ACK immediately,
- * then asynchronously builds the catalog and POSTs on_search callback to BAP.
+ * then builds the catalog from the job queue and POSTs on_search callback to BAP.
  */
 @Slf4j
 @RestController
@@ -19,27 +22,35 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class SearchController {
 
-    private final SearchProcessingService searchProcessingService;
-    private final ObjectMapper objectMapper;
+    private final BecknJobQueue jobQueue;
+    private final BecknRequestReader requestReader;
+    private final MessageDeduplicator messageDeduplicator;
 
     @PostMapping("/search")
-    public ResponseEntity<BecknResponse> handleSearch(@RequestBody String rawBody) {
-        BecknContext context;
+    public ResponseEntity<BecknResponse> handleSearch(HttpServletRequest httpRequest) {
+        byte[] rawBody;
+        BecknRequest<JsonNode> request;
         try {
-            var request = objectMapper.readTree(rawBody);
-            context = objectMapper.treeToValue(request.get("context"), BecknContext.class);
+            rawBody = requestReader.readBody(httpRequest);
+            request = requestReader.parse(rawBody);
         } catch (Exception e) {
             log.error("Failed to parse search request: {}", e.getMessage());
             return ResponseEntity.badRequest().body(
                     BecknResponse.nack(null, new BecknError("JSON-PARSING-ERROR", "400", "Invalid request")));
         }
+        BecknContext context = request.getContext();
+        if (!messageDeduplicator.claim(context, "search")) {
+            log.info("Duplicate /search message {} from BAP: {}, acknowledged without reprocessing",
+                    context.getMessageId(), context.getBapId());
+            return ResponseEntity.ok(BecknResponse.ack(context));
+        }
 
         log.info("Received /search from BAP: {}, domain: {}, txn: {}",
                 context.getBapId(), context.getDomain(), context.getTransactionId());
 
-        // Return ACK immediately, process search asynchronously via separate bean
+        // Return ACK immediately, process search from the job queue
         BecknResponse ack = BecknResponse.ack(context);
-        searchProcessingService.processSearchAsync(rawBody, context);
+        jobQueue.submit("search", rawBody, request);
 
         return ResponseEntity.ok(ack);
     }
@@ -0,0 +1,49 @@
+package com.quickcatalog.ondc.beckn.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.quickcatalog.ondc.beckn.model.BecknRequest;
+import com.quickcatalog.ondc.crypto.OndcAuthFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Reads an incoming Beckn request once. The body bytes are the ones already read and
+ * verified by {@link OndcAuthFilter}, and they are parsed in a single pass into a typed
+ * context plus the message tree, which the job queue processors work on directly.
+ */
+@Component
+@RequiredArgsConstructor
+public class BecknRequestReader {
+
+    private static final TypeReference<BecknRequest<JsonNode>> REQUEST_TYPE = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+
+    public byte[] readBody(HttpServletRequest httpRequest) throws IOException {
+        Object body = httpRequest.getAttribute(OndcAuthFilter.RAW_BODY_ATTRIBUTE);
+        if (body instanceof byte[] bytes) {
+            return bytes;
+        }
+        return httpRequest.getInputStream().readAllBytes();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the body has no context
+     */
+    public BecknRequest<JsonNode> parse(byte[] body) throws IOException {
+        BecknRequest<JsonNode> request = objectMapper.readValue(body, REQUEST_TYPE);
+        if (request == null || request.getContext() == null) {
+            throw new IllegalArgumentException("Missing context");
+        }
+        if (request.getMessage() == null) {
+            request.setMessage(MissingNode.getInstance());
+        }
+        return request;
+    }
+}
@@ -1,24 +1,29 @@
 package com.quickcatalog.ondc.beckn.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.quickcatalog.ondc.beckn.model.*;
-import com.quickcatalog.ondc.config.OndcProperties;
 import com.quickcatalog.ondc.entity.OndcOrder;
 import com.quickcatalog.ondc.entity.OndcSubscriber;
-import com.quickcatalog.ondc.entity.enums.OndcEnvironment;
 import com.quickcatalog.ondc.entity.enums.OndcOrderState;
+import com.quickcatalog.ondc.event.OndcOrderExpiredEvent;
+import com.quickcatalog.ondc.inventory.StockReservationService;
+import com.quickcatalog.ondc.job.BecknProcessingException;
 import com.quickcatalog.ondc.repository.OndcOrderRepository;
-import com.quickcatalog.ondc.repository.OndcSubscriberRepository;
+import com.quickcatalog.ondc.routing.OndcSellerDirectory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.*;
 
 /**
- * Handles /cancel requests — processes cancellation with reason codes.
+ * Handles /cancel requests — processes cancellation with reason codes. Also sends the
+ * unsolicited on_cancel for orders cancelled because the seller never accepted them.
  */
 @Slf4j
 @Service
@@ -26,21 +31,19 @@ import java.util.*;
 public class CancelProcessingService {
 
     private final OndcOrderRepository orderRepository;
-    private final OndcSubscriberRepository subscriberRepository;
+    private final StockReservationService stockReservationService;
+    private final OndcSellerDirectory sellerDirectory;
     private final CallbackService callbackService;
     private final OndcApiLogService apiLogService;
-    private final OndcProperties ondcProperties;
     private final ObjectMapper objectMapper;
 
-    @Async("ondcCallbackExecutor")
-    public void processCancelAsync(String rawBody, BecknContext context) {
+    public void processCancel(byte[] rawBody, BecknRequest<JsonNode> request) {
+        BecknContext context = request.getContext();
         long startTime = System.currentTimeMillis();
 
         try {
             logIncoming(rawBody, context);
-
-            var root = objectMapper.readTree(rawBody);
-            var messageNode = root.path("message");
+            var messageNode = request.getMessage();
             String orderId = messageNode.path("order_id").asText(null);
             String cancellationReasonId = messageNode.path("cancellation_reason_id").asText(null);
 
@@ -49,8 +52,7 @@ public class CancelProcessingService {
                 return;
             }
 
-            OndcEnvironment env = OndcEnvironment.valueOf(ondcProperties.getEnvironment().toUpperCase());
-            OndcSubscriber subscriber = findSubscriber(env);
+            OndcSubscriber subscriber = findSubscriber(context);
             if (subscriber == null) return;
 
             UUID tenantId = subscriber.getTenantId();
@@ -63,65 +65,112 @@ public class CancelProcessingService {
 
             OndcOrder ondcOrder = orderOpt.get();
 
-            // Only allow cancellation for CREATED or ACCEPTED orders
-            if (ondcOrder.getState() != OndcOrderState.CREATED &&
-                    ondcOrder.getState() != OndcOrderState.ACCEPTED) {
-                log.warn("Cannot cancel order in state: {}", ondcOrder.getState());
+            if (isRepeatedCancel(ondcOrder, context)) {
+                // An earlier attempt committed the cancellation; answer it again
+                log.info("ONDC order {} already cancelled by {}; resending on_cancel", orderId, context.getBapId());
+                cancellationReasonId = ondcOrder.getCancellationReason();
+            } else if (stockReservationService.cancel(tenantId, ondcOrder.getId(), orderId,
+                    cancellationReasonId, context.getBapId())) {
+                ondcOrder.setState(OndcOrderState.CANCELLED);
+                ondcOrder.setCancellationReason(cancellationReasonId);
+                ondcOrder.setCancelledBy(context.getBapId());
+                log.info("Cancelled ONDC order: {} (reason: {})", orderId, cancellationReasonId);
+            } else {
+                // Only CREATED or ACCEPTED orders can be cancelled
+                log.warn("Cannot cancel order {} in state: {}", orderId, ondcOrder.getState());
                 return;
             }
 
-            // Update order state
-            ondcOrder.setState(OndcOrderState.CANCELLED);
-            ondcOrder.setCancellationReason(cancellationReasonId);
-            ondcOrder.setCancelledBy(context.getBapId());
-            orderRepository.save(ondcOrder);
-
-            log.info("Cancelled ONDC order: {} (reason: {})", orderId, cancellationReasonId);
-
-            // Build on_cancel response
-            BecknOrder responseOrder = new BecknOrder();
-            responseOrder.setId(orderId);
-            responseOrder.setState("Cancelled");
-            responseOrder.setUpdatedAt(Instant.now().toString());
-
-            BecknOrder.Cancellation cancellation = new BecknOrder.Cancellation();
-            cancellation.setCancelledBy(context.getBapId());
-            BecknOrder.CancelReason reason = new BecknOrder.CancelReason();
-            reason.setId(cancellationReasonId);
-            cancellation.setReason(reason);
-            responseOrder.setCancellation(cancellation);
-
-            // Restore items/quote from stored JSONB
-            if (ondcOrder.getItems() != null) {
-                responseOrder.setItems(objectMapper.readValue(ondcOrder.getItems(),
-                        objectMapper.getTypeFactory().constructCollectionType(List.class, BecknItem.class)));
+            sendOnCancel(ondcOrder, subscriber, buildResponseContext(context, subscriber, "on_cancel"),
+                    context.getBapId(), cancellationReasonId);
+
+            log.info("Cancel processing completed in {}ms", System.currentTimeMillis() - startTime);
+
+        } catch (Exception e) {
+            log.error("Failed to process cancel: {}", e.getMessage(), e);
+            throw new BecknProcessingException("cancel", e);
+        }
+    }
+
+    /**
+     * Tell the buyer app about an order the seller never accepted, which was cancelled
+     * when its stock reservation expired. There is no request to answer, so the
+     * context is rebuilt from the order.
+     */
+    @TransactionalEventListener
+    public void onOrderExpired(OndcOrderExpiredEvent event) {
+        try {
+            OndcOrder ondcOrder = orderRepository.findByBecknOrderIdAndTenantId(
+                    event.getBecknOrderId(), event.getTenantId()).orElse(null);
+            if (ondcOrder == null || ondcOrder.getBapUri() == null) {
+                return;
             }
-            if (ondcOrder.getQuote() != null) {
-                responseOrder.setQuote(objectMapper.readValue(ondcOrder.getQuote(), Quote.class));
+            OndcSubscriber subscriber = sellerDirectory.getSubscribers(sellerDirectory.currentEnvironment()).stream()
+                    .filter(candidate -> event.getTenantId().equals(candidate.getTenantId()))
+                    .findFirst().orElse(null);
+            if (subscriber == null) {
+                log.warn("No subscriber to notify cancellation of expired order {}", event.getBecknOrderId());
+                return;
             }
 
-            OnCancelMessage message = new OnCancelMessage();
-            message.setOrder(responseOrder);
+            BecknContext orderContext = new BecknContext();
+            orderContext.setDomain(ondcOrder.getDomain());
+            orderContext.setCountry("IND");
+            orderContext.setCity(ondcOrder.getCity() != null ? ondcOrder.getCity() : "*");
+            orderContext.setBapId(ondcOrder.getBapId());
+            orderContext.setBapUri(ondcOrder.getBapUri());
+            orderContext.setTransactionId(ondcOrder.getTransactionId());
+
+            sendOnCancel(ondcOrder, subscriber, buildResponseContext(orderContext, subscriber, "on_cancel"),
+                    subscriber.getSubscriberId(), ondcOrder.getCancellationReason());
+            log.info("Sent on_cancel for expired ONDC order {}", event.getBecknOrderId());
+        } catch (Exception e) {
+            log.error("Failed to notify cancellation of expired order {}: {}",
+                    event.getBecknOrderId(), e.getMessage(), e);
+        }
+    }
 
-            BecknContext responseContext = buildResponseContext(context, subscriber, "on_cancel");
-            Map<String, Object> response = new LinkedHashMap<>();
-            response.put("context", responseContext);
-            response.put("message", message);
+    private static boolean isRepeatedCancel(OndcOrder ondcOrder, BecknContext context) {
+        return ondcOrder.getState() == OndcOrderState.CANCELLED
+                && Objects.equals(ondcOrder.getCancelledBy(), context.getBapId());
+    }
 
-            callbackService.sendCallback(context.getBapUri(), "on_cancel", response,
-                    subscriber, tenantId, context.getTransactionId());
+    private void sendOnCancel(OndcOrder ondcOrder, OndcSubscriber subscriber, BecknContext responseContext,
+                              String cancelledBy, String cancellationReasonId) throws JsonProcessingException {
+        BecknOrder responseOrder = new BecknOrder();
+        responseOrder.setId(ondcOrder.getBecknOrderId());
+        responseOrder.setState("Cancelled");
+        responseOrder.setUpdatedAt(Instant.now().toString());
+
+        BecknOrder.Cancellation cancellation = new BecknOrder.Cancellation();
+        cancellation.setCancelledBy(cancelledBy);
+        BecknOrder.CancelReason reason = new BecknOrder.CancelReason();
+        reason.setId(cancellationReasonId);
+        cancellation.setReason(reason);
+        responseOrder.setCancellation(cancellation);
+
+        // Restore items/quote from stored JSONB
+        if (ondcOrder.getItems() != null) {
+            responseOrder.setItems(objectMapper.readValue(ondcOrder.getItems(),
+                    objectMapper.getTypeFactory().constructCollectionType(List.class, BecknItem.class)));
+        }
+        if (ondcOrder.getQuote() != null) {
+            responseOrder.setQuote(objectMapper.readValue(ondcOrder.getQuote(), Quote.class));
+        }
 
-            log.info("Cancel processing completed in {}ms", System.currentTimeMillis() - startTime);
+        OnCancelMessage message = new OnCancelMessage();
+        message.setOrder(responseOrder);
 
-        } catch (Exception e) {
-            log.error("Failed to process cancel: {}", e.getMessage(), e);
-        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("context", responseContext);
+        response.put("message", message);
+
+        callbackService.sendCallback(responseContext.getBapUri(), "on_cancel", response,
+                subscriber, ondcOrder.getTenantId(), responseContext.getTransactionId());
     }
 
-    private OndcSubscriber findSubscriber(OndcEnvironment env) {
-        return subscriberRepository.findAll().stream()
-                .filter(s -> s.getEnvironment() == env)
-                .findFirst().orElse(null);
+    private OndcSubscriber findSubscriber(BecknContext context) {
+        return sellerDirectory.route(context).orElse(null);
     }
 
     private BecknContext buildResponseContext(BecknContext incoming, OndcSubscriber subscriber, String action) {
@@ -142,14 +191,13 @@ public class CancelProcessingService {
         return ctx;
     }
 
-    private void logIncoming(String rawBody, BecknContext context) {
+    private void logIncoming(byte[] rawBody, BecknContext context) {
         try {
-            OndcSubscriber subscriber = findSubscriber(
-                    OndcEnvironment.valueOf(ondcProperties.getEnvironment().toUpperCase()));
+            OndcSubscriber subscriber = findSubscriber(context);
             if (subscriber != null) {
                 apiLogService.logIncoming(subscriber.getTenantId(), "cancel",
                         context.getTransactionId(), context.getMessageId(),
-                        context.getBapId(), rawBody, 200, null);
+                        context.getBapId(), new String(rawBody, StandardCharsets.UTF_8), 200, null);
             }
         } catch (Exception e) {
             log.warn("Could not log incoming cancel: {}", e.getMessage());
@@ -6,6 +6,7 @@ import com.quickcatalog.entity.ProductImage;
 import com.quickcatalog.ondc.beckn.model.*;
 import com.quickcatalog.ondc.entity.OndcProductConfig;
 import com.quickcatalog.ondc.entity.OndcProvider;
+import com.quickcatalog.ondc.inventory.StockAvailabilityCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -22,7 +23,11 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class CatalogMappingService {
 
+    /** The only fulfillment type sellers currently offer. */
+    public static final String FULFILLMENT_TYPE = "Delivery";
+
     private final ObjectMapper objectMapper;
+    private final StockAvailabilityCache stockAvailabilityCache;
 
     /**
      * Convert a QuickCatalog Product + OndcProductConfig into a BecknItem.
@@ -71,9 +76,7 @@ public class CatalogMappingService {
         // Quantity
         Quantity quantity = new Quantity();
         Quantity.Available available = new Quantity.Available();
-        boolean inStock = product.getCurrentStock() != null &&
-                product.getCurrentStock().compareTo(java.math.BigDecimal.ZERO) > 0;
-        available.setCount(inStock ? "99" : "0");
+        available.setCount(String.valueOf(stockAvailabilityCache.getAvailable(product.getId())));
         quantity.setAvailable(available);
 
         if (config.getMaxOrderQuantity() != null) {
@@ -205,7 +208,7 @@ public class CatalogMappingService {
         // Default fulfillment
         BecknFulfillment fulfillment = new BecknFulfillment();
         fulfillment.setId("ful-1");
-        fulfillment.setType("Delivery");
+        fulfillment.setType(FULFILLMENT_TYPE);
         BecknFulfillment.Contact contact = new BecknFulfillment.Contact();
         contact.setPhone(provider.getContactPhone());
         contact.setEmail(provider.getContactEmail());
@@ -216,14 +219,9 @@ public class CatalogMappingService {
     }
 
     /**
-     * Build the full catalog (BecknCatalog) for a provider with their published products.
+     * Build the BPP-level descriptor shown at the top of a provider's catalog.
      */
-    public BecknCatalog buildCatalog(OndcProvider provider,
-                                      List<Product> products,
-                                      List<OndcProductConfig> configs) {
-        BecknCatalog catalog = new BecknCatalog();
-
-        // BPP descriptor
+    public Descriptor mapBppDescriptor(OndcProvider provider) {
         Descriptor bppDescriptor = new Descriptor();
         bppDescriptor.setName(provider.getName());
         bppDescriptor.setShortDesc(provider.getShortDesc());
@@ -231,7 +229,17 @@ public class CatalogMappingService {
             bppDescriptor.setSymbol(provider.getLogoUrl());
             bppDescriptor.setImages(List.of(provider.getLogoUrl()));
         }
-        catalog.setBppDescriptor(bppDescriptor);
+        return bppDescriptor;
+    }
+
+    /**
+     * Build the full catalog (BecknCatalog) for a provider with their published products.
+     */
+    public BecknCatalog buildCatalog(OndcProvider provider,
+                                      List<Product> products,
+                                      List<OndcProductConfig> configs) {
+        BecknCatalog catalog = new BecknCatalog();
+        catalog.setBppDescriptor(mapBppDescriptor(provider));
 
         // Map configs by product ID for fast lookup
         Map<UUID, OndcProductConfig> configMap = configs.stream()
@@ -2,26 +2,33 @@ package com.quickcatalog.ondc.beckn.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.quickcatalog.entity.Product;
 import com.quickcatalog.ondc.beckn.model.*;
-import com.quickcatalog.ondc.config.OndcProperties;
 import com.quickcatalog.ondc.entity.*;
 import com.quickcatalog.ondc.entity.enums.*;
+import com.quickcatalog.ondc.inventory.InsufficientStockException;
+import com.quickcatalog.ondc.inventory.StockLine;
+import com.quickcatalog.ondc.job.BecknProcessingException;
+import com.quickcatalog.ondc.quote.CartQuote;
+import com.quickcatalog.ondc.quote.QuoteEngine;
+import com.quickcatalog.ondc.quote.QuoteLine;
 import com.quickcatalog.ondc.repository.*;
-import com.quickcatalog.repository.ProductRepository;
+import com.quickcatalog.ondc.routing.OndcSellerDirectory;
+import com.quickcatalog.ondc.session.TransactionSession;
+import com.quickcatalog.ondc.session.TransactionSessionStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.*;
 
 /**
- * Handles /confirm requests — creates OndcOrder + items + fulfillment + payment,
- * reserves stock, and sends on_confirm callback.
+ * Handles /confirm requests — creates OndcOrder + items + fulfillment + payment and
+ * reserves stock in one transaction through {@link OrderBookingService}, then sends the
+ * on_confirm callback.
  */
 @Slf4j
 @Service
@@ -29,45 +36,49 @@ import java.util.*;
 public class ConfirmProcessingService {
 
     private final OndcOrderRepository orderRepository;
-    private final OndcFulfillmentRepository fulfillmentRepository;
-    private final OndcPaymentRepository paymentRepository;
-    private final OndcProviderRepository providerRepository;
-    private final OndcSubscriberRepository subscriberRepository;
-    private final ProductRepository productRepository;
+    private final OndcSellerDirectory sellerDirectory;
+    private final QuoteEngine quoteEngine;
+    private final TransactionSessionStore sessionStore;
+    private final OrderBookingService orderBookingService;
     private final CallbackService callbackService;
     private final OndcApiLogService apiLogService;
-    private final OndcProperties ondcProperties;
     private final ObjectMapper objectMapper;
 
-    @Async("ondcCallbackExecutor")
-    public void processConfirmAsync(String rawBody, BecknContext context) {
+    public void processConfirm(byte[] rawBody, BecknRequest<JsonNode> request) {
+        BecknContext context = request.getContext();
         long startTime = System.currentTimeMillis();
 
         try {
             logIncoming(rawBody, context);
-
-            var root = objectMapper.readTree(rawBody);
-            var orderNode = root.path("message").path("order");
+            var orderNode = request.getMessage().path("order");
 
             String providerId = orderNode.path("provider").path("id").asText(null);
             String orderId = orderNode.path("id").asText(UUID.randomUUID().toString());
 
-            OndcEnvironment env = OndcEnvironment.valueOf(ondcProperties.getEnvironment().toUpperCase());
-            OndcSubscriber subscriber = findSubscriber(env);
+            OndcSubscriber subscriber = findSubscriber(context, providerId);
             if (subscriber == null) return;
 
             UUID tenantId = subscriber.getTenantId();
 
-            // Resolve provider
-            UUID ondcProviderId = null;
-            if (providerId != null) {
-                ondcProviderId = providerRepository.findByTenantIdAndIsActiveTrue(tenantId).stream()
-                        .filter(p -> p.getProviderId().equals(providerId))
+            // A retry sent with a fresh message_id must not book the order twice
+            if (orderRepository.findByBecknOrderIdAndTenantId(orderId, tenantId).isPresent()) {
+                log.info("Order {} already confirmed, ignoring repeated /confirm", orderId);
+                return;
+            }
+
+            TransactionSession session = sessionStore.get(tenantId, context.getTransactionId())
+                    .filter(existing -> existing.matches(context.getBapId(), providerId))
+                    .orElse(null);
+
+            // Resolve provider, unless the transaction already did
+            UUID ondcProviderId = session != null ? session.getOndcProviderId() : null;
+            if (ondcProviderId == null && providerId != null) {
+                ondcProviderId = sellerDirectory.findActiveProvider(tenantId, providerId)
                         .map(OndcProvider::getId)
-                        .findFirst().orElse(null);
+                        .orElse(null);
             }
             if (ondcProviderId == null) {
-                ondcProviderId = providerRepository.findByTenantIdAndIsActiveTrue(tenantId).stream()
+                ondcProviderId = sellerDirectory.getActiveProviders(tenantId).stream()
                         .map(OndcProvider::getId)
                         .findFirst().orElse(null);
             }
@@ -86,26 +97,33 @@ public class ConfirmProcessingService {
             ondcOrder.setBapId(context.getBapId());
             ondcOrder.setBapUri(context.getBapUri());
             ondcOrder.setDomain(context.getDomain());
+            ondcOrder.setCity(context.getCity());
+
+            // Billing and fulfillment given at /init need not be repeated
+            JsonNode billingNode = orderNode.path("billing");
+            if (billingNode.isMissingNode() && session != null && session.getBilling() != null) {
+                billingNode = session.getBilling();
+            }
+            JsonNode fulfillmentNode = orderNode.path("fulfillment");
+            if (fulfillmentNode.isMissingNode() && session != null && session.getFulfillment() != null) {
+                fulfillmentNode = session.getFulfillment();
+            }
 
             // Store JSON blobs for full Beckn protocol fidelity
             if (!orderNode.path("items").isMissingNode()) {
                 ondcOrder.setItems(objectMapper.writeValueAsString(orderNode.path("items")));
             }
-            if (!orderNode.path("billing").isMissingNode()) {
-                ondcOrder.setBilling(objectMapper.writeValueAsString(orderNode.path("billing")));
+            if (!billingNode.isMissingNode()) {
+                ondcOrder.setBilling(objectMapper.writeValueAsString(billingNode));
             }
-            if (!orderNode.path("fulfillment").isMissingNode()) {
-                ondcOrder.setFulfillment(objectMapper.writeValueAsString(orderNode.path("fulfillment")));
+            if (!fulfillmentNode.isMissingNode()) {
+                ondcOrder.setFulfillment(objectMapper.writeValueAsString(fulfillmentNode));
             }
             if (!orderNode.path("payment").isMissingNode()) {
                 ondcOrder.setPayment(objectMapper.writeValueAsString(orderNode.path("payment")));
             }
-            if (!orderNode.path("quote").isMissingNode()) {
-                ondcOrder.setQuote(objectMapper.writeValueAsString(orderNode.path("quote")));
-            }
 
             // Store normalized billing fields for dashboard
-            JsonNode billingNode = orderNode.path("billing");
             if (!billingNode.isMissingNode()) {
                 ondcOrder.setBillingName(billingNode.path("name").asText(null));
                 ondcOrder.setBillingPhone(billingNode.path("phone").asText(null));
@@ -116,68 +134,41 @@ public class ConfirmProcessingService {
                 }
             }
 
-            // Create normalized order items + reserve stock
+            // Price the cart with the quote given at /select; reject it if any item is short
+            CartQuote cartQuote = quoteEngine.reuseOrQuote(tenantId,
+                    session != null ? session.getQuote() : null, orderNode.path("items"));
+            if (cartQuote.hasShortfalls()) {
+                log.warn("Rejecting confirm for order {}: {}", orderId, cartQuote.describeShortfalls());
+                sendOutOfStock(context, subscriber, orderNode, orderId, cartQuote.describeShortfalls());
+                return;
+            }
+            ondcOrder.setQuote(objectMapper.writeValueAsString(cartQuote.getQuote()));
+
+            // Create normalized order items
             List<OndcOrderItem> orderItems = new ArrayList<>();
-            JsonNode itemsNode = orderNode.path("items");
-            if (itemsNode.isArray()) {
-                for (JsonNode itemNode : itemsNode) {
-                    String itemId = itemNode.path("id").asText(null);
-                    int qty = itemNode.path("quantity").path("count").asInt(1);
-                    if (itemId == null) continue;
-
-                    try {
-                        UUID productId = UUID.fromString(itemId);
-                        Optional<Product> productOpt = productRepository.findByIdAndTenantId(productId, tenantId);
-                        if (productOpt.isEmpty()) continue;
-
-                        Product product = productOpt.get();
-                        BigDecimal unitPrice = product.getSellingPrice() != null ?
-                                product.getSellingPrice() : product.getMrp();
-                        BigDecimal gstRate = getGstRate(product);
-                        BigDecimal itemTotal = unitPrice.multiply(BigDecimal.valueOf(qty));
-                        BigDecimal taxAmount = itemTotal.multiply(gstRate)
-                                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
-
-                        OndcOrderItem orderItem = new OndcOrderItem();
-                        orderItem.setOndcOrder(ondcOrder);
-                        orderItem.setProductId(productId);
-                        orderItem.setQuantity(qty);
-                        orderItem.setUnitPrice(unitPrice);
-                        orderItem.setTaxAmount(taxAmount);
-                        orderItem.setTotalPrice(itemTotal.add(taxAmount));
-                        orderItems.add(orderItem);
-
-                        // Reserve stock
-                        if (product.isTrackInventory() && product.getCurrentStock() != null) {
-                            BigDecimal newStock = product.getCurrentStock()
-                                    .subtract(BigDecimal.valueOf(qty));
-                            if (newStock.compareTo(BigDecimal.ZERO) < 0) {
-                                newStock = BigDecimal.ZERO;
-                            }
-                            product.setCurrentStock(newStock);
-                            productRepository.save(product);
-                            log.info("Reserved {} units of product {}, stock: {} -> {}",
-                                    qty, product.getName(),
-                                    product.getCurrentStock().add(BigDecimal.valueOf(qty)), newStock);
-                        }
-                    } catch (IllegalArgumentException e) {
-                        log.warn("Invalid product ID in confirm: {}", itemId);
-                    }
+            List<StockLine> stockLines = new ArrayList<>();
+            for (QuoteLine line : cartQuote.getLines()) {
+                OndcOrderItem orderItem = new OndcOrderItem();
+                orderItem.setOndcOrder(ondcOrder);
+                orderItem.setProductId(line.getProductId());
+                orderItem.setVariantId(line.getVariantId());
+                orderItem.setQuantity(line.getQuoted());
+                orderItem.setUnitPrice(line.getUnitPrice());
+                orderItem.setTaxAmount(line.getTaxAmount());
+                orderItem.setTotalPrice(line.getItemTotal().add(line.getTaxAmount()));
+                orderItems.add(orderItem);
+
+                if (line.isStockTracked()) {
+                    stockLines.add(new StockLine(line.getProductId(), line.getVariantId(),
+                            BigDecimal.valueOf(line.getQuoted())));
                 }
             }
 
-            ondcOrder.setOrderItems(orderItems);
-            OndcOrder savedOrder = orderRepository.save(ondcOrder);
-            log.info("Created ONDC order: {} (becknId: {}) with {} items",
-                    savedOrder.getId(), orderId, orderItems.size());
-
             // Create fulfillment record
             OndcFulfillment fulfillment = new OndcFulfillment();
-            fulfillment.setOndcOrderId(savedOrder.getId());
             fulfillment.setFulfillmentType(FulfillmentType.DELIVERY);
             fulfillment.setFulfillmentState(FulfillmentState.PENDING);
 
-            JsonNode fulfillmentNode = orderNode.path("fulfillment");
             if (!fulfillmentNode.isMissingNode()) {
                 JsonNode endNode = fulfillmentNode.path("end");
                 if (!endNode.isMissingNode()) {
@@ -193,11 +184,9 @@ public class ConfirmProcessingService {
                     fulfillment.setFulfillmentType(FulfillmentType.SELF_PICKUP);
                 }
             }
-            fulfillmentRepository.save(fulfillment);
 
             // Create payment record
             OndcPayment payment = new OndcPayment();
-            payment.setOndcOrderId(savedOrder.getId());
 
             JsonNode paymentNode = orderNode.path("payment");
             if (!paymentNode.isMissingNode()) {
@@ -230,12 +219,31 @@ public class ConfirmProcessingService {
                 }
             }
             payment.setSettlementStatus(SettlementStatus.PENDING);
-            paymentRepository.save(payment);
+
+            // Store the order and reserve its stock as one unit; reject the order if any item is short
+            ondcOrder.setOrderItems(orderItems);
+            OndcOrder savedOrder;
+            try {
+                savedOrder = orderBookingService.book(ondcOrder, stockLines, fulfillment, payment);
+            } catch (InsufficientStockException e) {
+                log.warn("Rejecting confirm for order {}: {}", orderId, e.getMessage());
+                sendOutOfStock(context, subscriber, orderNode, orderId, describe(e));
+                return;
+            } catch (DataIntegrityViolationException e) {
+                if (orderRepository.findByBecknOrderIdAndTenantId(orderId, tenantId).isPresent()) {
+                    log.info("Order {} was confirmed concurrently, ignoring repeated /confirm", orderId);
+                    return;
+                }
+                throw e;
+            }
+            log.info("Created ONDC order: {} (becknId: {}) with {} items",
+                    savedOrder.getId(), orderId, orderItems.size());
 
             // Build on_confirm response
             BecknOrder responseOrder = objectMapper.treeToValue(orderNode, BecknOrder.class);
             responseOrder.setId(orderId);
             responseOrder.setState("Accepted");
+            responseOrder.setQuote(cartQuote.getQuote());
             responseOrder.setCreatedAt(Instant.now().toString());
             responseOrder.setUpdatedAt(Instant.now().toString());
 
@@ -254,24 +262,42 @@ public class ConfirmProcessingService {
 
         } catch (Exception e) {
             log.error("Failed to process confirm: {}", e.getMessage(), e);
+            throw new BecknProcessingException("confirm", e);
         }
     }
 
-    private BigDecimal getGstRate(Product product) {
-        if (product.getGstRate() == null) return BigDecimal.ZERO;
-        return switch (product.getGstRate()) {
-            case GST_0 -> BigDecimal.ZERO;
-            case GST_5 -> BigDecimal.valueOf(5);
-            case GST_12 -> BigDecimal.valueOf(12);
-            case GST_18 -> BigDecimal.valueOf(18);
-            case GST_28 -> BigDecimal.valueOf(28);
-        };
+    /**
+     * Answer a confirm that could not be covered by stock with an on_confirm error;
+     * no order is created.
+     */
+    private void sendOutOfStock(BecknContext context, OndcSubscriber subscriber, JsonNode orderNode,
+                                String orderId, String unavailable) throws Exception {
+        BecknOrder responseOrder = objectMapper.treeToValue(orderNode, BecknOrder.class);
+        responseOrder.setId(orderId);
+        responseOrder.setState("Cancelled");
+
+        OnConfirmMessage message = new OnConfirmMessage();
+        message.setOrder(responseOrder);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("context", buildResponseContext(context, subscriber, "on_confirm"));
+        response.put("message", message);
+        response.put("error", new BecknError("DOMAIN-ERROR", "40002", unavailable));
+
+        callbackService.sendCallback(context.getBapUri(), "on_confirm", response,
+                subscriber, subscriber.getTenantId(), context.getTransactionId());
+    }
+
+    private static String describe(InsufficientStockException e) {
+        StringBuilder unavailable = new StringBuilder("Item quantity unavailable:");
+        for (StockLine line : e.getShortfalls()) {
+            unavailable.append(' ').append(line.getVariantId() != null ? line.getVariantId() : line.getProductId());
+        }
+        return unavailable.toString();
     }
 
-    private OndcSubscriber findSubscriber(OndcEnvironment env) {
-        return subscriberRepository.findAll().stream()
-                .filter(s -> s.getEnvironment() == env)
-                .findFirst().orElse(null);
+    private OndcSubscriber findSubscriber(BecknContext context, String providerId) {
+        return sellerDirectory.route(context, providerId).orElse(null);
     }
 
     private BecknContext buildResponseContext(BecknContext incoming, OndcSubscriber subscriber, String action) {
@@ -292,14 +318,13 @@ public class ConfirmProcessingService {
         return ctx;
     }
 
-    private void logIncoming(String rawBody, BecknContext context) {
+    private void logIncoming(byte[] rawBody, BecknContext context) {
         try {
-            OndcSubscriber subscriber = findSubscriber(
-                    OndcEnvironment.valueOf(ondcProperties.getEnvironment().toUpperCase()));
+            OndcSubscriber subscriber = findSubscriber(context, null);
             if (subscriber != null) {
                 apiLogService.logIncoming(subscriber.getTenantId(), "confirm",
                         context.getTransactionId(), context.getMessageId(),
-                        context.getBapId(), rawBody, 200, null);
+                        context.getBapId(), new String(rawBody, StandardCharsets.UTF_8), 200, null);
             }
         } catch (Exception e) {
             log.warn("Could not log incoming confirm: {}", e.getMessage());
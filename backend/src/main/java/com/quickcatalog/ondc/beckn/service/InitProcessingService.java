@@ -1,45 +1,48 @@
 package com.quickcatalog.ondc.beckn.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.quickcatalog.ondc.beckn.model.*;
-import com.quickcatalog.ondc.config.OndcProperties;
 import com.quickcatalog.ondc.entity.OndcProvider;
 import com.quickcatalog.ondc.entity.OndcSubscriber;
-import com.quickcatalog.ondc.entity.enums.OndcEnvironment;
-import com.quickcatalog.ondc.repository.OndcProviderRepository;
-import com.quickcatalog.ondc.repository.OndcSubscriberRepository;
+import com.quickcatalog.ondc.job.BecknProcessingException;
+import com.quickcatalog.ondc.quote.CartQuote;
+import com.quickcatalog.ondc.quote.QuoteEngine;
+import com.quickcatalog.ondc.routing.OndcSellerDirectory;
+import com.quickcatalog.ondc.session.TransactionSession;
+import com.quickcatalog.ondc.session.TransactionSessionStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.*;
 
 /**
- * Handles /init requests — validates billing/fulfillment details, prepares order draft.
+ * Handles /init requests — validates billing/fulfillment details, prepares order draft
+ * priced with the quote given at /select, and records the details in the transaction
+ * session for /confirm.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class InitProcessingService {
 
-    private final OndcProviderRepository providerRepository;
-    private final OndcSubscriberRepository subscriberRepository;
+    private final OndcSellerDirectory sellerDirectory;
+    private final QuoteEngine quoteEngine;
+    private final TransactionSessionStore sessionStore;
     private final CallbackService callbackService;
     private final OndcApiLogService apiLogService;
-    private final OndcProperties ondcProperties;
     private final ObjectMapper objectMapper;
 
-    @Async("ondcCallbackExecutor")
-    public void processInitAsync(String rawBody, BecknContext context) {
+    public void processInit(byte[] rawBody, BecknRequest<JsonNode> request) {
+        BecknContext context = request.getContext();
         long startTime = System.currentTimeMillis();
 
         try {
             logIncoming(rawBody, context);
-
-            var root = objectMapper.readTree(rawBody);
-            var orderNode = root.path("message").path("order");
+            var orderNode = request.getMessage().path("order");
 
             String providerId = orderNode.path("provider").path("id").asText(null);
             var billingNode = orderNode.path("billing");
@@ -50,8 +53,7 @@ public class InitProcessingService {
                 return;
             }
 
-            OndcEnvironment env = OndcEnvironment.valueOf(ondcProperties.getEnvironment().toUpperCase());
-            OndcSubscriber subscriber = findSubscriber(env);
+            OndcSubscriber subscriber = findSubscriber(context);
             if (subscriber == null) return;
 
             UUID tenantId = subscriber.getTenantId();
@@ -67,6 +69,25 @@ public class InitProcessingService {
             responseOrder.setState("Created");
             responseOrder.setId(UUID.randomUUID().toString());
 
+            TransactionSession session = sessionStore.get(tenantId, context.getTransactionId())
+                    .filter(existing -> existing.matches(context.getBapId(), providerId))
+                    .orElseGet(() -> new TransactionSession(tenantId, context.getTransactionId(),
+                            context.getBapId()));
+            CartQuote cartQuote = quoteEngine.reuseOrQuote(tenantId, session.getQuote(), orderNode.path("items"));
+            responseOrder.setQuote(cartQuote.getQuote());
+
+            if (session.getOndcProviderId() == null) {
+                session.setProviderId(providerId);
+                sellerDirectory.findActiveProvider(tenantId, providerId)
+                        .ifPresent(provider -> session.setOndcProviderId(provider.getId()));
+            }
+            session.setQuote(cartQuote);
+            session.setBilling(billingNode);
+            if (!fulfillmentNode.isMissingNode()) {
+                session.setFulfillment(fulfillmentNode);
+            }
+            sessionStore.put(session, "init");
+
             // Set payment details if not present
             if (responseOrder.getPayment() == null) {
                 BecknPayment payment = new BecknPayment();
@@ -83,6 +104,9 @@ public class InitProcessingService {
             Map<String, Object> response = new LinkedHashMap<>();
             response.put("context", responseContext);
             response.put("message", message);
+            if (cartQuote.hasShortfalls()) {
+                response.put("error", new BecknError("DOMAIN-ERROR", "40002", cartQuote.describeShortfalls()));
+            }
 
             callbackService.sendCallback(context.getBapUri(), "on_init", response,
                     subscriber, tenantId, context.getTransactionId());
@@ -91,13 +115,12 @@ public class InitProcessingService {
 
         } catch (Exception e) {
             log.error("Failed to process init: {}", e.getMessage(), e);
+            throw new BecknProcessingException("init", e);
         }
     }
 
-    private OndcSubscriber findSubscriber(OndcEnvironment env) {
-        return subscriberRepository.findAll().stream()
-                .filter(s -> s.getEnvironment() == env)
-                .findFirst().orElse(null);
+    private OndcSubscriber findSubscriber(BecknContext context) {
+        return sellerDirectory.route(context).orElse(null);
     }
 
     private BecknContext buildResponseContext(BecknContext incoming, OndcSubscriber subscriber, String action) {
@@ -118,14 +141,13 @@ public class InitProcessingService {
         return ctx;
     }
 
-    private void logIncoming(String rawBody, BecknContext context) {
+    private void logIncoming(byte[] rawBody, BecknContext context) {
         try {
-            OndcSubscriber subscriber = findSubscriber(
-                    OndcEnvironment.valueOf(ondcProperties.getEnvironment().toUpperCase()));
+            OndcSubscriber subscriber = findSubscriber(context);
             if (subscriber != null) {
                 apiLogService.logIncoming(subscriber.getTenantId(), "init",
                         context.getTransactionId(), context.getMessageId(),
-                        context.getBapId(), rawBody, 200, null);
+                        context.getBapId(), new String(rawBody, StandardCharsets.UTF_8), 200, null);
             }
         } catch (Exception e) {
             log.warn("Could not log incoming init: {}", e.getMessage());
@@ -9,6 +9,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Slf4j
@@ -17,59 +18,69 @@ import java.util.UUID;
 public class OndcApiLogService {
 
     private final OndcApiLogRepository repository;
+    private final OndcApiLogWriter writer;
 
     /**
-     * Log an incoming Beckn request. Not @Async — callers are already on async threads.
+     * Log an incoming Beckn request. Queued for write-behind; never blocks the caller.
      */
     public void logIncoming(UUID tenantId, String action, String transactionId,
                             String messageId, String bapId, String requestBody,
                             int httpStatus, String errorMessage) {
         try {
             OndcApiLog apiLog = new OndcApiLog();
+            apiLog.setId(UUID.randomUUID());
             apiLog.setTenantId(tenantId);
             apiLog.setDirection(ApiDirection.INCOMING);
             apiLog.setAction(action);
             apiLog.setTransactionId(transactionId);
             apiLog.setMessageId(messageId);
             apiLog.setBapId(bapId);
-            apiLog.setRequestBody(requestBody);
+            apiLog.setRequestBody(writer.truncate(requestBody));
             apiLog.setHttpStatus(httpStatus);
             apiLog.setErrorMessage(errorMessage);
-            repository.save(apiLog);
+            apiLog.setCreatedAt(LocalDateTime.now());
+            writer.enqueue(apiLog);
         } catch (Exception e) {
             log.error("Failed to log ONDC incoming API call: {}", e.getMessage());
         }
     }
 
     /**
-     * Log an outgoing Beckn callback. Not @Async — callers are already on async threads.
+     * Log an outgoing Beckn callback. Queued for write-behind; never blocks the caller.
+     * Only as much of the serialized body as the log keeps is decoded.
      */
     public void logOutgoing(UUID tenantId, String action, String transactionId,
-                            String messageId, String requestBody, String responseBody,
+                            String messageId, byte[] requestBody, String responseBody,
                             int httpStatus, String errorMessage, long processingTimeMs) {
         try {
             OndcApiLog apiLog = new OndcApiLog();
+            apiLog.setId(UUID.randomUUID());
             apiLog.setTenantId(tenantId);
             apiLog.setDirection(ApiDirection.OUTGOING);
             apiLog.setAction(action);
             apiLog.setTransactionId(transactionId);
             apiLog.setMessageId(messageId);
-            apiLog.setRequestBody(requestBody);
-            apiLog.setResponseBody(responseBody);
+            apiLog.setRequestBody(writer.truncate(requestBody));
+            apiLog.setResponseBody(writer.truncate(responseBody));
             apiLog.setHttpStatus(httpStatus);
             apiLog.setErrorMessage(errorMessage);
             apiLog.setProcessingTimeMs((int) processingTimeMs);
-            repository.save(apiLog);
+            apiLog.setCreatedAt(LocalDateTime.now());
+            writer.enqueue(apiLog);
         } catch (Exception e) {
             log.error("Failed to log ONDC outgoing API call: {}", e.getMessage());
         }
     }
 
-    public Page<OndcApiLog> getLogs(UUID tenantId, String action, int page, int size) {
+    /**
+     * Recent logs of a tenant, newest first, limited to the last {@code days} days.
+     */
+    public Page<OndcApiLog> getLogs(UUID tenantId, String action, int days, int page, int size) {
+        LocalDateTime since = LocalDateTime.now().minusDays(days);
         if (action != null && !action.isEmpty()) {
-            return repository.findByTenantIdAndActionOrderByCreatedAtDesc(
-                    tenantId, action, PageRequest.of(page, size));
+            return repository.findByTenantIdAndActionAndCreatedAtAfterOrderByCreatedAtDescIdDesc(
+                    tenantId, action, since, PageRequest.of(page, size));
         }
-        return repository.findByTenantIdOrderByCreatedAtDesc(tenantId, PageRequest.of(page, size));
+        return repository.findByTenantIdAndCreatedAtAfterOrderByCreatedAtDescIdDesc(tenantId, since, PageRequest.of(page, size));
     }
 }
@@ -0,0 +1,256 @@
+package com.quickcatalog.ondc.beckn.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickcatalog.ondc.config.OndcProperties;
+import com.quickcatalog.ondc.entity.OndcApiLog;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind pipeline for ondc_api_log. Entries are put on a bounded lock-free
+ * buffer by request threads and written by a background drain using JDBC batch
+ * inserts. When the buffer is full new entries are dropped and counted rather than
+ * blocking the caller; successful search traffic can be sampled, and
+ * {@link OndcApiLogService} truncates oversized bodies before they are queued. Dropped, sampled-out and unwritable
+ * entries are reported in the application log after each flush.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OndcApiLogWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO ondc_api_log (id, tenant_id, direction, action, transaction_id, message_id, " +
+            "bap_id, request_body, response_body, http_status, error_message, processing_time_ms, created_at) " +
+            "VALUES (?, ?, CAST(? AS api_direction), ?, ?, ?, ?, CAST(? AS jsonb), CAST(? AS jsonb), ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final OndcProperties ondcProperties;
+
+    private final Queue<OndcApiLog> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong sampledOut = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private long lastReportedDrops;
+    private long lastReportedSampledOut;
+    private long lastReportedFailures;
+
+    /**
+     * Queue an entry for writing. Never blocks; returns false if the entry was
+     * sampled out or dropped because the buffer is full.
+     */
+    public boolean enqueue(OndcApiLog apiLog) {
+        OndcProperties.ApiLogConfig config = ondcProperties.getApiLog();
+        if (isSampledOut(apiLog, config)) {
+            sampledOut.incrementAndGet();
+            return false;
+        }
+        if (buffered.incrementAndGet() > config.getBufferCapacity()) {
+            buffered.decrementAndGet();
+            dropped.incrementAndGet();
+            return false;
+        }
+        buffer.offer(apiLog);
+        return true;
+    }
+
+    /**
+     * Drain the buffer in batches until it is empty, or until the database cannot be
+     * reached, in which case the batch goes back on the buffer for the next flush.
+     */
+    @Scheduled(fixedDelayString = "${ondc.api-log.flush-interval-ms:1000}")
+    public void flush() {
+        int batchSize = ondcProperties.getApiLog().getBatchSize();
+        List<OndcApiLog> batch = new ArrayList<>(batchSize);
+        OndcApiLog entry;
+        while (true) {
+            while (batch.size() < batchSize && (entry = buffer.poll()) != null) {
+                buffered.decrementAndGet();
+                batch.add(entry);
+            }
+            if (batch.isEmpty()) break;
+            if (!writeBatch(batch)) {
+                requeue(batch);
+                break;
+            }
+            batch.clear();
+        }
+        report();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    /**
+     * @return false if the batch was not written because the database could not be reached
+     */
+    private boolean writeBatch(List<OndcApiLog> batch) {
+        try {
+            insert(batch);
+        } catch (DataIntegrityViolationException | BadSqlGrammarException e) {
+            // One bad row (e.g. a non-JSON body) fails the whole batch; retry row by row
+            log.warn("Batch insert of {} ONDC API log entries failed, retrying individually: {}",
+                    batch.size(), e.getMessage());
+            for (OndcApiLog apiLog : batch) {
+                try {
+                    insert(List.of(apiLog));
+                } catch (DataIntegrityViolationException | BadSqlGrammarException rowError) {
+                    failed.incrementAndGet();
+                    log.error("Failed to write ONDC API log entry for {}: {}", apiLog.getAction(), rowError.getMessage());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Batch insert of {} ONDC API log entries failed, keeping them for the next flush: {}",
+                    batch.size(), e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Put an unwritten batch back on the buffer, dropping what no longer fits.
+     */
+    private void requeue(List<OndcApiLog> batch) {
+        int capacity = ondcProperties.getApiLog().getBufferCapacity();
+        for (OndcApiLog apiLog : batch) {
+            if (buffered.incrementAndGet() > capacity) {
+                buffered.decrementAndGet();
+                dropped.incrementAndGet();
+            } else {
+                buffer.offer(apiLog);
+            }
+        }
+    }
+
+    private void insert(List<OndcApiLog> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, apiLog) -> {
+            ps.setObject(1, apiLog.getId());
+            ps.setObject(2, apiLog.getTenantId());
+            ps.setString(3, apiLog.getDirection().name());
+            ps.setString(4, apiLog.getAction());
+            ps.setString(5, apiLog.getTransactionId());
+            ps.setString(6, apiLog.getMessageId());
+            ps.setString(7, apiLog.getBapId());
+            ps.setString(8, apiLog.getRequestBody());
+            ps.setString(9, apiLog.getResponseBody());
+            if (apiLog.getHttpStatus() != null) {
+                ps.setInt(10, apiLog.getHttpStatus());
+            } else {
+                ps.setNull(10, Types.INTEGER);
+            }
+            ps.setString(11, apiLog.getErrorMessage());
+            if (apiLog.getProcessingTimeMs() != null) {
+                ps.setInt(12, apiLog.getProcessingTimeMs());
+            } else {
+                ps.setNull(12, Types.INTEGER);
+            }
+            ps.setTimestamp(13, Timestamp.valueOf(apiLog.getCreatedAt()));
+        });
+    }
+
+    private void report() {
+        long drops = dropped.get();
+        if (drops > lastReportedDrops) {
+            log.warn("ONDC API log buffer overflowed: {} entries dropped since last report ({} total)",
+                    drops - lastReportedDrops, drops);
+            lastReportedDrops = drops;
+        }
+        long failures = failed.get();
+        if (failures > lastReportedFailures) {
+            log.warn("{} ONDC API log entries could not be written since last report ({} total)",
+                    failures - lastReportedFailures, failures);
+            lastReportedFailures = failures;
+        }
+        long sampled = sampledOut.get();
+        if (sampled > lastReportedSampledOut) {
+            log.debug("{} successful search log entries sampled out since last report ({} total)",
+                    sampled - lastReportedSampledOut, sampled);
+            lastReportedSampledOut = sampled;
+        }
+    }
+
+    /**
+     * Successful search/on_search traffic is kept at the configured sample rate;
+     * everything else (other actions, errors) is always kept.
+     */
+    private boolean isSampledOut(OndcApiLog apiLog, OndcProperties.ApiLogConfig config) {
+        double rate = config.getSearchSuccessSampleRate();
+        if (rate >= 1.0) return false;
+        boolean searchTraffic = "search".equals(apiLog.getAction()) || "on_search".equals(apiLog.getAction());
+        boolean success = apiLog.getErrorMessage() == null && apiLog.getHttpStatus() != null
+                && apiLog.getHttpStatus() >= 200 && apiLog.getHttpStatus() < 300;
+        return searchTraffic && success && ThreadLocalRandom.current().nextDouble() >= rate;
+    }
+
+    /**
+     * Bodies are stored as jsonb, so an oversized body is replaced by a JSON
+     * object holding its length and a prefix rather than cut mid-document.
+     */
+    /**
+     * The body as stored: whole, or as a truncated preview when over the configured size.
+     */
+    String truncate(String body) {
+        int maxChars = ondcProperties.getApiLog().getMaxBodyChars();
+        if (body == null || maxChars <= 0 || body.length() <= maxChars) {
+            return body;
+        }
+        return preview(body.substring(0, maxChars), body.length());
+    }
+
+    /**
+     * The same for a UTF-8 body, decoding only the preview rather than the whole body.
+     * The original length is then counted in bytes.
+     */
+    String truncate(byte[] body) {
+        int maxChars = ondcProperties.getApiLog().getMaxBodyChars();
+        if (body == null) {
+            return null;
+        }
+        if (maxChars <= 0 || body.length <= maxChars) {
+            // No more characters than bytes
+            return new String(body, StandardCharsets.UTF_8);
+        }
+        String prefix = new String(body, 0, maxChars, StandardCharsets.UTF_8);
+        if (prefix.endsWith("\uFFFD")) {
+            // The cut fell inside a multi-byte character
+            prefix = prefix.substring(0, prefix.length() - 1);
+        }
+        return preview(prefix, body.length);
+    }
+
+    private String preview(String prefix, int originalLength) {
+        Map<String, Object> truncated = new LinkedHashMap<>();
+        truncated.put("_truncated", true);
+        truncated.put("_originalLength", originalLength);
+        truncated.put("_preview", prefix);
+        try {
+            return objectMapper.writeValueAsString(truncated);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
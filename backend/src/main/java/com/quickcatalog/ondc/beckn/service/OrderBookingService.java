@@ -0,0 +1,52 @@
+package com.quickcatalog.ondc.beckn.service;
+
+import com.quickcatalog.ondc.entity.OndcFulfillment;
+import com.quickcatalog.ondc.entity.OndcOrder;
+import com.quickcatalog.ondc.entity.OndcPayment;
+import com.quickcatalog.ondc.inventory.InsufficientStockException;
+import com.quickcatalog.ondc.inventory.StockLine;
+import com.quickcatalog.ondc.inventory.StockReservationService;
+import com.quickcatalog.ondc.repository.OndcFulfillmentRepository;
+import com.quickcatalog.ondc.repository.OndcOrderRepository;
+import com.quickcatalog.ondc.repository.OndcPaymentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Books a confirmed ONDC order as one transaction. The order row is inserted first, so
+ * a concurrent confirm of the same beckn_order_id waits on the unique index and then
+ * fails before it reserves anything. Stock is reserved only after that, and the
+ * fulfillment and payment are stored last. If any step fails, everything rolls back,
+ * the reservation included.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderBookingService {
+
+    private final OndcOrderRepository orderRepository;
+    private final OndcFulfillmentRepository fulfillmentRepository;
+    private final OndcPaymentRepository paymentRepository;
+    private final StockReservationService stockReservationService;
+
+    /**
+     * @throws InsufficientStockException if any stock line cannot be covered; no order is stored
+     * @throws org.springframework.dao.DataIntegrityViolationException if the order already exists
+     */
+    @Transactional
+    public OndcOrder book(OndcOrder order, List<StockLine> stockLines,
+                          OndcFulfillment fulfillment, OndcPayment payment) {
+        OndcOrder savedOrder = orderRepository.saveAndFlush(order);
+
+        stockReservationService.reserve(order.getTenantId(), order.getBecknOrderId(),
+                order.getTransactionId(), stockLines);
+
+        fulfillment.setOndcOrderId(savedOrder.getId());
+        fulfillmentRepository.save(fulfillment);
+        payment.setOndcOrderId(savedOrder.getId());
+        paymentRepository.save(payment);
+        return savedOrder;
+    }
+}
@@ -0,0 +1,52 @@
+package com.quickcatalog.ondc.beckn.service;
+
+import com.quickcatalog.exception.BadRequestException;
+import com.quickcatalog.exception.ResourceNotFoundException;
+import com.quickcatalog.ondc.entity.OndcOrder;
+import com.quickcatalog.ondc.entity.OndcOrderItem;
+import com.quickcatalog.ondc.entity.enums.ReturnStatus;
+import com.quickcatalog.ondc.inventory.StockLine;
+import com.quickcatalog.ondc.inventory.StockReservationService;
+import com.quickcatalog.ondc.repository.OndcOrderItemRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Seller approval of returns the buyer app requested through /update. A requested
+ * return only records the item and quantity; its units go back into stock when the
+ * seller approves it, after receiving the goods.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderReturnService {
+
+    private final OndcOrderItemRepository orderItemRepository;
+    private final StockReservationService stockReservationService;
+
+    /**
+     * Approve a requested return and restock its units in one transaction.
+     *
+     * @throws BadRequestException if the item has no pending return request
+     */
+    @Transactional
+    public void approve(OndcOrder order, UUID itemId) {
+        OndcOrderItem item = orderItemRepository.findByIdAndOndcOrderId(itemId, order.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("OndcOrderItem", "id", itemId));
+        if (item.getReturnStatus() != ReturnStatus.REQUESTED) {
+            throw new BadRequestException("Item has no pending return, current: " + item.getReturnStatus());
+        }
+
+        item.setReturnStatus(ReturnStatus.APPROVED);
+        orderItemRepository.save(item);
+        int quantity = item.getReturnQuantity() != null ? item.getReturnQuantity() : item.getQuantity();
+        if (quantity > 0) {
+            stockReservationService.returnItems(order.getTenantId(), order.getBecknOrderId(),
+                    List.of(new StockLine(item.getProductId(), item.getVariantId(), BigDecimal.valueOf(quantity))));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.quickcatalog.ondc.beckn.service;
+
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.quickcatalog.ondc.beckn.model.BecknContext;
+import com.quickcatalog.ondc.catalog.CatalogSearchIntent;
+import com.quickcatalog.ondc.catalog.CatalogSnapshot;
+import com.quickcatalog.ondc.catalog.CatalogSnapshotService;
+import com.quickcatalog.ondc.config.OndcProperties;
+import com.quickcatalog.ondc.entity.OndcProvider;
+import com.quickcatalog.ondc.entity.OndcSubscriber;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Builds and sends the on_search callbacks of one provider. Extracted from
+ * SearchProcessingService so each provider of a /search runs on its own thread.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchDispatchService {
+
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final CallbackService callbackService;
+    private final OndcProperties ondcProperties;
+
+    /**
+     * Answer the intent from the provider's catalog and send it as on_search pages.
+     * Stops sending pages once the deadline has passed.
+     *
+     * @return number of on_search pages sent
+     */
+    @Async("ondcSearchExecutor")
+    public CompletableFuture<Integer> dispatchProvider(BecknContext context, CatalogSearchIntent intent,
+                                                       OndcSubscriber subscriber, OndcProvider provider,
+                                                       Instant deadline) {
+        OndcProperties.SearchConfig searchConfig = ondcProperties.getSearch();
+        if (!intent.matchesProvider(provider, CatalogMappingService.FULFILLMENT_TYPE,
+                searchConfig.getServiceabilityRadiusKm())) {
+            log.debug("Provider {} does not serve the search intent", provider.getProviderId());
+            return CompletableFuture.completedFuture(0);
+        }
+
+        // Look up the materialized catalog and answer the intent from the index
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot(provider, context.getDomain());
+        if (snapshot.isEmpty()) {
+            log.info("No published ONDC products for provider: {}", provider.getProviderId());
+            return CompletableFuture.completedFuture(0);
+        }
+
+        List<CatalogSnapshot.Item> matches = catalogSnapshotService.search(snapshot, intent);
+        if (matches.isEmpty()) {
+            return CompletableFuture.completedFuture(0);
+        }
+
+        // Send the catalog as bounded pages, one signed on_search per page
+        Iterator<String> pages = snapshot.pages(matches,
+                searchConfig.getPageMaxItems(), searchConfig.getPageMaxBytes());
+        int pageCount = 0;
+        while (pages.hasNext()) {
+            if (Instant.now().isAfter(deadline)) {
+                log.warn("Search TTL expired for provider {} after {} on_search page(s)",
+                        provider.getProviderId(), pageCount);
+                break;
+            }
+            BecknContext responseContext = buildResponseContext(context, subscriber);
+            Map<String, Object> message = new LinkedHashMap<>();
+            message.put("catalog", new RawValue(pages.next()));
+
+            Map<String, Object> onSearchResponse = new LinkedHashMap<>();
+            onSearchResponse.put("context", responseContext);
+            onSearchResponse.put("message", message);
+
+            callbackService.sendCallback(
+                    context.getBapUri(), "on_search", onSearchResponse,
+                    subscriber, subscriber.getTenantId(), context.getTransactionId());
+            pageCount++;
+        }
+        log.info("Sent {} items in {} on_search page(s) for provider {}",
+                matches.size(), pageCount, provider.getProviderId());
+        return CompletableFuture.completedFuture(pageCount);
+    }
+
+    private BecknContext buildResponseContext(BecknContext incomingContext, OndcSubscriber subscriber) {
+        BecknContext ctx = new BecknContext();
+        ctx.setDomain(incomingContext.getDomain());
+        ctx.setCountry(incomingContext.getCountry());
+        ctx.setCity(incomingContext.getCity());
+        ctx.setAction("on_search");
+        ctx.setCoreVersion("1.2.0");
+        ctx.setBapId(incomingContext.getBapId());
+        ctx.setBapUri(incomingContext.getBapUri());
+        ctx.setBppId(subscriber.getSubscriberId());
+        ctx.setBppUri(subscriber.getSubscriberUrl());
+        ctx.setTransactionId(incomingContext.getTransactionId());
+        ctx.setMessageId(UUID.randomUUID().toString());
+        ctx.setTimestamp(Instant.now());
+        ctx.setTtl("PT30S");
+        return ctx;
+    }
+}
@@ -1,52 +1,47 @@
 package com.quickcatalog.ondc.beckn.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.quickcatalog.entity.Product;
-import com.quickcatalog.entity.enums.ProductStatus;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.quickcatalog.ondc.beckn.model.*;
-import com.quickcatalog.ondc.config.OndcProperties;
 import com.quickcatalog.ondc.entity.OndcProvider;
 import com.quickcatalog.ondc.entity.OndcSubscriber;
-import com.quickcatalog.ondc.entity.enums.OndcEnvironment;
-import com.quickcatalog.ondc.repository.OndcProviderRepository;
-import com.quickcatalog.ondc.repository.OndcSubscriberRepository;
-import com.quickcatalog.repository.ProductRepository;
+import com.quickcatalog.ondc.job.BecknProcessingException;
+import com.quickcatalog.ondc.quote.CartQuote;
+import com.quickcatalog.ondc.quote.QuoteEngine;
+import com.quickcatalog.ondc.quote.QuoteLine;
+import com.quickcatalog.ondc.routing.OndcSellerDirectory;
+import com.quickcatalog.ondc.session.TransactionSession;
+import com.quickcatalog.ondc.session.TransactionSessionStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
 
 /**
- * Handles /select requests — validates cart items, checks stock, calculates quote with breakup.
+ * Handles /select requests — prices the cart through {@link QuoteEngine} and reports
+ * items that cannot be supplied in full.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class SelectProcessingService {
 
-    private final OndcProviderRepository providerRepository;
-    private final OndcSubscriberRepository subscriberRepository;
-    private final ProductRepository productRepository;
+    private final OndcSellerDirectory sellerDirectory;
+    private final QuoteEngine quoteEngine;
+    private final TransactionSessionStore sessionStore;
     private final CallbackService callbackService;
     private final OndcApiLogService apiLogService;
-    private final OndcProperties ondcProperties;
-    private final ObjectMapper objectMapper;
 
-    @Async("ondcCallbackExecutor")
-    public void processSelectAsync(String rawBody, BecknContext context) {
+    public void processSelect(byte[] rawBody, BecknRequest<JsonNode> request) {
+        BecknContext context = request.getContext();
         long startTime = System.currentTimeMillis();
 
         try {
             logIncoming(rawBody, context);
-
-            var root = objectMapper.readTree(rawBody);
-            var orderNode = root.path("message").path("order");
+            var orderNode = request.getMessage().path("order");
             var providerNode = orderNode.path("provider");
             String providerId = providerNode.path("id").asText(null);
             var itemsNode = orderNode.path("items");
@@ -57,13 +52,11 @@ public class SelectProcessingService {
             }
 
             // Find provider
-            OndcEnvironment env = OndcEnvironment.valueOf(ondcProperties.getEnvironment().toUpperCase());
-            OndcSubscriber subscriber = findSubscriber(env);
+            OndcSubscriber subscriber = findSubscriber(context, providerId);
             if (subscriber == null) return;
 
             UUID tenantId = subscriber.getTenantId();
-            Optional<OndcProvider> providerOpt = providerRepository.findByTenantIdAndIsActiveTrue(tenantId)
-                    .stream().filter(p -> p.getProviderId().equals(providerId)).findFirst();
+            Optional<OndcProvider> providerOpt = sellerDirectory.findActiveProvider(tenantId, providerId);
 
             if (providerOpt.isEmpty()) {
                 log.warn("Provider not found: {}", providerId);
@@ -71,64 +64,21 @@ public class SelectProcessingService {
             }
 
             OndcProvider provider = providerOpt.get();
-            List<QuoteBreakup> breakups = new ArrayList<>();
-            BigDecimal totalPrice = BigDecimal.ZERO;
-
-            // Process each item
-            for (var itemNode : itemsNode) {
-                String itemId = itemNode.path("id").asText(null);
-                int requestedQty = itemNode.path("quantity").path("count").asInt(1);
-
-                if (itemId == null) continue;
-
-                // Lookup product
-                UUID productId = UUID.fromString(itemId);
-                Optional<Product> productOpt = productRepository.findByIdAndTenantId(productId, tenantId);
-                if (productOpt.isEmpty() || productOpt.get().getStatus() != ProductStatus.ACTIVE) {
-                    log.warn("Product not found or inactive: {}", itemId);
-                    continue;
-                }
-
-                Product product = productOpt.get();
-                BigDecimal sellingPrice = product.getSellingPrice() != null ? product.getSellingPrice() : product.getMrp();
-                BigDecimal itemTotal = sellingPrice.multiply(BigDecimal.valueOf(requestedQty));
-
-                // Item breakup
-                QuoteBreakup itemBreakup = new QuoteBreakup();
-                itemBreakup.setItemId(itemId);
-                itemBreakup.setTitleType("item");
-                itemBreakup.setTitle(product.getName());
-                itemBreakup.setPrice(createPrice(itemTotal));
-                QuoteBreakup.ItemQuantity iq = new QuoteBreakup.ItemQuantity();
-                iq.setCount(requestedQty);
-                itemBreakup.setItem(iq);
-                breakups.add(itemBreakup);
-
-                // Tax breakup (GST)
-                BigDecimal gstRate = getGstRate(product);
-                BigDecimal taxAmount = itemTotal.multiply(gstRate).divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
-                QuoteBreakup taxBreakup = new QuoteBreakup();
-                taxBreakup.setItemId(itemId);
-                taxBreakup.setTitleType("tax");
-                taxBreakup.setTitle("Tax");
-                taxBreakup.setPrice(createPrice(taxAmount));
-                breakups.add(taxBreakup);
-
-                totalPrice = totalPrice.add(itemTotal).add(taxAmount);
-            }
+            CartQuote cartQuote = quoteEngine.quote(tenantId, itemsNode);
 
-            // Build quote
-            Quote quote = new Quote();
-            quote.setPrice(createPrice(totalPrice));
-            quote.setBreakup(breakups);
-            quote.setTtl("P1D");
+            // Start the transaction session for /init and /confirm
+            TransactionSession session = new TransactionSession(tenantId, context.getTransactionId(),
+                    context.getBapId());
+            session.setProviderId(providerId);
+            session.setOndcProviderId(provider.getId());
+            session.setQuote(cartQuote);
+            sessionStore.put(session, "select");
 
             // Build on_select response
             BecknOrder responseOrder = new BecknOrder();
             responseOrder.setProvider(buildBecknProvider(provider));
-            responseOrder.setItems(objectMapper.treeToValue(itemsNode, objectMapper.getTypeFactory()
-                    .constructCollectionType(List.class, BecknItem.class)));
-            responseOrder.setQuote(quote);
+            responseOrder.setItems(cartQuote.getLines().stream().map(this::toItem).collect(Collectors.toList()));
+            responseOrder.setQuote(cartQuote.getQuote());
 
             OnSelectMessage message = new OnSelectMessage();
             message.setOrder(responseOrder);
@@ -137,6 +87,11 @@ public class SelectProcessingService {
             Map<String, Object> response = new LinkedHashMap<>();
             response.put("context", responseContext);
             response.put("message", message);
+            if (cartQuote.hasShortfalls()) {
+                log.info("Select for transaction {} is short: {}", context.getTransactionId(),
+                        cartQuote.describeShortfalls());
+                response.put("error", new BecknError("DOMAIN-ERROR", "40002", cartQuote.describeShortfalls()));
+            }
 
             callbackService.sendCallback(context.getBapUri(), "on_select", response,
                     subscriber, tenantId, context.getTransactionId());
@@ -145,25 +100,23 @@ public class SelectProcessingService {
 
         } catch (Exception e) {
             log.error("Failed to process select: {}", e.getMessage(), e);
+            throw new BecknProcessingException("select", e);
         }
     }
 
-    private Price createPrice(BigDecimal amount) {
-        Price price = new Price();
-        price.setCurrency("INR");
-        price.setValue(amount.setScale(2, RoundingMode.HALF_UP).toString());
-        return price;
-    }
-
-    private BigDecimal getGstRate(Product product) {
-        if (product.getGstRate() == null) return BigDecimal.ZERO;
-        return switch (product.getGstRate()) {
-            case GST_0 -> BigDecimal.ZERO;
-            case GST_5 -> BigDecimal.valueOf(5);
-            case GST_12 -> BigDecimal.valueOf(12);
-            case GST_18 -> BigDecimal.valueOf(18);
-            case GST_28 -> BigDecimal.valueOf(28);
-        };
+    /**
+     * The cart line as echoed in on_select, with the count that can be supplied.
+     */
+    private BecknItem toItem(QuoteLine line) {
+        BecknItem item = new BecknItem();
+        item.setId(line.getItemId());
+        item.setFulfillmentId("ful-1");
+        Quantity quantity = new Quantity();
+        Quantity.Available available = new Quantity.Available();
+        available.setCount(String.valueOf(line.getAvailable()));
+        quantity.setAvailable(available);
+        item.setQuantity(quantity);
+        return item;
     }
 
     private BecknProvider buildBecknProvider(OndcProvider provider) {
@@ -176,10 +129,8 @@ public class SelectProcessingService {
         return bp;
     }
 
-    private OndcSubscriber findSubscriber(OndcEnvironment env) {
-        return subscriberRepository.findAll().stream()
-                .filter(s -> s.getEnvironment() == env)
-                .findFirst().orElse(null);
+    private OndcSubscriber findSubscriber(BecknContext context, String providerId) {
+        return sellerDirectory.route(context, providerId).orElse(null);
     }
 
     private BecknContext buildResponseContext(BecknContext incoming, OndcSubscriber subscriber, String action) {
@@ -200,14 +151,13 @@ public class SelectProcessingService {
         return ctx;
     }
 
-    private void logIncoming(String rawBody, BecknContext context) {
+    private void logIncoming(byte[] rawBody, BecknContext context) {
         try {
-            OndcSubscriber subscriber = findSubscriber(
-                    OndcEnvironment.valueOf(ondcProperties.getEnvironment().toUpperCase()));
+            OndcSubscriber subscriber = findSubscriber(context, null);
             if (subscriber != null) {
                 apiLogService.logIncoming(subscriber.getTenantId(), "select",
                         context.getTransactionId(), context.getMessageId(),
-                        context.getBapId(), rawBody, 200, null);
+                        context.getBapId(), new String(rawBody, StandardCharsets.UTF_8), 200, null);
             }
         } catch (Exception e) {
             log.warn("Could not log incoming select: {}", e.getMessage());
@@ -1,18 +1,18 @@
 package com.quickcatalog.ondc.beckn.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.quickcatalog.ondc.beckn.model.*;
-import com.quickcatalog.ondc.config.OndcProperties;
 import com.quickcatalog.ondc.entity.OndcOrder;
 import com.quickcatalog.ondc.entity.OndcSubscriber;
-import com.quickcatalog.ondc.entity.enums.OndcEnvironment;
+import com.quickcatalog.ondc.job.BecknProcessingException;
 import com.quickcatalog.ondc.repository.OndcOrderRepository;
-import com.quickcatalog.ondc.repository.OndcSubscriberRepository;
+import com.quickcatalog.ondc.routing.OndcSellerDirectory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.*;
 
@@ -25,29 +25,25 @@ import java.util.*;
 public class StatusProcessingService {
 
     private final OndcOrderRepository orderRepository;
-    private final OndcSubscriberRepository subscriberRepository;
+    private final OndcSellerDirectory sellerDirectory;
     private final CallbackService callbackService;
     private final OndcApiLogService apiLogService;
-    private final OndcProperties ondcProperties;
     private final ObjectMapper objectMapper;
 
-    @Async("ondcCallbackExecutor")
-    public void processStatusAsync(String rawBody, BecknContext context) {
+    public void processStatus(byte[] rawBody, BecknRequest<JsonNode> request) {
+        BecknContext context = request.getContext();
         long startTime = System.currentTimeMillis();
 
         try {
             logIncoming(rawBody, context);
-
-            var root = objectMapper.readTree(rawBody);
-            String orderId = root.path("message").path("order_id").asText(null);
+            String orderId = request.getMessage().path("order_id").asText(null);
 
             if (orderId == null) {
                 log.warn("Status request missing order_id");
                 return;
             }
 
-            OndcEnvironment env = OndcEnvironment.valueOf(ondcProperties.getEnvironment().toUpperCase());
-            OndcSubscriber subscriber = findSubscriber(env);
+            OndcSubscriber subscriber = findSubscriber(context);
             if (subscriber == null) return;
 
             UUID tenantId = subscriber.getTenantId();
@@ -101,6 +97,7 @@ public class StatusProcessingService {
 
         } catch (Exception e) {
             log.error("Failed to process status: {}", e.getMessage(), e);
+            throw new BecknProcessingException("status", e);
         }
     }
 
@@ -116,10 +113,8 @@ public class StatusProcessingService {
         };
     }
 
-    private OndcSubscriber findSubscriber(OndcEnvironment env) {
-        return subscriberRepository.findAll().stream()
-                .filter(s -> s.getEnvironment() == env)
-                .findFirst().orElse(null);
+    private OndcSubscriber findSubscriber(BecknContext context) {
+        return sellerDirectory.route(context).orElse(null);
     }
 
     private BecknContext buildResponseContext(BecknContext incoming, OndcSubscriber subscriber, String action) {
@@ -140,14 +135,13 @@ public class StatusProcessingService {
         return ctx;
     }
 
-    private void logIncoming(String rawBody, BecknContext context) {
+    private void logIncoming(byte[] rawBody, BecknContext context) {
         try {
-            OndcSubscriber subscriber = findSubscriber(
-                    OndcEnvironment.valueOf(ondcProperties.getEnvironment().toUpperCase()));
+            OndcSubscriber subscriber = findSubscriber(context);
             if (subscriber != null) {
                 apiLogService.logIncoming(subscriber.getTenantId(), "status",
                         context.getTransactionId(), context.getMessageId(),
-                        context.getBapId(), rawBody, 200, null);
+                        context.getBapId(), new String(rawBody, StandardCharsets.UTF_8), 200, null);
             }
         } catch (Exception e) {
             log.warn("Could not log incoming status: {}", e.getMessage());
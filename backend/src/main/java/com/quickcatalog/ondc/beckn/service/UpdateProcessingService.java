@@ -1,24 +1,30 @@
 package com.quickcatalog.ondc.beckn.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.quickcatalog.ondc.beckn.model.*;
-import com.quickcatalog.ondc.config.OndcProperties;
 import com.quickcatalog.ondc.entity.OndcOrder;
+import com.quickcatalog.ondc.entity.OndcOrderItem;
 import com.quickcatalog.ondc.entity.OndcSubscriber;
-import com.quickcatalog.ondc.entity.enums.OndcEnvironment;
 import com.quickcatalog.ondc.entity.enums.OndcOrderState;
+import com.quickcatalog.ondc.entity.enums.ReturnStatus;
+import com.quickcatalog.ondc.inventory.StockReservationService;
+import com.quickcatalog.ondc.job.BecknProcessingException;
+import com.quickcatalog.ondc.repository.OndcOrderItemRepository;
 import com.quickcatalog.ondc.repository.OndcOrderRepository;
-import com.quickcatalog.ondc.repository.OndcSubscriberRepository;
+import com.quickcatalog.ondc.routing.OndcSellerDirectory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.*;
 
 /**
- * Handles /update requests — processes order updates (fulfillment state changes).
+ * Handles /update requests — processes order updates (fulfillment state changes and
+ * return requests). Held stock becomes sold once the order ships; requested returns
+ * are recorded for the seller to approve.
  */
 @Slf4j
 @Service
@@ -26,21 +32,20 @@ import java.util.*;
 public class UpdateProcessingService {
 
     private final OndcOrderRepository orderRepository;
-    private final OndcSubscriberRepository subscriberRepository;
+    private final OndcOrderItemRepository orderItemRepository;
+    private final StockReservationService stockReservationService;
+    private final OndcSellerDirectory sellerDirectory;
     private final CallbackService callbackService;
     private final OndcApiLogService apiLogService;
-    private final OndcProperties ondcProperties;
     private final ObjectMapper objectMapper;
 
-    @Async("ondcCallbackExecutor")
-    public void processUpdateAsync(String rawBody, BecknContext context) {
+    public void processUpdate(byte[] rawBody, BecknRequest<JsonNode> request) {
+        BecknContext context = request.getContext();
         long startTime = System.currentTimeMillis();
 
         try {
             logIncoming(rawBody, context);
-
-            var root = objectMapper.readTree(rawBody);
-            var messageNode = root.path("message");
+            var messageNode = request.getMessage();
             var orderNode = messageNode.path("order");
             String updateTarget = messageNode.path("update_target").asText("fulfillment");
             String orderId = orderNode.path("id").asText(null);
@@ -50,8 +55,7 @@ public class UpdateProcessingService {
                 return;
             }
 
-            OndcEnvironment env = OndcEnvironment.valueOf(ondcProperties.getEnvironment().toUpperCase());
-            OndcSubscriber subscriber = findSubscriber(env);
+            OndcSubscriber subscriber = findSubscriber(context);
             if (subscriber == null) return;
 
             UUID tenantId = subscriber.getTenantId();
@@ -81,10 +85,16 @@ public class UpdateProcessingService {
                 var itemsNode = orderNode.path("items");
                 if (!itemsNode.isMissingNode()) {
                     ondcOrder.setItems(objectMapper.writeValueAsString(itemsNode));
+                    applyReturns(ondcOrder, itemsNode);
                 }
             }
 
             orderRepository.save(ondcOrder);
+            if (ondcOrder.getState() == OndcOrderState.IN_PROGRESS
+                    || ondcOrder.getState() == OndcOrderState.COMPLETED) {
+                // Shipped without an explicit accept: the held stock is sold
+                stockReservationService.commit(tenantId, orderId);
+            }
             log.info("Updated ONDC order: {} (target: {})", orderId, updateTarget);
 
             // Build on_update response
@@ -119,7 +129,70 @@ public class UpdateProcessingService {
 
         } catch (Exception e) {
             log.error("Failed to process update: {}", e.getMessage(), e);
+            throw new BecknProcessingException("update", e);
+        }
+    }
+
+    /**
+     * Record items tagged update_type=return as return requests. Nothing is restocked
+     * here: the seller approves the return once the goods are back (see
+     * {@link OrderReturnService}). Only delivered orders can be returned; items with a
+     * return already on record are skipped.
+     */
+    private void applyReturns(OndcOrder ondcOrder, JsonNode itemsNode) {
+        if (ondcOrder.getState() != OndcOrderState.COMPLETED) {
+            log.warn("Ignoring return request for order {} in state {}", ondcOrder.getBecknOrderId(),
+                    ondcOrder.getState());
+            return;
+        }
+        List<OndcOrderItem> orderItems = null;
+        for (JsonNode itemNode : itemsNode) {
+            String reason = returnReason(itemNode);
+            String itemId = itemNode.path("id").asText(null);
+            if (reason == null || itemId == null) continue;
+
+            if (orderItems == null) {
+                orderItems = orderItemRepository.findByOndcOrderId(ondcOrder.getId());
+            }
+            for (OndcOrderItem orderItem : orderItems) {
+                boolean matches = orderItem.getVariantId() != null
+                        ? itemId.equals(orderItem.getVariantId().toString())
+                        : itemId.equals(String.valueOf(orderItem.getProductId()));
+                if (!matches || orderItem.getReturnStatus() != ReturnStatus.NONE) continue;
+
+                int quantity = Math.min(itemNode.path("quantity").path("count").asInt(orderItem.getQuantity()),
+                        orderItem.getQuantity());
+                if (quantity <= 0) continue;
+                orderItem.setReturnStatus(ReturnStatus.REQUESTED);
+                orderItem.setReturnReason(reason);
+                orderItem.setReturnQuantity(quantity);
+                log.info("Return requested for order {}: {} x {}", ondcOrder.getBecknOrderId(), quantity, itemId);
+                break;
+            }
+        }
+        if (orderItems != null) {
+            orderItemRepository.saveAll(orderItems);
+        }
+    }
+
+    /**
+     * @return the return reason code if the item is tagged as a return, otherwise null
+     */
+    private String returnReason(JsonNode itemNode) {
+        for (JsonNode tag : itemNode.path("tags")) {
+            if (!"update_type".equals(tag.path("code").asText())) continue;
+            String type = null;
+            String reason = null;
+            for (JsonNode entry : tag.path("list")) {
+                String code = entry.path("code").asText();
+                if ("type".equals(code)) type = entry.path("value").asText(null);
+                if ("reason_id".equals(code)) reason = entry.path("value").asText(null);
+            }
+            if ("return".equalsIgnoreCase(type)) {
+                return reason != null ? reason : "return";
+            }
         }
+        return null;
     }
 
     private String mapState(String internalState) {
@@ -134,10 +207,8 @@ public class UpdateProcessingService {
         };
     }
 
-    private OndcSubscriber findSubscriber(OndcEnvironment env) {
-        return subscriberRepository.findAll().stream()
-                .filter(s -> s.getEnvironment() == env)
-                .findFirst().orElse(null);
+    private OndcSubscriber findSubscriber(BecknContext context) {
+        return sellerDirectory.route(context).orElse(null);
     }
 
     private BecknContext buildResponseContext(BecknContext incoming, OndcSubscriber subscriber, String action) {
@@ -158,14 +229,13 @@ public class UpdateProcessingService {
         return ctx;
     }
 
-    private void logIncoming(String rawBody, BecknContext context) {
+    private void logIncoming(byte[] rawBody, BecknContext context) {
         try {
-            OndcSubscriber subscriber = findSubscriber(
-                    OndcEnvironment.valueOf(ondcProperties.getEnvironment().toUpperCase()));
+            OndcSubscriber subscriber = findSubscriber(context);
             if (subscriber != null) {
                 apiLogService.logIncoming(subscriber.getTenantId(), "update",
                         context.getTransactionId(), context.getMessageId(),
-                        context.getBapId(), rawBody, 200, null);
+                        context.getBapId(), new String(rawBody, StandardCharsets.UTF_8), 200, null);
             }
         } catch (Exception e) {
             log.warn("Could not log incoming update: {}", e.getMessage());
@@ -0,0 +1,252 @@
+package com.quickcatalog.ondc.callback;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.quickcatalog.ondc.beckn.service.OndcApiLogService;
+import com.quickcatalog.ondc.config.OndcProperties;
+import com.quickcatalog.ondc.crypto.Ed25519Service;
+import com.quickcatalog.ondc.entity.OndcCallbackRetry;
+import com.quickcatalog.ondc.entity.OndcSubscriber;
+import com.quickcatalog.ondc.repository.OndcSubscriberRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Delivers signed Beckn callbacks without blocking the caller. Uses a shared
+ * {@link HttpClient} (keep-alive and HTTP/2 connection reuse per BAP host), caps the
+ * number of in-flight callbacks per host, and holds a bounded number of callbacks in
+ * memory until a slot frees up; only overflow and failed deliveries go to the durable
+ * retry queue with jittered exponential backoff. Retries are re-stamped with the current
+ * time so they are not rejected as expired. Callbacks that exhaust their attempts or
+ * fail with a non-retryable status are moved to the dead-letter table.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CallbackDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final Ed25519Service ed25519Service;
+    private final OndcApiLogService apiLogService;
+    private final CallbackRetryStore retryStore;
+    private final OndcSubscriberRepository subscriberRepository;
+    private final OndcProperties ondcProperties;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, HostLane> lanesByHost = new ConcurrentHashMap<>();
+    private HttpClient httpClient;
+
+    @PostConstruct
+    void init() {
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofSeconds(ondcProperties.getCallback().getConnectTimeoutSeconds()))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    /**
+     * Sign and send a callback asynchronously. Returns immediately; the outcome is
+     * written to the API log and, on failure, to the retry queue or dead-letter table.
+     */
+    public void dispatch(CallbackRequest request, OndcSubscriber subscriber) {
+        OndcProperties.CallbackConfig config = ondcProperties.getCallback();
+        URI uri;
+        try {
+            uri = URI.create(request.getCallbackUrl());
+        } catch (IllegalArgumentException e) {
+            fail(request, request.getAttempts() + 1, null, "Invalid callback URL: " + e.getMessage(), false, 0);
+            return;
+        }
+
+        HostLane lane = lanesByHost.computeIfAbsent(hostKey(uri), host -> new HostLane(
+                new Semaphore(config.getMaxInFlightPerHost()), new LinkedBlockingQueue<>(config.getMaxQueuedPerHost())));
+        if (lane.permits.tryAcquire()) {
+            send(request, subscriber, uri, lane);
+        } else if (lane.waiting.offer(() -> send(request, subscriber, uri, lane))) {
+            // A slot may have freed up between the failed acquire and the offer
+            drain(lane);
+        } else {
+            // Host is saturated and its wait queue is full: back off without spending an attempt
+            fail(request, request.getAttempts(), null,
+                    "Too many in-flight callbacks to " + uri.getHost(), true, 0);
+        }
+    }
+
+    /**
+     * Send a callback holding one of its host's permits; the permit is handed back,
+     * and the next waiting callback started, when the attempt finishes.
+     */
+    private void send(CallbackRequest request, OndcSubscriber subscriber, URI uri, HostLane lane) {
+        OndcProperties.CallbackConfig config = ondcProperties.getCallback();
+        int attempt = request.getAttempts() + 1;
+        long startTime = System.currentTimeMillis();
+        HttpRequest httpRequest;
+        try {
+            String authHeader = ed25519Service.buildAuthorizationHeader(request.getBody(), subscriber);
+            httpRequest = HttpRequest.newBuilder(uri)
+                    .timeout(Duration.ofSeconds(config.getTimeoutSeconds()))
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", authHeader)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(request.getBody()))
+                    .build();
+        } catch (Exception e) {
+            release(lane);
+            fail(request, attempt, null, "Failed to sign callback: " + e.getMessage(), false, 0);
+            return;
+        }
+
+        log.info("Sending ONDC callback {} to {} (attempt {})", request.getAction(), uri, attempt);
+        httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    release(lane);
+                    long duration = System.currentTimeMillis() - startTime;
+                    try {
+                        if (error != null) {
+                            fail(request, attempt, null, error.getMessage() != null
+                                    ? error.getMessage() : error.getClass().getSimpleName(), true, duration);
+                        } else if (response.statusCode() >= 200 && response.statusCode() < 300) {
+                            log.info("ONDC callback {} completed: status={}, duration={}ms",
+                                    request.getAction(), response.statusCode(), duration);
+                            apiLogService.logOutgoing(request.getTenantId(), request.getAction(),
+                                    request.getTransactionId(), null, request.getBody(),
+                                    response.body(), response.statusCode(), null, duration);
+                            retryStore.complete(request.getRetryId());
+                        } else {
+                            fail(request, attempt, response.statusCode(), truncate(response.body()),
+                                    isRetryable(response.statusCode()), duration);
+                        }
+                    } catch (Exception e) {
+                        log.error("Failed to record ONDC callback {} outcome: {}", request.getAction(), e.getMessage());
+                    }
+                });
+    }
+
+    /**
+     * Re-dispatch callbacks whose retry time has come.
+     */
+    @Scheduled(fixedDelayString = "${ondc.callback.retry-poll-interval-ms:5000}")
+    public void dispatchDueRetries() {
+        OndcProperties.CallbackConfig config = ondcProperties.getCallback();
+        Duration lease = Duration.ofSeconds(config.getConnectTimeoutSeconds() + config.getTimeoutSeconds() + 30L);
+        List<OndcCallbackRetry> due = retryStore.claimDue(config.getRetryBatchSize(), lease);
+        for (OndcCallbackRetry retry : due) {
+            CallbackRequest request = CallbackRequest.from(retry);
+            OndcSubscriber subscriber = subscriberRepository.findById(retry.getSubscriberId()).orElse(null);
+            if (subscriber == null) {
+                retryStore.deadLetter(request, retry.getAttempts(), retry.getLastHttpStatus(), "Subscriber no longer exists");
+                continue;
+            }
+            dispatch(restamp(request), subscriber);
+        }
+    }
+
+    private void release(HostLane lane) {
+        lane.permits.release();
+        drain(lane);
+    }
+
+    /** Start waiting callbacks while the host has free permits. */
+    private void drain(HostLane lane) {
+        while (!lane.waiting.isEmpty() && lane.permits.tryAcquire()) {
+            Runnable next = lane.waiting.poll();
+            if (next == null) {
+                lane.permits.release();
+                return;
+            }
+            next.run();
+        }
+    }
+
+    /**
+     * Set the context timestamp of a retried callback to now. The original one is
+     * usually past the context ttl by the time a retry goes out, and BAPs drop
+     * expired messages; the signature is built per attempt, so it covers the new body.
+     */
+    private CallbackRequest restamp(CallbackRequest request) {
+        try {
+            JsonNode root = objectMapper.readTree(request.getBody());
+            if (!(root.get("context") instanceof ObjectNode context)) {
+                return request;
+            }
+            context.put("timestamp", Instant.now().toString());
+            return request.withBody(objectMapper.writeValueAsBytes(root));
+        } catch (IOException e) {
+            log.warn("Could not re-stamp ONDC callback {}: {}", request.getAction(), e.getMessage());
+            return request;
+        }
+    }
+
+    private void fail(CallbackRequest request, int attempts, Integer httpStatus, String error,
+                      boolean retryable, long duration) {
+        OndcProperties.CallbackConfig config = ondcProperties.getCallback();
+        log.error("ONDC callback {} to {} failed (attempt {}): {}",
+                request.getAction(), request.getCallbackUrl(), attempts, error);
+        if (attempts > request.getAttempts()) {
+            apiLogService.logOutgoing(request.getTenantId(), request.getAction(),
+                    request.getTransactionId(), null, request.getBody(), null,
+                    httpStatus != null ? httpStatus : 0, error, duration);
+        }
+
+        if (retryable && attempts < config.getMaxAttempts()) {
+            retryStore.scheduleRetry(request, attempts, httpStatus, error,
+                    LocalDateTime.now().plus(backoff(Math.max(attempts, 1))));
+        } else {
+            log.warn("ONDC callback {} to {} dead-lettered after {} attempt(s)",
+                    request.getAction(), request.getCallbackUrl(), attempts);
+            retryStore.deadLetter(request, attempts, httpStatus, error);
+        }
+    }
+
+    /**
+     * Exponential backoff capped at the configured maximum, with equal jitter
+     * (half fixed, half random) so retries to one BAP do not arrive in lockstep.
+     */
+    private Duration backoff(int attempts) {
+        OndcProperties.CallbackConfig config = ondcProperties.getCallback();
+        long exponential = config.getRetryBaseDelayMs() << Math.min(attempts - 1, 20);
+        long capped = Math.min(exponential, config.getRetryMaxDelayMs());
+        long half = capped / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    private static String truncate(String body) {
+        return body != null && body.length() > MAX_ERROR_LENGTH ? body.substring(0, MAX_ERROR_LENGTH) : body;
+    }
+
+    private static boolean isRetryable(int status) {
+        return status == 408 || status == 429 || status >= 500;
+    }
+
+    private static String hostKey(URI uri) {
+        return uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort();
+    }
+
+    /** Per-host in-flight permits and the callbacks waiting for one. */
+    @RequiredArgsConstructor
+    private static class HostLane {
+        private final Semaphore permits;
+        private final BlockingQueue<Runnable> waiting;
+    }
+}
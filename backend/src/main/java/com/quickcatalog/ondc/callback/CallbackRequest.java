@@ -0,0 +1,60 @@
+package com.quickcatalog.ondc.callback;
+
+import com.quickcatalog.ondc.entity.OndcCallbackRetry;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * One outgoing Beckn callback. The body is kept unsigned; the Authorization header is
+ * built per attempt because signatures expire. The body is held as the serialized
+ * UTF-8 bytes that are hashed, signed and sent.
+ */
+@Data
+public class CallbackRequest {
+
+    /** Retry queue row, or null for a first attempt. */
+    private final UUID retryId;
+    private final UUID tenantId;
+    private final UUID subscriberId;
+    private final String action;
+    private final String callbackUrl;
+    private final String transactionId;
+    private final byte[] body;
+    /** Attempts already made before this dispatch. */
+    private final int attempts;
+    /** The body decoded as text, on first use. */
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private volatile String requestBody;
+
+    public static CallbackRequest from(OndcCallbackRetry retry) {
+        CallbackRequest request = new CallbackRequest(retry.getId(), retry.getTenantId(), retry.getSubscriberId(),
+                retry.getAction(), retry.getCallbackUrl(), retry.getTransactionId(),
+                retry.getRequestBody().getBytes(StandardCharsets.UTF_8), retry.getAttempts());
+        request.requestBody = retry.getRequestBody();
+        return request;
+    }
+
+    /** The same callback with a different body. */
+    public CallbackRequest withBody(byte[] newBody) {
+        return new CallbackRequest(retryId, tenantId, subscriberId, action, callbackUrl, transactionId,
+                newBody, attempts);
+    }
+
+    /** The body as text, for the retry tables. Decoded once per request. */
+    public String getRequestBody() {
+        String text = requestBody;
+        if (text == null) {
+            text = new String(body, StandardCharsets.UTF_8);
+            requestBody = text;
+        }
+        return text;
+    }
+}
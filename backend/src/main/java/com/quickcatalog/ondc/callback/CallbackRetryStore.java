@@ -0,0 +1,84 @@
+package com.quickcatalog.ondc.callback;
+
+import com.quickcatalog.ondc.entity.OndcCallbackDeadLetter;
+import com.quickcatalog.ondc.entity.OndcCallbackRetry;
+import com.quickcatalog.ondc.repository.OndcCallbackDeadLetterRepository;
+import com.quickcatalog.ondc.repository.OndcCallbackRetryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Persistence for the durable callback retry queue and its dead-letter table.
+ */
+@Service
+@RequiredArgsConstructor
+public class CallbackRetryStore {
+
+    private final OndcCallbackRetryRepository retryRepository;
+    private final OndcCallbackDeadLetterRepository deadLetterRepository;
+
+    /**
+     * Queue (or re-queue) a callback for another attempt.
+     *
+     * @param attempts Attempts made so far
+     */
+    @Transactional
+    public void scheduleRetry(CallbackRequest request, int attempts, Integer httpStatus,
+                              String error, LocalDateTime nextAttemptAt) {
+        OndcCallbackRetry retry = request.getRetryId() != null
+                ? retryRepository.findById(request.getRetryId()).orElseGet(OndcCallbackRetry::new)
+                : new OndcCallbackRetry();
+        retry.setTenantId(request.getTenantId());
+        retry.setSubscriberId(request.getSubscriberId());
+        retry.setAction(request.getAction());
+        retry.setCallbackUrl(request.getCallbackUrl());
+        retry.setTransactionId(request.getTransactionId());
+        retry.setRequestBody(request.getRequestBody());
+        retry.setAttempts(attempts);
+        retry.setNextAttemptAt(nextAttemptAt);
+        retry.setLastHttpStatus(httpStatus);
+        retry.setLastError(error);
+        retryRepository.save(retry);
+    }
+
+    /**
+     * Claim due retries for this instance by pushing their next attempt past the lease,
+     * so a crashed dispatch is picked up again once the lease expires.
+     */
+    @Transactional
+    public List<OndcCallbackRetry> claimDue(int limit, Duration lease) {
+        List<OndcCallbackRetry> due = retryRepository.findDueForUpdate(limit);
+        LocalDateTime leaseUntil = LocalDateTime.now().plus(lease);
+        due.forEach(retry -> retry.setNextAttemptAt(leaseUntil));
+        return due;
+    }
+
+    @Transactional
+    public void complete(UUID retryId) {
+        if (retryId != null && retryRepository.existsById(retryId)) {
+            retryRepository.deleteById(retryId);
+        }
+    }
+
+    @Transactional
+    public void deadLetter(CallbackRequest request, int attempts, Integer httpStatus, String error) {
+        OndcCallbackDeadLetter deadLetter = new OndcCallbackDeadLetter();
+        deadLetter.setTenantId(request.getTenantId());
+        deadLetter.setSubscriberId(request.getSubscriberId());
+        deadLetter.setAction(request.getAction());
+        deadLetter.setCallbackUrl(request.getCallbackUrl());
+        deadLetter.setTransactionId(request.getTransactionId());
+        deadLetter.setRequestBody(request.getRequestBody());
+        deadLetter.setAttempts(attempts);
+        deadLetter.setLastHttpStatus(httpStatus);
+        deadLetter.setLastError(error);
+        deadLetterRepository.save(deadLetter);
+        complete(request.getRetryId());
+    }
+}
@@ -0,0 +1,189 @@
+package com.quickcatalog.ondc.catalog;
+
+import com.quickcatalog.entity.Product;
+import com.quickcatalog.ondc.entity.OndcProductConfig;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-tenant inverted index over published ONDC products. Name, brand, tags and
+ * descriptions are tokenized into weighted postings and the ONDC category is kept
+ * as a facet, so a search intent is answered by posting lookups instead of a scan.
+ * Documents are added and removed one product at a time as products change.
+ */
+public class CatalogSearchIndex {
+
+    private static final float NAME_WEIGHT = 4f;
+    private static final float BRAND_WEIGHT = 3f;
+    private static final float TAG_WEIGHT = 2f;
+    private static final float SHORT_DESCRIPTION_WEIGHT = 1f;
+    private static final float LONG_DESCRIPTION_WEIGHT = 0.5f;
+
+    /** Score multiplier for a query token that only matches a term as a prefix. */
+    private static final float PREFIX_FACTOR = 0.5f;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Map<UUID, Float>> postings = new TreeMap<>();
+    private final Map<String, Set<UUID>> categories = new HashMap<>();
+    private final Map<UUID, Document> documents = new HashMap<>();
+
+    /**
+     * Index (or re-index) a product under its ONDC config.
+     */
+    public void put(Product product, OndcProductConfig config) {
+        Map<String, Float> terms = new HashMap<>();
+        addTerms(terms, product.getName(), NAME_WEIGHT);
+        addTerms(terms, product.getBrand(), BRAND_WEIGHT);
+        if (product.getTags() != null) {
+            for (String tag : product.getTags()) {
+                addTerms(terms, tag, TAG_WEIGHT);
+            }
+        }
+        addTerms(terms, product.getShortDescription(), SHORT_DESCRIPTION_WEIGHT);
+        addTerms(terms, product.getLongDescription(), LONG_DESCRIPTION_WEIGHT);
+        String category = normalizeCategory(config.getOndcCategoryId());
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(product.getId());
+            documents.put(product.getId(), new Document(terms, category));
+            terms.forEach((term, weight) ->
+                    postings.computeIfAbsent(term, t -> new HashMap<>()).put(product.getId(), weight));
+            if (category != null) {
+                categories.computeIfAbsent(category, c -> new HashSet<>()).add(product.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID productId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Product IDs matching every query token (exact or prefix) and the category facet,
+     * ranked by descending score. Without query tokens, all products in the category
+     * are returned unranked.
+     */
+    public List<UUID> search(String query, String categoryId) {
+        List<String> tokens = tokenize(query);
+        String category = normalizeCategory(categoryId);
+
+        lock.readLock().lock();
+        try {
+            Set<UUID> inCategory = null;
+            if (category != null) {
+                inCategory = categories.getOrDefault(category, Collections.emptySet());
+                if (tokens.isEmpty()) {
+                    return new ArrayList<>(inCategory);
+                }
+            }
+
+            Map<UUID, Float> scores = null;
+            for (String token : tokens) {
+                Map<UUID, Float> tokenScores = scoreToken(token);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((id, score) -> score + tokenScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+            if (scores == null) {
+                return Collections.emptyList();
+            }
+            if (inCategory != null) {
+                scores.keySet().retainAll(inCategory);
+            }
+
+            List<Map.Entry<UUID, Float>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<UUID, Float>comparingByValue().reversed());
+            List<UUID> result = new ArrayList<>(ranked.size());
+            for (Map.Entry<UUID, Float> entry : ranked) {
+                result.add(entry.getKey());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Best score per product for one query token. Must be called under the read lock.
+     */
+    private Map<UUID, Float> scoreToken(String token) {
+        Map<UUID, Float> scores = new HashMap<>();
+        for (Map.Entry<String, Map<UUID, Float>> entry
+                : postings.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+            float factor = entry.getKey().equals(token) ? 1f : PREFIX_FACTOR;
+            entry.getValue().forEach((id, weight) -> scores.merge(id, weight * factor, Math::max));
+        }
+        return scores;
+    }
+
+    private void removeDocument(UUID productId) {
+        Document existing = documents.remove(productId);
+        if (existing == null) {
+            return;
+        }
+        for (String term : existing.terms.keySet()) {
+            Map<UUID, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(productId);
+                if (posting.isEmpty()) postings.remove(term);
+            }
+        }
+        if (existing.category != null) {
+            Set<UUID> members = categories.get(existing.category);
+            if (members != null) {
+                members.remove(productId);
+                if (members.isEmpty()) categories.remove(existing.category);
+            }
+        }
+    }
+
+    private static void addTerms(Map<String, Float> terms, String text, float weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Float::sum);
+        }
+    }
+
+    /**
+     * Lower-cased runs of letters and digits; punctuation and whitespace only separate tokens.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) tokens.add(token);
+        }
+        return tokens;
+    }
+
+    private static String normalizeCategory(String categoryId) {
+        return categoryId == null || categoryId.isBlank() ? null : categoryId.trim().toLowerCase();
+    }
+
+    private static class Document {
+        private final Map<String, Float> terms;
+        private final String category;
+
+        Document(Map<String, Float> terms, String category) {
+            this.terms = terms;
+            this.category = category;
+        }
+    }
+}
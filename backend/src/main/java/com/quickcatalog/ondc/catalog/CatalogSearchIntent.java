@@ -0,0 +1,82 @@
+package com.quickcatalog.ondc.catalog;
+
+import com.quickcatalog.ondc.entity.OndcProvider;
+import lombok.Data;
+
+/**
+ * The parts of a Beckn /search intent the catalog can answer: free text and category
+ * are resolved against the item index, fulfillment type, city and GPS against the provider.
+ */
+@Data
+public class CatalogSearchIntent {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    private final String query;
+    private final String categoryId;
+    private final String fulfillmentType;
+    private final String city;
+    private final String gps;
+
+    /**
+     * True when the intent narrows the item list, i.e. the index has to be consulted.
+     */
+    public boolean hasItemCriteria() {
+        return hasQueryTokens() || (categoryId != null && !categoryId.isBlank());
+    }
+
+    /**
+     * True when the free text has something to match; a query of only punctuation
+     * does not narrow the list.
+     */
+    public boolean hasQueryTokens() {
+        return !CatalogSearchIndex.tokenize(query).isEmpty();
+    }
+
+    /**
+     * Whether a provider can serve this intent.
+     *
+     * @param provider The ONDC provider
+     * @param fulfillmentType The fulfillment type the provider offers
+     * @param radiusKm Serviceability radius around the provider's GPS; 0 disables the check
+     */
+    public boolean matchesProvider(OndcProvider provider, String fulfillmentType, double radiusKm) {
+        if (this.fulfillmentType != null && !this.fulfillmentType.equalsIgnoreCase(fulfillmentType)) {
+            return false;
+        }
+        if (city != null && provider.getAddressCity() != null
+                && !city.equalsIgnoreCase(provider.getAddressCity())) {
+            return false;
+        }
+        if (radiusKm > 0 && gps != null && provider.getGpsCoordinates() != null) {
+            double[] from = parseGps(gps);
+            double[] to = parseGps(provider.getGpsCoordinates());
+            if (from != null && to != null && distanceKm(from, to) > radiusKm) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double[] parseGps(String gps) {
+        String[] parts = gps.split(",");
+        if (parts.length != 2) return null;
+        try {
+            return new double[]{Double.parseDouble(parts[0].trim()), Double.parseDouble(parts[1].trim())};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Great-circle (haversine) distance between two lat/lng pairs.
+     */
+    private static double distanceKm(double[] from, double[] to) {
+        double dLat = Math.toRadians(to[0] - from[0]);
+        double dLng = Math.toRadians(to[1] - from[1]);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                Math.cos(Math.toRadians(from[0])) * Math.cos(Math.toRadians(to[0])) *
+                        Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+}
@@ -0,0 +1,264 @@
+package com.quickcatalog.ondc.catalog;
+
+import com.quickcatalog.ondc.entity.OndcProvider;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Immutable, pre-mapped view of one provider's published ONDC catalog for a domain.
+ * Items are held as serialized Beckn JSON fragments so an on_search payload can be
+ * assembled by concatenation instead of re-mapping and re-serializing every product.
+ * Large catalogs are emitted as bounded pages so the full catalog JSON is never built.
+ * A patched snapshot shares the item map of the one it was patched from and keeps only
+ * its own changes on top, so a run of product edits does not copy the catalog per edit;
+ * the changes are folded into a new map once they outgrow the square root of its size.
+ */
+@Getter
+public class CatalogSnapshot {
+
+    private static final String CATALOG_SUFFIX = "]}]}";
+
+    /** Changes kept on top of the shared map before they are folded into a copy of it. */
+    private static final int MIN_CHANGES_BEFORE_COMPACTION = 32;
+
+    private final Key key;
+    private final long version;
+    private final LocalDateTime builtAt;
+    private final OndcProvider provider;
+
+    /** Catalog JSON up to and including the opening bracket of the provider's items array. */
+    private final String catalogPrefix;
+
+    /** Items keyed by product ID, in catalog order. Unmodifiable. */
+    private final Map<UUID, Item> items;
+
+    /** Item map shared with the snapshots patched from the same build or compaction. */
+    @Getter(AccessLevel.NONE)
+    private final Map<UUID, Item> shared;
+    /** Items replaced or added since {@link #shared}; added ones follow the shared items in order. */
+    @Getter(AccessLevel.NONE)
+    private final Map<UUID, Item> changed;
+    /** Shared items removed since; never also in {@link #changed}. */
+    @Getter(AccessLevel.NONE)
+    private final Set<UUID> removed;
+
+    public CatalogSnapshot(Key key, long version, OndcProvider provider,
+                           String catalogPrefix, Map<UUID, Item> items) {
+        this(key, version, provider, catalogPrefix, Collections.unmodifiableMap(items),
+                Collections.emptyMap(), Collections.emptySet());
+    }
+
+    private CatalogSnapshot(Key key, long version, OndcProvider provider, String catalogPrefix,
+                            Map<UUID, Item> shared, Map<UUID, Item> changed, Set<UUID> removed) {
+        this.key = key;
+        this.version = version;
+        this.builtAt = LocalDateTime.now();
+        this.provider = provider;
+        this.catalogPrefix = catalogPrefix;
+        int compactAfter = Math.max(MIN_CHANGES_BEFORE_COMPACTION, (int) Math.sqrt(shared.size()));
+        if (changed.size() + removed.size() > compactAfter) {
+            this.shared = Collections.unmodifiableMap(new LinkedHashMap<>(new PatchedItems(shared, changed, removed)));
+            this.changed = Collections.emptyMap();
+            this.removed = Collections.emptySet();
+        } else {
+            this.shared = shared;
+            this.changed = changed;
+            this.removed = removed;
+        }
+        this.items = this.changed.isEmpty() && this.removed.isEmpty()
+                ? this.shared : new PatchedItems(this.shared, this.changed, this.removed);
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    /**
+     * Items for the given product IDs, in the order given. IDs not in this snapshot
+     * (e.g. another provider's or domain's products) are skipped.
+     */
+    public List<Item> select(List<UUID> productIds) {
+        List<Item> selected = new ArrayList<>(Math.min(productIds.size(), items.size()));
+        for (UUID productId : productIds) {
+            Item item = items.get(productId);
+            if (item != null) selected.add(item);
+        }
+        return selected;
+    }
+
+    /**
+     * Split the given items into serialized catalog pages of at most {@code maxItems} items
+     * and about {@code maxBytes} bytes each. Pages are built lazily as the iterator advances,
+     * so only one page is held in memory at a time. An item larger than {@code maxBytes}
+     * is emitted on a page of its own.
+     */
+    public Iterator<String> pages(List<Item> selected, int maxItems, int maxBytes) {
+        int envelopeSize = catalogPrefix.getBytes(StandardCharsets.UTF_8).length + CATALOG_SUFFIX.length();
+        int itemBudget = maxBytes - envelopeSize;
+        int itemLimit = Math.max(maxItems, 1);
+
+        return new Iterator<>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < selected.size();
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int start = next;
+                int bytes = 0;
+                while (next < selected.size() && next - start < itemLimit) {
+                    int size = selected.get(next).getJsonSize() + 1;
+                    if (next > start && bytes + size > itemBudget) break;
+                    bytes += size;
+                    next++;
+                }
+                return toCatalogJson(selected.subList(start, next));
+            }
+        };
+    }
+
+    /**
+     * Serialized BecknCatalog containing only the given items.
+     */
+    public String toCatalogJson(Collection<Item> selected) {
+        int size = catalogPrefix.length() + CATALOG_SUFFIX.length();
+        for (Item item : selected) {
+            size += item.getJson().length() + 1;
+        }
+        StringBuilder sb = new StringBuilder(size);
+        sb.append(catalogPrefix);
+        boolean first = true;
+        for (Item item : selected) {
+            if (!first) sb.append(',');
+            sb.append(item.getJson());
+            first = false;
+        }
+        sb.append(CATALOG_SUFFIX);
+        return sb.toString();
+    }
+
+    CatalogSnapshot withItem(Item item, long newVersion) {
+        UUID productId = item.getProductId();
+        Map<UUID, Item> updatedChanges = new LinkedHashMap<>(changed);
+        updatedChanges.put(productId, item);
+        Set<UUID> updatedRemovals = removed;
+        if (removed.contains(productId)) {
+            Set<UUID> copy = new HashSet<>(removed);
+            copy.remove(productId);
+            updatedRemovals = Collections.unmodifiableSet(copy);
+        }
+        return new CatalogSnapshot(key, newVersion, provider, catalogPrefix, shared,
+                Collections.unmodifiableMap(updatedChanges), updatedRemovals);
+    }
+
+    CatalogSnapshot withoutItem(UUID productId, long newVersion) {
+        Map<UUID, Item> updatedChanges = changed;
+        if (changed.containsKey(productId)) {
+            Map<UUID, Item> copy = new LinkedHashMap<>(changed);
+            copy.remove(productId);
+            updatedChanges = Collections.unmodifiableMap(copy);
+        }
+        Set<UUID> updatedRemovals = removed;
+        if (shared.containsKey(productId)) {
+            Set<UUID> copy = new HashSet<>(removed);
+            copy.add(productId);
+            updatedRemovals = Collections.unmodifiableSet(copy);
+        }
+        return new CatalogSnapshot(key, newVersion, provider, catalogPrefix, shared, updatedChanges, updatedRemovals);
+    }
+
+    /**
+     * Read-only view of a shared item map with changes on top: shared items in their
+     * order, replaced ones in place and removed ones skipped, then the added items.
+     */
+    private static final class PatchedItems extends AbstractMap<UUID, Item> {
+        private final Map<UUID, Item> shared;
+        private final Map<UUID, Item> changed;
+        private final Set<UUID> removed;
+        private final int size;
+
+        PatchedItems(Map<UUID, Item> shared, Map<UUID, Item> changed, Set<UUID> removed) {
+            this.shared = shared;
+            this.changed = changed;
+            this.removed = removed;
+            int added = 0;
+            for (UUID productId : changed.keySet()) {
+                if (!shared.containsKey(productId)) added++;
+            }
+            this.size = shared.size() - removed.size() + added;
+        }
+
+        @Override
+        public Item get(Object productId) {
+            Item item = changed.get(productId);
+            if (item != null || removed.contains(productId)) {
+                return item;
+            }
+            return shared.get(productId);
+        }
+
+        @Override
+        public boolean containsKey(Object productId) {
+            return get(productId) != null;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Set<Entry<UUID, Item>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<UUID, Item>> iterator() {
+                    return Stream.concat(
+                            shared.entrySet().stream()
+                                    .filter(entry -> !removed.contains(entry.getKey()))
+                                    .map(entry -> changed.containsKey(entry.getKey())
+                                            ? Map.entry(entry.getKey(), changed.get(entry.getKey())) : entry),
+                            changed.entrySet().stream()
+                                    .filter(entry -> !shared.containsKey(entry.getKey())))
+                            .iterator();
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+    }
+
+    /**
+     * Snapshot identity: one snapshot per (tenant, provider, domain). An empty domain
+     * means "all published products regardless of domain".
+     */
+    @Data
+    public static class Key {
+        private final UUID tenantId;
+        private final UUID providerId;
+        private final String domain;
+    }
+
+    @Data
+    public static class Item {
+        private final UUID productId;
+        private final String json;
+
+        /** UTF-8 byte length of {@link #json}, used for page sizing. */
+        private final int jsonSize;
+    }
+}
@@ -0,0 +1,331 @@
+package com.quickcatalog.ondc.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickcatalog.entity.Product;
+import com.quickcatalog.entity.enums.ProductStatus;
+import com.quickcatalog.event.ProductChangedEvent;
+import com.quickcatalog.ondc.beckn.model.BecknItem;
+import com.quickcatalog.ondc.beckn.model.BecknProvider;
+import com.quickcatalog.ondc.beckn.service.CatalogMappingService;
+import com.quickcatalog.ondc.entity.OndcProductConfig;
+import com.quickcatalog.ondc.entity.OndcProvider;
+import com.quickcatalog.ondc.event.OndcProviderChangedEvent;
+import com.quickcatalog.ondc.inventory.StockAvailabilityCache;
+import com.quickcatalog.ondc.repository.OndcProductConfigRepository;
+import com.quickcatalog.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Holds materialized, versioned ONDC catalog snapshots per (tenant, provider, domain).
+ * A snapshot is built on first /search and then patched item-by-item as products change,
+ * so search handling is a map lookup plus query filter instead of a full catalog rebuild.
+ * A per-tenant {@link CatalogSearchIndex} is maintained alongside to answer search intents.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CatalogSnapshotService {
+
+    private final OndcProductConfigRepository productConfigRepository;
+    private final ProductRepository productRepository;
+    private final CatalogMappingService catalogMappingService;
+    private final StockAvailabilityCache stockAvailabilityCache;
+    private final ObjectMapper objectMapper;
+
+    /** Maximum number of product IDs per IN clause when loading a catalog. */
+    private static final int LOAD_BATCH_SIZE = 500;
+
+    private final Map<CatalogSnapshot.Key, CatalogSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<UUID, CatalogSearchIndex> indexes = new ConcurrentHashMap<>();
+    private final AtomicLong versionSequence = new AtomicLong();
+    /** Builds in progress per tenant, each collecting the products changed while it runs. */
+    private final Map<UUID, Set<PendingChanges>> buildsInProgress = new ConcurrentHashMap<>();
+
+    /**
+     * Return the current snapshot for a provider, building it on first use.
+     *
+     * @param provider The active ONDC provider
+     * @param domain The requested ONDC domain, or null/empty for all domains
+     */
+    public CatalogSnapshot getSnapshot(OndcProvider provider, String domain) {
+        CatalogSnapshot.Key key = new CatalogSnapshot.Key(
+                provider.getTenantId(), provider.getId(), domain != null ? domain : "");
+
+        CatalogSnapshot snapshot = snapshots.get(key);
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        PendingChanges pending = beginBuild(key.getTenantId());
+        CatalogSnapshot result;
+        try {
+            CatalogSnapshot built = build(key, provider);
+            CatalogSnapshot existing = snapshots.putIfAbsent(key, built);
+            result = existing != null ? existing : built;
+            if (pending.invalidated) {
+                // The tenant was invalidated while the build read its catalog
+                snapshots.remove(key, built);
+                indexes.remove(key.getTenantId());
+            }
+        } finally {
+            endBuild(key.getTenantId(), pending);
+        }
+        // Products written while the build ran may have been read before their change
+        for (UUID productId : pending.productIds) {
+            apply(key.getTenantId(), productId);
+        }
+        return snapshots.getOrDefault(key, result);
+    }
+
+    /**
+     * Items of a snapshot matching a search intent, best match first. Intents without
+     * searchable text or category return the whole catalog in catalog order.
+     */
+    public List<CatalogSnapshot.Item> search(CatalogSnapshot snapshot, CatalogSearchIntent intent) {
+        if (!intent.hasItemCriteria()) {
+            return new ArrayList<>(snapshot.getItems().values());
+        }
+        CatalogSearchIndex index = indexFor(snapshot.getKey().getTenantId());
+        List<UUID> matches = index.search(intent.getQuery(), intent.getCategoryId());
+        if (!intent.hasQueryTokens()) {
+            // Category-only intents are unranked; keep catalog order
+            Set<UUID> members = new HashSet<>(matches);
+            return snapshot.getItems().values().stream()
+                    .filter(item -> members.contains(item.getProductId()))
+                    .collect(Collectors.toList());
+        }
+        return snapshot.select(matches);
+    }
+
+    /**
+     * Drop every snapshot and the search index of a tenant; they are rebuilt lazily on the next search.
+     */
+    public void invalidateTenant(UUID tenantId) {
+        buildsInProgress.getOrDefault(tenantId, Collections.emptySet())
+                .forEach(pending -> pending.invalidated = true);
+        snapshots.keySet().removeIf(key -> key.getTenantId().equals(tenantId));
+        indexes.remove(tenantId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        buildsInProgress.getOrDefault(event.getTenantId(), Collections.emptySet())
+                .forEach(pending -> pending.productIds.add(event.getProductId()));
+        apply(event.getTenantId(), event.getProductId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProviderChanged(OndcProviderChangedEvent event) {
+        invalidateTenant(event.getTenantId());
+    }
+
+    /**
+     * Patch the tenant's snapshots and search index with the current state of a product.
+     */
+    private void apply(UUID tenantId, UUID productId) {
+        List<CatalogSnapshot.Key> affected = snapshots.keySet().stream()
+                .filter(key -> key.getTenantId().equals(tenantId))
+                .collect(Collectors.toList());
+        if (affected.isEmpty() && !indexes.containsKey(tenantId)) {
+            return;
+        }
+
+        try {
+            Product product = productRepository
+                    .findByIdAndTenantIdWithImages(productId, tenantId)
+                    .orElse(null);
+            OndcProductConfig config = productConfigRepository
+                    .findByProductIdAndTenantId(productId, tenantId)
+                    .orElse(null);
+
+            CatalogSearchIndex index = indexes.get(tenantId);
+            if (index != null) {
+                if (product != null && product.getStatus() == ProductStatus.ACTIVE
+                        && config != null && config.isPublishedToOndc()) {
+                    index.put(product, config);
+                } else {
+                    index.remove(productId);
+                }
+            }
+
+            for (CatalogSnapshot.Key key : affected) {
+                snapshots.computeIfPresent(key, (k, snapshot) -> patch(snapshot, product, config, productId));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to patch ONDC catalog snapshot for product {}, invalidating tenant: {}",
+                    productId, e.getMessage());
+            invalidateTenant(tenantId);
+        }
+    }
+
+    private PendingChanges beginBuild(UUID tenantId) {
+        PendingChanges pending = new PendingChanges();
+        buildsInProgress.compute(tenantId, (id, builds) -> {
+            Set<PendingChanges> updated = builds != null ? builds : ConcurrentHashMap.newKeySet();
+            updated.add(pending);
+            return updated;
+        });
+        return pending;
+    }
+
+    private void endBuild(UUID tenantId, PendingChanges pending) {
+        buildsInProgress.computeIfPresent(tenantId, (id, builds) -> {
+            builds.remove(pending);
+            return builds.isEmpty() ? null : builds;
+        });
+    }
+
+    private CatalogSnapshot build(CatalogSnapshot.Key key, OndcProvider provider) {
+        long startTime = System.currentTimeMillis();
+        UUID tenantId = key.getTenantId();
+
+        List<OndcProductConfig> configs = key.getDomain().isEmpty()
+                ? productConfigRepository.findByTenantIdAndPublishedToOndcTrue(tenantId)
+                : productConfigRepository.findPublishedByDomain(tenantId, key.getDomain());
+
+        Map<UUID, Product> products = loadProducts(tenantId, configs);
+        int queries = 1 + (configs.size() + LOAD_BATCH_SIZE - 1) / LOAD_BATCH_SIZE;
+        stockAvailabilityCache.preload(products.keySet());
+
+        // An all-domains build covers every published product, so it can seed the search index
+        CatalogSearchIndex index = key.getDomain().isEmpty() && !indexes.containsKey(tenantId)
+                ? new CatalogSearchIndex() : null;
+        // Preserve config order so the catalog is stable across rebuilds
+        Map<UUID, CatalogSnapshot.Item> items = new LinkedHashMap<>();
+        for (OndcProductConfig config : configs) {
+            Product product = products.get(config.getProductId());
+            if (product == null) continue;
+            items.put(product.getId(), toItem(product, config, provider));
+            if (index != null) index.put(product, config);
+        }
+        if (index != null) {
+            indexes.putIfAbsent(tenantId, index);
+        }
+
+        CatalogSnapshot snapshot = new CatalogSnapshot(key, versionSequence.incrementAndGet(),
+                provider, buildCatalogPrefix(provider), items);
+        log.info("Built ONDC catalog snapshot v{} for provider {} (domain '{}'): {} items, {} queries, {}ms",
+                snapshot.getVersion(), provider.getProviderId(), key.getDomain(), items.size(),
+                queries, System.currentTimeMillis() - startTime);
+        return snapshot;
+    }
+
+    /**
+     * The tenant's search index, built from every published product if it is missing,
+     * for instance after the tenant was invalidated while a snapshot was in use.
+     */
+    private CatalogSearchIndex indexFor(UUID tenantId) {
+        CatalogSearchIndex index = indexes.get(tenantId);
+        if (index != null) {
+            return index;
+        }
+        PendingChanges pending = beginBuild(tenantId);
+        try {
+            index = indexes.computeIfAbsent(tenantId, this::buildIndex);
+            if (pending.invalidated) {
+                // Answer this search from the index, but build a fresh one for the next
+                indexes.remove(tenantId, index);
+            }
+        } finally {
+            endBuild(tenantId, pending);
+        }
+        for (UUID productId : pending.productIds) {
+            apply(tenantId, productId);
+        }
+        return index;
+    }
+
+    private CatalogSearchIndex buildIndex(UUID tenantId) {
+        List<OndcProductConfig> configs = productConfigRepository.findByTenantIdAndPublishedToOndcTrue(tenantId);
+        Map<UUID, Product> products = loadProducts(tenantId, configs);
+        CatalogSearchIndex index = new CatalogSearchIndex();
+        for (OndcProductConfig config : configs) {
+            Product product = products.get(config.getProductId());
+            if (product != null) {
+                index.put(product, config);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Load the published ACTIVE products with images in bounded IN-list chunks.
+     */
+    private Map<UUID, Product> loadProducts(UUID tenantId, List<OndcProductConfig> configs) {
+        Map<UUID, Product> products = new HashMap<>();
+        List<UUID> productIds = configs.stream()
+                .map(OndcProductConfig::getProductId)
+                .collect(Collectors.toList());
+        for (int i = 0; i < productIds.size(); i += LOAD_BATCH_SIZE) {
+            List<UUID> chunk = productIds.subList(i, Math.min(i + LOAD_BATCH_SIZE, productIds.size()));
+            productRepository.findActiveByIdInAndTenantIdWithImages(chunk, tenantId)
+                    .forEach(p -> products.put(p.getId(), p));
+        }
+        return products;
+    }
+
+    private CatalogSnapshot patch(CatalogSnapshot snapshot, Product product,
+                                  OndcProductConfig config, UUID productId) {
+        String domain = snapshot.getKey().getDomain();
+        boolean listed = product != null
+                && product.getStatus() == ProductStatus.ACTIVE
+                && config != null
+                && config.isPublishedToOndc()
+                && (domain.isEmpty() || domain.equals(config.getOndcDomain()));
+
+        if (listed) {
+            return snapshot.withItem(toItem(product, config, snapshot.getProvider()),
+                    versionSequence.incrementAndGet());
+        }
+        if (snapshot.getItems().containsKey(productId)) {
+            return snapshot.withoutItem(productId, versionSequence.incrementAndGet());
+        }
+        return snapshot;
+    }
+
+    private CatalogSnapshot.Item toItem(Product product, OndcProductConfig config, OndcProvider provider) {
+        BecknItem becknItem = catalogMappingService.mapProductToItem(product, config, provider);
+        String json = writeJson(becknItem);
+        return new CatalogSnapshot.Item(product.getId(), json,
+                json.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    /**
+     * Serialize everything in the catalog that precedes the item list. The provider object is
+     * serialized without items and left open so item fragments can be appended directly.
+     */
+    private String buildCatalogPrefix(OndcProvider provider) {
+        BecknProvider becknProvider = catalogMappingService.mapProvider(provider);
+        String providerJson = writeJson(becknProvider);
+        return "{\"bpp/descriptor\":" + writeJson(catalogMappingService.mapBppDescriptor(provider)) +
+                ",\"bpp/providers\":[" +
+                providerJson.substring(0, providerJson.length() - 1) +
+                ",\"items\":[";
+    }
+
+    private String writeJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize catalog element", e);
+        }
+    }
+
+    /**
+     * What happened to a tenant while one of its snapshots or its index was being built.
+     */
+    private static final class PendingChanges {
+        final Set<UUID> productIds = ConcurrentHashMap.newKeySet();
+        volatile boolean invalidated;
+    }
+}
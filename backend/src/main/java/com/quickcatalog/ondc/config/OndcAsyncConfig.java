@@ -6,11 +6,16 @@ import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableAsync
 public class OndcAsyncConfig {
 
+    /**
+     * Processes Beckn requests in memory when the job queue is disabled or a job
+     * cannot be stored.
+     */
     @Bean(name = "ondcCallbackExecutor")
     public Executor ondcCallbackExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
@@ -21,4 +26,37 @@ public class OndcAsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Runs the per-provider on_search builds of a single /search concurrently.
+     * When saturated the search thread dispatches the provider itself.
+     */
+    @Bean(name = "ondcSearchExecutor")
+    public Executor ondcSearchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(10);
+        executor.setMaxPoolSize(50);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("ondc-search-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Background refresh of cached registry keys. A refresh that does not fit is
+     * rejected and skipped by the cache; the key is then fetched on the request path
+     * once it expires.
+     */
+    @Bean(name = "ondcRegistryExecutor")
+    public Executor ondcRegistryExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("ondc-registry-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
 }
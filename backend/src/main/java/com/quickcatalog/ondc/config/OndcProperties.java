@@ -4,6 +4,9 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 @Data
@@ -15,6 +18,14 @@ public class OndcProperties {
     private String environment = "STAGING";
     private Map<String, RegistryConfig> registry;
     private CallbackConfig callback = new CallbackConfig();
+    private SearchConfig search = new SearchConfig();
+    private ApiLogConfig apiLog = new ApiLogConfig();
+    private AuthConfig auth = new AuthConfig();
+    private InventoryConfig inventory = new InventoryConfig();
+    private QuoteConfig quote = new QuoteConfig();
+    private SessionConfig session = new SessionConfig();
+    private IdempotencyConfig idempotency = new IdempotencyConfig();
+    private JobConfig job = new JobConfig();
 
     @Data
     public static class RegistryConfig {
@@ -26,6 +37,123 @@ public class OndcProperties {
     @Data
     public static class CallbackConfig {
         private int timeoutSeconds = 30;
+        private int connectTimeoutSeconds = 10;
+        /** Callbacks allowed in flight to a single BAP host; excess waits in memory. */
+        private int maxInFlightPerHost = 16;
+        /** Callbacks waiting in memory for a saturated BAP host; beyond this they are queued for retry. */
+        private int maxQueuedPerHost = 256;
+        private int maxAttempts = 5;
+        private long retryBaseDelayMs = 2000;
+        private long retryMaxDelayMs = 300_000;
+        private long retryPollIntervalMs = 5000;
+        private int retryBatchSize = 50;
+    }
+
+    @Data
+    public static class SearchConfig {
+        /** Maximum number of items per on_search callback. */
+        private int pageMaxItems = 500;
+        /** Approximate maximum catalog size in bytes per on_search callback. */
+        private int pageMaxBytes = 1_000_000;
+        /** Serviceability radius around a provider's GPS location; 0 disables the distance check. */
+        private double serviceabilityRadiusKm = 0;
+    }
+
+    @Data
+    public static class ApiLogConfig {
+        /** Entries held in memory before new ones are dropped. */
+        private int bufferCapacity = 10_000;
+        private int batchSize = 500;
+        private long flushIntervalMs = 1000;
+        /** Bodies longer than this are stored as a truncated preview; 0 keeps them whole. */
+        private int maxBodyChars = 65_536;
+        /** Fraction (0-1) of successful search/on_search entries to keep. */
+        private double searchSuccessSampleRate = 1.0;
+    }
+
+    @Data
+    public static class AuthConfig {
+        /** Reject requests failing signature verification; when false failures are only logged. */
+        private boolean enforce = true;
+        /** Registry lookups are cached for this long per (subscriber_id, unique_key_id). */
+        private long keyTtlSeconds = 3600;
+        /** A cached key used within this window of expiry is refreshed in the background. */
+        private long keyRefreshAheadSeconds = 300;
+        /** Unknown subscribers and failed lookups are cached for this long. */
+        private long negativeTtlSeconds = 60;
+        private int maxCachedKeys = 10_000;
+        /** Larger request bodies are refused before they are read in full or verified. */
+        private int maxBodyBytes = 2 * 1024 * 1024;
+        /** Resolve keys locally (stub-keys, then own subscribers) instead of calling the registry. */
+        private boolean stubRegistry = false;
+        private List<StubKey> stubKeys = new ArrayList<>();
+    }
+
+    @Data
+    public static class StubKey {
+        private String subscriberId;
+        private String uniqueKeyId;
+        private String signingPublicKey;
+    }
+
+    @Data
+    public static class InventoryConfig {
+        /** Stock reserved at confirm is given back if the seller has not accepted the order by then. */
+        private long reservationTtlMinutes = 60;
+        private long expiryPollIntervalMs = 60_000;
+        private int expiryBatchSize = 100;
+        /** Count advertised for products that do not track inventory. */
+        private int untrackedAvailableCount = 99;
+    }
+
+    @Data
+    public static class QuoteConfig {
+        /** Flat delivery charge added to every quote. */
+        private BigDecimal deliveryCharge = BigDecimal.ZERO;
+        /** Item total (incl. tax) at or above which delivery is free; null to always charge. */
+        private BigDecimal freeDeliveryAbove;
+        /** How long a /select quote is honoured by the following /init and /confirm. */
+        private long validityMinutes = 30;
+    }
+
+    @Data
+    public static class SessionConfig {
+        /** Sessions are dropped this long after the last step of the transaction. */
+        private long ttlMinutes = 60;
+        private int maxSessions = 10_000;
+        /** Also keep sessions in ondc_transaction_session so every node sees them. */
+        private boolean persist = false;
+        private long purgeIntervalMs = 300_000;
+    }
+
+    @Data
+    public static class IdempotencyConfig {
+        private boolean enabled = true;
+        /** Recently seen message keys answered from memory without a database round trip. */
+        private int recentKeys = 100_000;
+        /** Receipts are kept this long; a retry arriving later is processed again. */
+        private long retentionHours = 48;
+        private long purgeIntervalMs = 3_600_000;
+    }
+
+    @Data
+    public static class JobConfig {
+        /** When false, requests are processed in memory on the callback executor instead of the job queue. */
+        private boolean enabled = true;
+        /** Worker threads for confirm, cancel, update and status. */
+        private int orderConcurrency = 8;
+        /** Worker threads for select and init. */
+        private int transactionConcurrency = 8;
+        /** Worker threads for search. */
+        private int searchConcurrency = 4;
+        /** How long a claimed job stays hidden from other workers before it is considered abandoned. */
+        private long visibilityTimeoutSeconds = 120;
+        /** How often a node extends the visibility timeout of the jobs it is running; well below the timeout. */
+        private long leaseRenewalIntervalMs = 30_000;
+        private int maxAttempts = 3;
+        private long retryDelaySeconds = 30;
+        /** How often idle workers look for jobs enqueued by other nodes. */
+        private long pollIntervalMs = 1000;
     }
 
     public RegistryConfig getActiveRegistry() {
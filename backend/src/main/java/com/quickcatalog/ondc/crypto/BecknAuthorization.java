@@ -0,0 +1,64 @@
+package com.quickcatalog.ondc.crypto;
+
+import lombok.Data;
+
+/**
+ * A parsed Beckn {@code Authorization: Signature ...} header.
+ */
+@Data
+public class BecknAuthorization {
+
+    private final String subscriberId;
+    private final String uniqueKeyId;
+    private final String algorithm;
+    private final long created;
+    private final long expires;
+    private final String headers;
+    private final String signature;
+
+    /**
+     * Parse the header in one pass over its {@code name="value"} pairs.
+     *
+     * @return the parsed header, or null if it is not a well-formed Beckn signature header
+     */
+    public static BecknAuthorization parse(String header) {
+        if (header == null) return null;
+        String value = header.trim();
+        if (!value.regionMatches(true, 0, "Signature ", 0, 10)) return null;
+
+        String keyId = null, algorithm = null, created = null, expires = null, headers = null, signature = null;
+        int pos = 10;
+        while (pos < value.length()) {
+            int eq = value.indexOf("=\"", pos);
+            if (eq == -1) break;
+            int end = value.indexOf('"', eq + 2);
+            if (end == -1) return null;
+            String name = value.substring(pos, eq).trim();
+            String field = value.substring(eq + 2, end);
+            switch (name) {
+                case "keyId" -> keyId = field;
+                case "algorithm" -> algorithm = field;
+                case "created" -> created = field;
+                case "expires" -> expires = field;
+                case "headers" -> headers = field;
+                case "signature" -> signature = field;
+                default -> { }
+            }
+            pos = value.indexOf(',', end);
+            if (pos == -1) break;
+            pos++;
+        }
+        if (keyId == null || created == null || expires == null || signature == null) return null;
+
+        // keyId="{subscriber_id}|{unique_key_id}|{algorithm}"
+        String[] keyParts = keyId.split("\\|");
+        if (keyParts.length != 3) return null;
+        try {
+            return new BecknAuthorization(keyParts[0], keyParts[1],
+                    algorithm != null ? algorithm : keyParts[2],
+                    Long.parseLong(created), Long.parseLong(expires), headers, signature);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.quickcatalog.ondc.crypto;
+
+import com.quickcatalog.ondc.event.OndcSubscriberChangedEvent;
+import org.bouncycastle.crypto.params.Ed25519PrivateKeyParameters;
+import org.bouncycastle.crypto.params.Ed25519PublicKeyParameters;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parsed Ed25519 key parameters, so the base64 decode and public key derivation
+ * happen once per key instead of once per signature. Signing keys are cached per
+ * subscriber together with the encoded key they were parsed from; a rotated key
+ * no longer matches and is re-parsed on next use. Public keys of other network
+ * participants are cached by their encoded value in a bounded map that drops the
+ * least recently used keys when full.
+ */
+@Component
+public class Ed25519KeyCache {
+
+    private static final int MAX_PUBLIC_KEYS = 4096;
+
+    private final Map<UUID, SigningKey> signingKeys = new ConcurrentHashMap<>();
+    private final Map<String, PublicKey> publicKeys = new ConcurrentHashMap<>();
+
+    public Ed25519PrivateKeyParameters getSigningKey(UUID subscriberId, String privateKeyBase64) {
+        SigningKey cached = signingKeys.get(subscriberId);
+        if (cached != null && cached.encoded.equals(privateKeyBase64)) {
+            return cached.parameters;
+        }
+        SigningKey parsed = new SigningKey(privateKeyBase64, parsePrivateKey(privateKeyBase64));
+        signingKeys.put(subscriberId, parsed);
+        return parsed.parameters;
+    }
+
+    public Ed25519PublicKeyParameters getPublicKey(String publicKeyBase64) {
+        PublicKey cached = publicKeys.get(publicKeyBase64);
+        if (cached != null) {
+            cached.lastUsedAt = System.currentTimeMillis();
+            return cached.parameters;
+        }
+        if (publicKeys.size() >= MAX_PUBLIC_KEYS) {
+            evictLeastRecentlyUsed();
+        }
+        PublicKey parsed = new PublicKey(new Ed25519PublicKeyParameters(
+                Base64.getDecoder().decode(publicKeyBase64), 0));
+        publicKeys.put(publicKeyBase64, parsed);
+        return parsed.parameters;
+    }
+
+    /**
+     * Drops the least recently used tenth of the public keys, so the scan is not
+     * repeated for every new key while the map stays full.
+     */
+    private void evictLeastRecentlyUsed() {
+        publicKeys.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().lastUsedAt))
+                .limit(MAX_PUBLIC_KEYS / 10)
+                .toList()
+                .forEach(entry -> publicKeys.remove(entry.getKey(), entry.getValue()));
+    }
+
+    /**
+     * Keys are also checked against their encoded value on every use; dropping them on
+     * subscriber changes just releases key material that is no longer current.
+     */
+    @EventListener
+    public void onSubscriberChanged(OndcSubscriberChangedEvent event) {
+        signingKeys.clear();
+    }
+
+    static Ed25519PrivateKeyParameters parsePrivateKey(String privateKeyBase64) {
+        Ed25519PrivateKeyParameters parameters = new Ed25519PrivateKeyParameters(
+                Base64.getDecoder().decode(privateKeyBase64), 0);
+        // Derive and memoize the public key now rather than inside the first signature
+        parameters.generatePublicKey();
+        return parameters;
+    }
+
+    private static class PublicKey {
+        private final Ed25519PublicKeyParameters parameters;
+        private volatile long lastUsedAt = System.currentTimeMillis();
+
+        PublicKey(Ed25519PublicKeyParameters parameters) {
+            this.parameters = parameters;
+        }
+    }
+
+    private static class SigningKey {
+        private final String encoded;
+        private final Ed25519PrivateKeyParameters parameters;
+
+        SigningKey(String encoded, Ed25519PrivateKeyParameters parameters) {
+            this.encoded = encoded;
+            this.parameters = parameters;
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.quickcatalog.ondc.crypto;
 
+import com.quickcatalog.ondc.entity.OndcSubscriber;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.bouncycastle.crypto.Signer;
 import org.bouncycastle.crypto.digests.Blake2bDigest;
 import org.bouncycastle.crypto.params.Ed25519PrivateKeyParameters;
 import org.bouncycastle.crypto.params.Ed25519PublicKeyParameters;
 import org.bouncycastle.crypto.signers.Ed25519Signer;
+import org.bouncycastle.math.ec.rfc8032.Ed25519;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
@@ -15,18 +18,32 @@ import java.util.Base64;
 /**
  * Handles Ed25519 signing and verification for the Beckn protocol.
  * Every ONDC API call must include a digitally signed Authorization header.
+ * Parsed keys come from {@link Ed25519KeyCache}; bodies can be hashed straight from
+ * the serialized bytes.
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class Ed25519Service {
 
+    /** Tolerated difference between the sender's clock and ours for the created timestamp. */
+    private static final long CLOCK_SKEW_SECONDS = 30;
+
+    private final Ed25519KeyCache keyCache;
+
     /**
      * Compute BLAKE-512 hash of the request body.
      */
     public String blakeHash(String requestBody) {
+        return blakeHash(requestBody.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Compute BLAKE-512 hash of an already serialized request body.
+     */
+    public String blakeHash(byte[] requestBody) {
         Blake2bDigest digest = new Blake2bDigest(512);
-        byte[] input = requestBody.getBytes(StandardCharsets.UTF_8);
-        digest.update(input, 0, input.length);
+        digest.update(requestBody, 0, requestBody.length);
         byte[] hash = new byte[64];
         digest.doFinal(hash, 0);
         return Base64.getEncoder().encodeToString(hash);
@@ -47,15 +64,21 @@ public class Ed25519Service {
      */
     public String sign(String signingString, String privateKeyBase64) {
         try {
-            byte[] privateKeyBytes = Base64.getDecoder().decode(privateKeyBase64);
-            Ed25519PrivateKeyParameters privateKey = new Ed25519PrivateKeyParameters(privateKeyBytes, 0);
-
-            Signer signer = new Ed25519Signer();
-            signer.init(true, privateKey);
+            return sign(signingString, Ed25519KeyCache.parsePrivateKey(privateKeyBase64));
+        } catch (RuntimeException e) {
+            log.error("Ed25519 signing failed", e);
+            throw new RuntimeException("Failed to sign message", e);
+        }
+    }
 
+    /**
+     * Sign a string using already parsed Ed25519 key parameters.
+     */
+    public String sign(String signingString, Ed25519PrivateKeyParameters privateKey) {
+        try {
             byte[] message = signingString.getBytes(StandardCharsets.UTF_8);
-            signer.update(message, 0, message.length);
-            byte[] signature = signer.generateSignature();
+            byte[] signature = new byte[Ed25519PrivateKeyParameters.SIGNATURE_SIZE];
+            privateKey.sign(Ed25519.Algorithm.Ed25519, null, message, 0, message.length, signature, 0);
 
             return Base64.getEncoder().encodeToString(signature);
         } catch (Exception e) {
@@ -69,8 +92,7 @@ public class Ed25519Service {
      */
     public boolean verify(String signingString, String signatureBase64, String publicKeyBase64) {
         try {
-            byte[] publicKeyBytes = Base64.getDecoder().decode(publicKeyBase64);
-            Ed25519PublicKeyParameters publicKey = new Ed25519PublicKeyParameters(publicKeyBytes, 0);
+            Ed25519PublicKeyParameters publicKey = keyCache.getPublicKey(publicKeyBase64);
 
             Signer verifier = new Ed25519Signer();
             verifier.init(false, publicKey);
@@ -91,12 +113,28 @@ public class Ed25519Service {
      */
     public String buildAuthorizationHeader(String requestBody, String subscriberId,
                                            String uniqueKeyId, String privateKeyBase64) {
+        return buildAuthorizationHeader(blakeHash(requestBody), subscriberId, uniqueKeyId,
+                Ed25519KeyCache.parsePrivateKey(privateKeyBase64));
+    }
+
+    /**
+     * Build the Authorization header for a serialized callback body, signing with the
+     * subscriber's cached key parameters.
+     */
+    public String buildAuthorizationHeader(byte[] requestBody, OndcSubscriber subscriber) {
+        Ed25519PrivateKeyParameters privateKey =
+                keyCache.getSigningKey(subscriber.getId(), subscriber.getSigningPrivateKey());
+        return buildAuthorizationHeader(blakeHash(requestBody), subscriber.getSubscriberId(),
+                subscriber.getUniqueKeyId(), privateKey);
+    }
+
+    private String buildAuthorizationHeader(String hash, String subscriberId, String uniqueKeyId,
+                                            Ed25519PrivateKeyParameters privateKey) {
         long created = Instant.now().getEpochSecond();
         long expires = created + 300; // 5 minutes
 
-        String hash = blakeHash(requestBody);
         String signingString = buildSigningString(created, expires, hash);
-        String signature = sign(signingString, privateKeyBase64);
+        String signature = sign(signingString, privateKey);
 
         return String.format(
                 "Signature keyId=\"%s|%s|ed25519\",algorithm=\"ed25519\"," +
@@ -117,42 +155,33 @@ public class Ed25519Service {
      */
     public boolean verifyAuthorizationHeader(String authHeader, String requestBody,
                                               String senderPublicKey) {
-        try {
-            // Parse header fields
-            String created = extractField(authHeader, "created");
-            String expires = extractField(authHeader, "expires");
-            String signature = extractField(authHeader, "signature");
-
-            if (created == null || expires == null || signature == null) {
-                log.warn("Missing fields in Authorization header");
-                return false;
-            }
-
-            // Check expiry
-            long expiresLong = Long.parseLong(expires);
-            if (Instant.now().getEpochSecond() > expiresLong) {
-                log.warn("Authorization header expired");
-                return false;
-            }
-
-            // Rebuild signing string and verify
-            String hash = blakeHash(requestBody);
-            String signingString = buildSigningString(Long.parseLong(created), expiresLong, hash);
-
-            return verify(signingString, signature, senderPublicKey);
-        } catch (Exception e) {
-            log.error("Failed to verify Authorization header", e);
+        BecknAuthorization authorization = BecknAuthorization.parse(authHeader);
+        if (authorization == null) {
+            log.warn("Missing fields in Authorization header");
             return false;
         }
+        return verifyAuthorization(authorization, requestBody.getBytes(StandardCharsets.UTF_8), senderPublicKey);
     }
 
-    private String extractField(String header, String fieldName) {
-        String pattern = fieldName + "=\"";
-        int start = header.indexOf(pattern);
-        if (start == -1) return null;
-        start += pattern.length();
-        int end = header.indexOf("\"", start);
-        if (end == -1) return null;
-        return header.substring(start, end);
+    /**
+     * Verify a parsed Authorization header against the raw request bytes: the header
+     * must be within its validity window, and the signature must match the signing
+     * string rebuilt from the BLAKE-512 digest of the body.
+     */
+    public boolean verifyAuthorization(BecknAuthorization authorization, byte[] requestBody,
+                                       String senderPublicKey) {
+        long now = Instant.now().getEpochSecond();
+        if (now > authorization.getExpires()) {
+            log.warn("Authorization header expired");
+            return false;
+        }
+        if (authorization.getCreated() > now + CLOCK_SKEW_SECONDS) {
+            log.warn("Authorization header created in the future");
+            return false;
+        }
+
+        String hash = blakeHash(requestBody);
+        String signingString = buildSigningString(authorization.getCreated(), authorization.getExpires(), hash);
+        return verify(signingString, authorization.getSignature(), senderPublicKey);
     }
 }
@@ -1,7 +1,10 @@
 package com.quickcatalog.ondc.crypto;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickcatalog.ondc.beckn.model.BecknError;
+import com.quickcatalog.ondc.beckn.model.BecknResponse;
 import com.quickcatalog.ondc.config.OndcProperties;
+import com.quickcatalog.ondc.registry.RegistryKeyCache;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -10,19 +13,21 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
-import org.springframework.web.util.ContentCachingRequestWrapper;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.util.Map;
 
 /**
  * Servlet filter that verifies Ed25519 signatures on incoming Beckn protocol requests
  * to /ondc/** endpoints. These endpoints do NOT use JWT auth — they use Beckn's
  * signature-based authentication instead.
  *
- * In STAGING environment, signature verification is logged but not enforced
- * to simplify development and testing.
+ * The body is read up front and the signature is checked before the controller runs:
+ * the Authorization header is parsed once, the sender's key is resolved through the
+ * {@link RegistryKeyCache}, and the BLAKE-512 digest and Ed25519 signature are verified
+ * against the exact bytes received. Failing requests get a 401 NACK, unless
+ * {@code ondc.auth.enforce} is off, in which case failures are only logged. Bodies over
+ * {@code ondc.auth.max-body-bytes} are refused with a 413 before they are verified,
+ * whether or not they declare their length.
  */
 @Slf4j
 @Component
@@ -31,7 +36,11 @@ import java.util.Map;
 @ConditionalOnProperty(name = "ondc.enabled", havingValue = "true", matchIfMissing = true)
 public class OndcAuthFilter implements Filter {
 
+    /** Request attribute holding the verified body bytes, so they are not read again. */
+    public static final String RAW_BODY_ATTRIBUTE = "ondc.rawBody";
+
     private final Ed25519Service ed25519Service;
+    private final RegistryKeyCache registryKeyCache;
     private final OndcProperties ondcProperties;
     private final ObjectMapper objectMapper;
 
@@ -48,47 +57,87 @@ public class OndcAuthFilter implements Filter {
             return;
         }
 
-        // Wrap request to allow reading body multiple times
-        ContentCachingRequestWrapper wrappedRequest = new ContentCachingRequestWrapper(httpRequest);
-
-        // Read the body by passing through the chain first
-        // We verify after because ContentCachingRequestWrapper needs the body to be consumed
-        chain.doFilter(wrappedRequest, response);
-
-        // Log the authorization header for debugging (in all environments)
-        String authHeader = wrappedRequest.getHeader("Authorization");
-        if (authHeader == null) {
-            log.warn("ONDC request to {} missing Authorization header", requestUri);
-        } else {
-            log.debug("ONDC auth header present for {}: {}", requestUri,
-                    authHeader.substring(0, Math.min(authHeader.length(), 80)) + "...");
+        int maxBodyBytes = ondcProperties.getAuth().getMaxBodyBytes();
+        if (httpRequest.getContentLengthLong() > maxBodyBytes) {
+            rejectTooLarge((HttpServletResponse) response, requestUri, maxBodyBytes);
+            return;
         }
+        // Read one byte past the limit to tell a body of exactly the limit from a longer one
+        byte[] body = httpRequest.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body.length > maxBodyBytes) {
+            rejectTooLarge((HttpServletResponse) response, requestUri, maxBodyBytes);
+            return;
+        }
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(httpRequest, body);
+        cachedRequest.setAttribute(RAW_BODY_ATTRIBUTE, body);
 
-        // In staging, we log but don't enforce signature verification
-        if ("STAGING".equalsIgnoreCase(ondcProperties.getEnvironment())) {
-            log.debug("ONDC staging mode — signature verification logged but not enforced");
+        String failure = authenticate(httpRequest.getHeader("Authorization"), body);
+        if (failure != null) {
+            if (ondcProperties.getAuth().isEnforce()) {
+                log.warn("Rejected ONDC request to {}: {}", requestUri, failure);
+                sendUnauthorized((HttpServletResponse) response, failure);
+                return;
+            }
+            log.warn("ONDC request to {} failed verification (not enforced): {}", requestUri, failure);
         }
+
+        chain.doFilter(cachedRequest, response);
     }
 
     /**
-     * Verify an incoming request's Authorization header.
-     * Called explicitly by controllers when stricter verification is needed.
+     * @return null if the request is authentic, otherwise the reason it is not
      */
-    public boolean verifyRequest(String authHeader, String requestBody, String senderPublicKey) {
-        if (authHeader == null || requestBody == null || senderPublicKey == null) {
-            return false;
+    private String authenticate(String authHeader, byte[] body) {
+        if (authHeader == null) {
+            return "Missing Authorization header";
+        }
+        BecknAuthorization authorization = BecknAuthorization.parse(authHeader);
+        if (authorization == null) {
+            return "Malformed Authorization header";
         }
-        return ed25519Service.verifyAuthorizationHeader(authHeader, requestBody, senderPublicKey);
+        if (!"ed25519".equalsIgnoreCase(authorization.getAlgorithm())) {
+            return "Unsupported signature algorithm: " + authorization.getAlgorithm();
+        }
+
+        String subscriberId = authorization.getSubscriberId();
+        String uniqueKeyId = authorization.getUniqueKeyId();
+        String publicKey = registryKeyCache.getSigningPublicKey(subscriberId, uniqueKeyId);
+        if (publicKey == null) {
+            return "Unknown subscriber key " + subscriberId + "|" + uniqueKeyId;
+        }
+        if (ed25519Service.verifyAuthorization(authorization, body, publicKey)) {
+            return null;
+        }
+
+        // The sender may have rotated its key since we cached it
+        String rotatedKey = registryKeyCache.revalidate(subscriberId, uniqueKeyId, publicKey);
+        if (rotatedKey != null && ed25519Service.verifyAuthorization(authorization, body, rotatedKey)) {
+            return null;
+        }
+        return "Signature verification failed";
     }
 
     /**
-     * Send an error response for unauthorized requests.
+     * Send a NACK for unauthorized requests, advertising the expected signature scheme.
      */
     private void sendUnauthorized(HttpServletResponse response, String message) throws IOException {
-        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setHeader("WWW-Authenticate",
+                "Signature realm=\"ondc\",headers=\"(created) (expires) digest\"");
+        sendNack(response, HttpServletResponse.SC_UNAUTHORIZED, message);
+    }
+
+    private void rejectTooLarge(HttpServletResponse response, String requestUri, int maxBodyBytes)
+            throws IOException {
+        log.warn("Rejected ONDC request to {}: body over {} bytes", requestUri, maxBodyBytes);
+        sendNack(response, HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                "Request body exceeds " + maxBodyBytes + " bytes");
+    }
+
+    private void sendNack(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
         response.setContentType("application/json");
         response.getWriter().write(objectMapper.writeValueAsString(
-                Map.of("error", Map.of("type", "AUTH-ERROR", "code", "401", "message", message))
+                BecknResponse.nack(null, new BecknError("POLICY-ERROR", String.valueOf(status), message))
         ));
     }
 }
@@ -0,0 +1,52 @@
+package com.quickcatalog.ondc.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Entity
+@Table(name = "ondc_callback_dead_letter")
+public class OndcCallbackDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "tenant_id")
+    private UUID tenantId;
+
+    @Column(name = "subscriber_id")
+    private UUID subscriberId;
+
+    @Column(name = "action")
+    private String action;
+
+    @Column(name = "callback_url")
+    private String callbackUrl;
+
+    @Column(name = "transaction_id")
+    private String transactionId;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "request_body", columnDefinition = "jsonb")
+    private String requestBody;
+
+    @Column(name = "attempts")
+    private int attempts;
+
+    @Column(name = "last_http_status")
+    private Integer lastHttpStatus;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
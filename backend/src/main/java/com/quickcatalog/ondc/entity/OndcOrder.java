@@ -43,6 +43,9 @@ public class OndcOrder {
     @Column(name = "domain", length = 20)
     private String domain;
 
+    @Column(name = "city", length = 50)
+    private String city;
+
     @Enumerated(EnumType.STRING)
     @JdbcTypeCode(SqlTypes.NAMED_ENUM)
     @Column(name = "state", nullable = false, columnDefinition = "ondc_order_state")
@@ -56,6 +56,9 @@ public class OndcOrderItem {
     @Column(name = "return_reason", length = 500)
     private String returnReason;
 
+    @Column(name = "return_quantity")
+    private Integer returnQuantity;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,8 @@
+package com.quickcatalog.ondc.entity.enums;
+
+public enum ReservationStatus {
+    HELD,
+    COMMITTED,
+    RELEASED,
+    EXPIRED
+}
@@ -0,0 +1,15 @@
+package com.quickcatalog.ondc.event;
+
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * Published when an ONDC order is cancelled because the seller did not accept it
+ * before its stock reservation expired.
+ */
+@Data
+public class OndcOrderExpiredEvent {
+    private final UUID tenantId;
+    private final String becknOrderId;
+}
@@ -0,0 +1,13 @@
+package com.quickcatalog.ondc.event;
+
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * Published when an ONDC provider of a tenant is created, updated or deleted.
+ */
+@Data
+public class OndcProviderChangedEvent {
+    private final UUID tenantId;
+}
@@ -0,0 +1,13 @@
+package com.quickcatalog.ondc.event;
+
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * Published when a tenant's ONDC subscriber (identity, keys or registration status) changes.
+ */
+@Data
+public class OndcSubscriberChangedEvent {
+    private final UUID tenantId;
+}
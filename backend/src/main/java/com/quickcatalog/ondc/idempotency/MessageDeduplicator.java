@@ -0,0 +1,116 @@
+package com.quickcatalog.ondc.idempotency;
+
+import com.quickcatalog.ondc.beckn.model.BecknContext;
+import com.quickcatalog.ondc.config.OndcProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Suppresses reprocessing of retried Beckn messages. A message is identified by
+ * (bap_id, message_id, action); the first receipt of a key is recorded in
+ * ondc_message_receipt with an insert that only one node can win, and any later
+ * receipt is a duplicate. Keys claimed by this node are also kept in a bounded LRU
+ * so retry storms are answered from memory. If the store is unreachable messages are
+ * processed rather than dropped. A message whose processing finally fails is
+ * {@link #forget forgotten}, so the buyer app's next resend of it is processed.
+ */
+@Slf4j
+@Component
+public class MessageDeduplicator {
+
+    private static final String CLAIM_SQL =
+            "INSERT INTO ondc_message_receipt (bap_id, message_id, action, transaction_id) " +
+            "VALUES (?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private static final String FORGET_SQL =
+            "DELETE FROM ondc_message_receipt WHERE bap_id = ? AND message_id = ? AND action = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OndcProperties ondcProperties;
+    private final Map<String, Long> recentKeys;
+
+    public MessageDeduplicator(JdbcTemplate jdbcTemplate, OndcProperties ondcProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ondcProperties = ondcProperties;
+        int capacity = ondcProperties.getIdempotency().getRecentKeys();
+        this.recentKeys = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    /**
+     * Record the message as received.
+     *
+     * @return true if it should be processed, false if it was already received
+     */
+    public boolean claim(BecknContext context, String action) {
+        if (!ondcProperties.getIdempotency().isEnabled() || context.getMessageId() == null) {
+            return true;
+        }
+        String bapId = bapId(context);
+        String key = key(context, action);
+        long now = System.currentTimeMillis();
+        Long seenAt = recentKeys.get(key);
+        if (seenAt != null && now - seenAt < ondcProperties.getIdempotency().getRetentionHours() * 3_600_000L) {
+            return false;
+        }
+
+        boolean first;
+        try {
+            first = jdbcTemplate.update(CLAIM_SQL, bapId, context.getMessageId(), action,
+                    context.getTransactionId()) > 0;
+        } catch (Exception e) {
+            log.warn("Could not record receipt of {} message {}: {}", action, context.getMessageId(), e.getMessage());
+            return true;
+        }
+        if (first) {
+            recentKeys.put(key, now);
+        }
+        return first;
+    }
+
+    /**
+     * Drop the receipt of a message that could not be processed, so it is accepted again.
+     */
+    public void forget(BecknContext context, String action) {
+        if (!ondcProperties.getIdempotency().isEnabled() || context.getMessageId() == null) {
+            return;
+        }
+        recentKeys.remove(key(context, action));
+        try {
+            jdbcTemplate.update(FORGET_SQL, bapId(context), context.getMessageId(), action);
+        } catch (Exception e) {
+            log.warn("Could not drop receipt of {} message {}: {}", action, context.getMessageId(), e.getMessage());
+        }
+    }
+
+    private static String bapId(BecknContext context) {
+        return context.getBapId() != null ? context.getBapId() : "";
+    }
+
+    private static String key(BecknContext context, String action) {
+        return bapId(context) + "|" + context.getMessageId() + "|" + action;
+    }
+
+    @Scheduled(fixedDelayString = "${ondc.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        if (!ondcProperties.getIdempotency().isEnabled()) {
+            return;
+        }
+        int purged = jdbcTemplate.update(
+                "DELETE FROM ondc_message_receipt WHERE received_at < NOW() - ? * INTERVAL '1 hour'",
+                ondcProperties.getIdempotency().getRetentionHours());
+        if (purged > 0) {
+            log.debug("Purged {} Beckn message receipts", purged);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.quickcatalog.ondc.inventory;
+
+import java.util.List;
+
+/**
+ * Thrown when a reservation cannot be satisfied; nothing is reserved.
+ */
+public class InsufficientStockException extends RuntimeException {
+
+    private final List<StockLine> shortfalls;
+
+    public InsufficientStockException(List<StockLine> shortfalls) {
+        super("Insufficient stock for " + shortfalls.size() + " item(s)");
+        this.shortfalls = shortfalls;
+    }
+
+    public List<StockLine> getShortfalls() {
+        return shortfalls;
+    }
+}
@@ -0,0 +1,35 @@
+package com.quickcatalog.ondc.inventory;
+
+import com.quickcatalog.ondc.config.OndcProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically resolves stock reservations whose hold has timed out.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReservationExpiryJob {
+
+    private final StockReservationService reservationService;
+    private final OndcProperties ondcProperties;
+
+    @Scheduled(fixedDelayString = "${ondc.inventory.expiry-poll-interval-ms:60000}")
+    public void expireReservations() {
+        int batchSize = ondcProperties.getInventory().getExpiryBatchSize();
+        try {
+            int resolved;
+            do {
+                resolved = reservationService.expireDue(batchSize);
+                if (resolved > 0) {
+                    log.info("Resolved {} expired stock reservation(s)", resolved);
+                }
+            } while (resolved == batchSize);
+        } catch (Exception e) {
+            log.error("Stock reservation expiry failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.quickcatalog.ondc.inventory;
+
+import com.quickcatalog.event.ProductChangedEvent;
+import com.quickcatalog.ondc.config.OndcProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Orderable quantities per product and variant, as advertised in the catalog and
+ * checked at /select. Entries are loaded in batches when a catalog is built and
+ * reloaded per product on {@link ProductChangedEvent}, which every stock write
+ * (edits, reservations, releases, returns) publishes, so reads never hit the database
+ * per item. Stock is read from the per-SKU inventory_balance rows kept by
+ * {@link com.quickcatalog.service.InventoryLedgerService}, which are already net of held
+ * reservations; the count is additionally capped by the product's ONDC max order quantity.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockAvailabilityCache {
+
+    /** Maximum number of product IDs per IN clause when loading entries. */
+    private static final int LOAD_BATCH_SIZE = 500;
+
+    // Stock comes from the ledger balances; a SKU without a balance row has never had stock set
+    private static final String LOAD_SQL =
+            "SELECT p.id, p.track_inventory, COALESCE(pb.available, p.current_stock) AS current_stock, " +
+            "c.max_order_quantity, v.id AS variant_id, COALESCE(vb.available, v.current_stock) AS variant_stock, " +
+            "v.is_active AS variant_active " +
+            "FROM product p " +
+            "LEFT JOIN inventory_balance pb ON pb.product_id = p.id AND pb.variant_id IS NULL " +
+            "LEFT JOIN ondc_product_config c ON c.product_id = p.id " +
+            "LEFT JOIN product_variant v ON v.product_id = p.id " +
+            "LEFT JOIN inventory_balance vb ON vb.product_id = p.id AND vb.variant_id = v.id " +
+            "WHERE p.id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OndcProperties ondcProperties;
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    /** Products changed while each running load read the database; their rows may predate the change. */
+    private final Set<Set<UUID>> loadsInProgress = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Units of a product to advertise as available.
+     */
+    public int getAvailable(UUID productId) {
+        return getAvailable(productId, null);
+    }
+
+    /**
+     * Units of a product, or of one of its variants, to advertise as available; 0 for
+     * unknown or inactive variants.
+     */
+    public int getAvailable(UUID productId, UUID variantId) {
+        return count(productId, variantId, ondcProperties.getInventory().getUntrackedAvailableCount());
+    }
+
+    /**
+     * Units a single order may take. Unlike {@link #getAvailable}, products that do not
+     * track inventory are only limited by their max order quantity.
+     */
+    public int getOrderable(UUID productId, UUID variantId) {
+        return count(productId, variantId, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Load entries for products not yet cached, a chunk of IDs per query. Called before
+     * mapping a whole catalog so each item is a map lookup.
+     */
+    public void preload(Collection<UUID> productIds) {
+        List<UUID> missing = productIds.stream().filter(id -> !entries.containsKey(id)).distinct().toList();
+        for (int i = 0; i < missing.size(); i += LOAD_BATCH_SIZE) {
+            load(missing.subList(i, Math.min(i + LOAD_BATCH_SIZE, missing.size())));
+        }
+    }
+
+    /**
+     * Runs ahead of other product listeners so catalog snapshots patched for the same
+     * event already see the new stock.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        // Loads already running must not overwrite the reload below with what they read
+        synchronized (loadsInProgress) {
+            for (Set<UUID> changed : loadsInProgress) {
+                changed.add(event.getProductId());
+            }
+        }
+        try {
+            if (load(List.of(event.getProductId())).isEmpty()) {
+                entries.remove(event.getProductId());
+            }
+        } catch (Exception e) {
+            log.warn("Failed to reload stock for product {}: {}", event.getProductId(), e.getMessage());
+            entries.remove(event.getProductId());
+        }
+    }
+
+    private int count(UUID productId, UUID variantId, int untrackedCount) {
+        Entry entry = entry(productId);
+        if (entry == null) {
+            return 0;
+        }
+        if (variantId == null) {
+            return entry.available(entry.productStock, untrackedCount);
+        }
+        BigDecimal variantStock = entry.variantStock.get(variantId);
+        return variantStock != null ? entry.available(variantStock, untrackedCount) : 0;
+    }
+
+    private Entry entry(UUID productId) {
+        Entry entry = entries.get(productId);
+        if (entry == null) {
+            entry = load(List.of(productId)).get(productId);
+        }
+        return entry;
+    }
+
+    /**
+     * Read entries for the products and cache them, except for products changed while
+     * the query ran: their newer entries come from the change's own reload.
+     */
+    private Map<UUID, Entry> load(List<UUID> productIds) {
+        Map<UUID, Entry> loaded = new HashMap<>();
+        Set<UUID> changed = ConcurrentHashMap.newKeySet();
+        loadsInProgress.add(changed);
+        try {
+            query(productIds, loaded);
+            loaded.values().forEach(Entry::seal);
+            // Under the marking lock, so a change lands either before the check or after the write
+            synchronized (loadsInProgress) {
+                loaded.forEach((productId, entry) -> {
+                    if (!changed.contains(productId)) {
+                        entries.put(productId, entry);
+                    }
+                });
+            }
+        } finally {
+            loadsInProgress.remove(changed);
+        }
+        return loaded;
+    }
+
+    private void query(List<UUID> productIds, Map<UUID, Entry> loaded) {
+        String placeholders = String.join(",", Collections.nCopies(productIds.size(), "?"));
+        jdbcTemplate.query(String.format(LOAD_SQL, placeholders), rs -> {
+            UUID productId = rs.getObject("id", UUID.class);
+            Entry entry = loaded.get(productId);
+            if (entry == null) {
+                int maxOrder = rs.getInt("max_order_quantity");
+                Integer maxOrderQuantity = rs.wasNull() || maxOrder <= 0 ? null : maxOrder;
+                entry = new Entry(rs.getBoolean("track_inventory"), rs.getBigDecimal("current_stock"),
+                        maxOrderQuantity);
+                loaded.put(productId, entry);
+            }
+            UUID variantId = rs.getObject("variant_id", UUID.class);
+            if (variantId != null && rs.getBoolean("variant_active")) {
+                BigDecimal variantStock = rs.getBigDecimal("variant_stock");
+                entry.variantStock.put(variantId, variantStock != null ? variantStock : BigDecimal.ZERO);
+            }
+        }, productIds.toArray());
+    }
+
+    private static class Entry {
+        private final boolean tracked;
+        private final Integer maxOrderQuantity;
+        private final Map<UUID, BigDecimal> variantStock = new HashMap<>();
+        private BigDecimal productStock;
+
+        Entry(boolean tracked, BigDecimal productStock, Integer maxOrderQuantity) {
+            this.tracked = tracked;
+            this.productStock = productStock;
+            this.maxOrderQuantity = maxOrderQuantity;
+        }
+
+        /**
+         * A product that only stocks its variants is available as their sum.
+         */
+        void seal() {
+            if (productStock == null && !variantStock.isEmpty()) {
+                productStock = variantStock.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+            }
+        }
+
+        int available(BigDecimal stock, int untrackedCount) {
+            int count;
+            if (!tracked) {
+                count = untrackedCount;
+            } else if (stock == null || stock.signum() <= 0) {
+                count = 0;
+            } else {
+                count = stock.setScale(0, RoundingMode.FLOOR).min(BigDecimal.valueOf(Integer.MAX_VALUE)).intValue();
+            }
+            return maxOrderQuantity != null ? Math.min(count, maxOrderQuantity) : count;
+        }
+    }
+}
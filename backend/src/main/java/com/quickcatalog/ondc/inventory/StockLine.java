@@ -0,0 +1,17 @@
+package com.quickcatalog.ondc.inventory;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * A quantity of one product, or of one variant of it, to reserve or give back.
+ */
+@Data
+public class StockLine {
+    private final UUID productId;
+    /** Null when stock is kept on the product itself. */
+    private final UUID variantId;
+    private final BigDecimal quantity;
+}
@@ -0,0 +1,352 @@
+package com.quickcatalog.ondc.inventory;
+
+import com.quickcatalog.entity.InventoryMovement;
+import com.quickcatalog.entity.enums.InventoryMovementType;
+import com.quickcatalog.event.ProductChangedEvent;
+import com.quickcatalog.ondc.config.OndcProperties;
+import com.quickcatalog.ondc.entity.InventoryReservation;
+import com.quickcatalog.ondc.entity.enums.OndcOrderState;
+import com.quickcatalog.ondc.entity.enums.ReservationStatus;
+import com.quickcatalog.ondc.event.OndcOrderExpiredEvent;
+import com.quickcatalog.ondc.repository.InventoryReservationRepository;
+import com.quickcatalog.service.InventoryLedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Reserves stock for ONDC orders without read-modify-write races. All lines of an
+ * order are decremented in one JDBC batch of conditional updates
+ * ({@code current_stock >= qty}) inside one transaction, in a fixed lock order; if any
+ * line is short the whole reservation rolls back. Each reserved line is recorded in
+ * the reservation ledger as HELD until the seller accepts the order (COMMITTED), the
+ * order is cancelled (RELEASED) or the hold times out (EXPIRED). Every stock change is
+ * also appended to the inventory ledger.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockReservationService {
+
+    private static final String DECREMENT_PRODUCT_SQL =
+            "UPDATE product SET current_stock = current_stock - ? " +
+            "WHERE id = ? AND tenant_id = ? AND current_stock >= ?";
+    private static final String DECREMENT_VARIANT_SQL =
+            "UPDATE product_variant SET current_stock = current_stock - ? " +
+            "WHERE id = ? AND product_id = ? AND current_stock >= ?";
+    private static final String INCREMENT_PRODUCT_SQL =
+            "UPDATE product SET current_stock = current_stock + ? WHERE id = ? AND tenant_id = ?";
+    private static final String INCREMENT_VARIANT_SQL =
+            "UPDATE product_variant SET current_stock = current_stock + ? WHERE id = ? AND product_id = ?";
+
+    /** ONDC cancellation reason code 005: merchant rejected the order. */
+    public static final String EXPIRED_CANCELLATION_REASON = "005";
+
+    // Order state moves are conditional on CREATED, so accepting and expiring an order cannot both win
+    private static final String ACCEPT_ORDER_SQL =
+            "UPDATE ondc_order SET state = 'ACCEPTED' WHERE id = ? AND tenant_id = ? AND state = 'CREATED'";
+    private static final String CANCEL_UNACCEPTED_ORDER_SQL =
+            "UPDATE ondc_order SET state = 'CANCELLED', cancellation_reason = ?, cancelled_by = 'SELLER' " +
+            "WHERE beckn_order_id = ? AND tenant_id = ? AND state = 'CREATED'";
+    private static final String CANCEL_ORDER_SQL =
+            "UPDATE ondc_order SET state = 'CANCELLED', cancellation_reason = ?, cancelled_by = ? " +
+            "WHERE id = ? AND tenant_id = ? AND state IN ('CREATED', 'ACCEPTED')";
+    private static final String ORDER_STATE_SQL =
+            "SELECT CAST(state AS text) FROM ondc_order WHERE beckn_order_id = ? AND tenant_id = ?";
+
+    private static final Comparator<StockLine> LOCK_ORDER = Comparator
+            .comparing(StockLine::getProductId)
+            .thenComparing(StockLine::getVariantId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final InventoryReservationRepository reservationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final OndcProperties ondcProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryLedgerService ledgerService;
+
+    /**
+     * Atomically take stock for every line of an order. Lines for the same product or
+     * variant are merged first.
+     *
+     * @throws InsufficientStockException if any line cannot be covered; nothing is reserved
+     */
+    @Transactional
+    public List<InventoryReservation> reserve(UUID tenantId, String becknOrderId, String transactionId,
+                                              List<StockLine> lines) {
+        List<StockLine> merged = merge(lines);
+        if (merged.isEmpty()) {
+            return List.of();
+        }
+
+        List<StockLine> shortfalls = new ArrayList<>();
+        shortfalls.addAll(apply(DECREMENT_PRODUCT_SQL, productLines(merged), tenantId, true));
+        shortfalls.addAll(apply(DECREMENT_VARIANT_SQL, variantLines(merged), tenantId, true));
+        if (!shortfalls.isEmpty()) {
+            // Rolls back the decrements that did succeed
+            throw new InsufficientStockException(shortfalls);
+        }
+
+        LocalDateTime expiresAt = LocalDateTime.now()
+                .plusMinutes(ondcProperties.getInventory().getReservationTtlMinutes());
+        List<InventoryReservation> reservations = new ArrayList<>(merged.size());
+        for (StockLine line : merged) {
+            InventoryReservation reservation = new InventoryReservation();
+            reservation.setTenantId(tenantId);
+            reservation.setBecknOrderId(becknOrderId);
+            reservation.setTransactionId(transactionId);
+            reservation.setProductId(line.getProductId());
+            reservation.setVariantId(line.getVariantId());
+            reservation.setQuantity(line.getQuantity());
+            reservation.setExpiresAt(expiresAt);
+            reservations.add(reservation);
+        }
+        ledgerService.record(movements(tenantId, merged, InventoryMovementType.RESERVE, becknOrderId));
+        publishChanges(tenantId, merged);
+        log.info("Reserved stock for order {}: {} line(s)", becknOrderId, merged.size());
+        return reservationRepository.saveAll(reservations);
+    }
+
+    /**
+     * The seller accepts an order still in CREATED, and its held stock is sold, in one
+     * transaction. The holds are locked before the order row, in the same order as
+     * {@link #expireDue}, so the two serialize instead of deadlocking.
+     *
+     * @return false if the order was no longer CREATED; nothing is changed then
+     */
+    @Transactional
+    public boolean accept(UUID tenantId, UUID orderId, String becknOrderId) {
+        List<InventoryReservation> held = reservationRepository.findByTenantIdAndBecknOrderIdAndStatusIn(
+                tenantId, becknOrderId, List.of(ReservationStatus.HELD));
+        if (jdbcTemplate.update(ACCEPT_ORDER_SQL, orderId, tenantId) == 0) {
+            return false;
+        }
+        sell(held);
+        return true;
+    }
+
+    /**
+     * The order progressed past CREATED: its held stock is now sold.
+     */
+    @Transactional
+    public void commit(UUID tenantId, String becknOrderId) {
+        sell(reservationRepository.findByTenantIdAndBecknOrderIdAndStatusIn(
+                tenantId, becknOrderId, List.of(ReservationStatus.HELD)));
+    }
+
+    private void sell(List<InventoryReservation> held) {
+        held.forEach(reservation -> reservation.setStatus(ReservationStatus.COMMITTED));
+        ledgerService.record(reservationMovements(held, InventoryMovementType.SALE));
+    }
+
+    /**
+     * Cancel an order the buyer app asked to cancel and give its stock back in the same
+     * transaction, so a failed restock leaves the order open for the retry.
+     *
+     * @return false if the order was no longer CREATED or ACCEPTED; nothing changes
+     */
+    @Transactional
+    public boolean cancel(UUID tenantId, UUID orderId, String becknOrderId, String reasonId, String cancelledBy) {
+        // Lock the reservations before the order row, in the same order as accept and expiry
+        reservationRepository.findByTenantIdAndBecknOrderIdAndStatusIn(
+                tenantId, becknOrderId, List.of(ReservationStatus.HELD, ReservationStatus.COMMITTED));
+        if (jdbcTemplate.update(CANCEL_ORDER_SQL, reasonId, cancelledBy, orderId, tenantId) == 0) {
+            return false;
+        }
+        release(tenantId, becknOrderId);
+        return true;
+    }
+
+    /**
+     * The order was cancelled: give its reserved stock back. Held stock is released,
+     * stock already sold comes back as a return.
+     */
+    @Transactional
+    public void release(UUID tenantId, String becknOrderId) {
+        List<InventoryReservation> reservations = reservationRepository.findByTenantIdAndBecknOrderIdAndStatusIn(
+                tenantId, becknOrderId, List.of(ReservationStatus.HELD, ReservationStatus.COMMITTED));
+        List<InventoryMovement> movements = new ArrayList<>(reservations.size());
+        for (InventoryReservation reservation : reservations) {
+            movements.add(reservationMovement(reservation, reservation.getStatus() == ReservationStatus.HELD
+                    ? InventoryMovementType.RELEASE : InventoryMovementType.RETURN));
+        }
+        restock(tenantId, reservations, ReservationStatus.RELEASED);
+        ledgerService.record(movements);
+        if (!reservations.isEmpty()) {
+            log.info("Released stock for order {}: {} line(s)", becknOrderId, reservations.size());
+        }
+    }
+
+    /**
+     * Put returned units of a sold order back into stock. Each line is capped at what
+     * the order's committed reservation still covers, and that reservation shrinks by
+     * the returned amount so a later cancellation cannot restock the same units twice.
+     */
+    @Transactional
+    public void returnItems(UUID tenantId, String becknOrderId, List<StockLine> lines) {
+        List<InventoryReservation> sold = reservationRepository.findByTenantIdAndBecknOrderIdAndStatusIn(
+                tenantId, becknOrderId, List.of(ReservationStatus.COMMITTED));
+        List<StockLine> returned = new ArrayList<>();
+        for (StockLine line : merge(lines)) {
+            for (InventoryReservation reservation : sold) {
+                if (!reservation.getProductId().equals(line.getProductId())
+                        || !Objects.equals(reservation.getVariantId(), line.getVariantId())) {
+                    continue;
+                }
+                BigDecimal quantity = line.getQuantity().min(reservation.getQuantity());
+                if (quantity.compareTo(reservation.getQuantity()) == 0) {
+                    reservation.setStatus(ReservationStatus.RELEASED);
+                } else {
+                    reservation.setQuantity(reservation.getQuantity().subtract(quantity));
+                }
+                returned.add(new StockLine(line.getProductId(), line.getVariantId(), quantity));
+                break;
+            }
+        }
+        if (returned.isEmpty()) {
+            return;
+        }
+        apply(INCREMENT_PRODUCT_SQL, productLines(returned), tenantId, false);
+        apply(INCREMENT_VARIANT_SQL, variantLines(returned), tenantId, false);
+        ledgerService.record(movements(tenantId, returned, InventoryMovementType.RETURN, becknOrderId));
+        publishChanges(tenantId, returned);
+        log.info("Restocked returned items for order {}: {} line(s)", becknOrderId, returned.size());
+    }
+
+    /**
+     * Resolve held reservations past their TTL. Stock is given back unless the order
+     * has meanwhile progressed past CREATED, in which case the hold is committed; an
+     * order still waiting for the seller is cancelled along with its hold, and an
+     * {@link OndcOrderExpiredEvent} is published so the buyer app is told.
+     *
+     * @return number of reservations resolved
+     */
+    @Transactional
+    public int expireDue(int limit) {
+        List<InventoryReservation> expired = reservationRepository.findExpiredForUpdate(limit);
+        Map<String, List<InventoryReservation>> byOrder = new LinkedHashMap<>();
+        for (InventoryReservation reservation : expired) {
+            byOrder.computeIfAbsent(reservation.getTenantId() + "|" + reservation.getBecknOrderId(),
+                    key -> new ArrayList<>()).add(reservation);
+        }
+
+        for (List<InventoryReservation> reservations : byOrder.values()) {
+            UUID tenantId = reservations.get(0).getTenantId();
+            String becknOrderId = reservations.get(0).getBecknOrderId();
+
+            if (jdbcTemplate.update(CANCEL_UNACCEPTED_ORDER_SQL,
+                    EXPIRED_CANCELLATION_REASON, becknOrderId, tenantId) > 0) {
+                log.warn("Cancelled ONDC order {}: not accepted within the reservation TTL", becknOrderId);
+                eventPublisher.publishEvent(new OndcOrderExpiredEvent(tenantId, becknOrderId));
+            } else {
+                List<String> state = jdbcTemplate.queryForList(ORDER_STATE_SQL, String.class, becknOrderId, tenantId);
+                if (!state.isEmpty() && !OndcOrderState.CANCELLED.name().equals(state.get(0))) {
+                    sell(reservations);
+                    continue;
+                }
+            }
+            ledgerService.record(reservationMovements(reservations, InventoryMovementType.RELEASE));
+            restock(tenantId, reservations, ReservationStatus.EXPIRED);
+        }
+        return expired.size();
+    }
+
+    private void restock(UUID tenantId, List<InventoryReservation> reservations, ReservationStatus status) {
+        if (reservations.isEmpty()) {
+            return;
+        }
+        List<StockLine> lines = new ArrayList<>(reservations.size());
+        for (InventoryReservation reservation : reservations) {
+            lines.add(new StockLine(reservation.getProductId(), reservation.getVariantId(), reservation.getQuantity()));
+            reservation.setStatus(status);
+        }
+        List<StockLine> merged = merge(lines);
+        apply(INCREMENT_PRODUCT_SQL, productLines(merged), tenantId, false);
+        apply(INCREMENT_VARIANT_SQL, variantLines(merged), tenantId, false);
+        publishChanges(tenantId, merged);
+    }
+
+    /**
+     * Run one statement per line as a single JDBC batch.
+     *
+     * @return the lines whose update matched no row
+     */
+    private List<StockLine> apply(String sql, List<StockLine> lines, UUID tenantId, boolean conditional) {
+        if (lines.isEmpty()) {
+            return List.of();
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(sql, lines, lines.size(), (ps, line) -> {
+            ps.setBigDecimal(1, line.getQuantity());
+            if (line.getVariantId() != null) {
+                ps.setObject(2, line.getVariantId());
+                ps.setObject(3, line.getProductId());
+            } else {
+                ps.setObject(2, line.getProductId());
+                ps.setObject(3, tenantId);
+            }
+            if (conditional) {
+                ps.setBigDecimal(4, line.getQuantity());
+            }
+        });
+        List<StockLine> unmatched = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (counts[0][i] == 0) {
+                unmatched.add(lines.get(i));
+            }
+        }
+        return unmatched;
+    }
+
+    private static List<InventoryMovement> movements(UUID tenantId, List<StockLine> lines,
+                                                     InventoryMovementType type, String becknOrderId) {
+        return lines.stream()
+                .map(line -> InventoryLedgerService.movement(tenantId, line.getProductId(), line.getVariantId(),
+                        type, line.getQuantity(), becknOrderId))
+                .toList();
+    }
+
+    private static List<InventoryMovement> reservationMovements(List<InventoryReservation> reservations,
+                                                                InventoryMovementType type) {
+        return reservations.stream().map(reservation -> reservationMovement(reservation, type)).toList();
+    }
+
+    private static InventoryMovement reservationMovement(InventoryReservation reservation, InventoryMovementType type) {
+        return InventoryLedgerService.movement(reservation.getTenantId(), reservation.getProductId(),
+                reservation.getVariantId(), type, reservation.getQuantity(), reservation.getBecknOrderId());
+    }
+
+    private void publishChanges(UUID tenantId, List<StockLine> lines) {
+        lines.stream().map(StockLine::getProductId).distinct()
+                .forEach(productId -> eventPublisher.publishEvent(new ProductChangedEvent(tenantId, productId, true)));
+    }
+
+    /**
+     * Sum quantities per product/variant and sort into a fixed lock order, so
+     * concurrent reservations touching the same rows cannot deadlock.
+     */
+    private static List<StockLine> merge(List<StockLine> lines) {
+        Map<List<UUID>, BigDecimal> totals = new HashMap<>();
+        for (StockLine line : lines) {
+            if (line.getQuantity() == null || line.getQuantity().signum() <= 0) continue;
+            totals.merge(Arrays.asList(line.getProductId(), line.getVariantId()), line.getQuantity(), BigDecimal::add);
+        }
+        List<StockLine> merged = new ArrayList<>(totals.size());
+        totals.forEach((key, quantity) -> merged.add(new StockLine(key.get(0), key.get(1), quantity)));
+        merged.sort(LOCK_ORDER);
+        return merged;
+    }
+
+    private static List<StockLine> productLines(List<StockLine> lines) {
+        return lines.stream().filter(line -> line.getVariantId() == null).toList();
+    }
+
+    private static List<StockLine> variantLines(List<StockLine> lines) {
+        return lines.stream().filter(line -> line.getVariantId() != null).toList();
+    }
+}
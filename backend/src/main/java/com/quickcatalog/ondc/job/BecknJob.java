@@ -0,0 +1,19 @@
+package com.quickcatalog.ondc.job;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * A job claimed from the queue.
+ */
+@Data
+@AllArgsConstructor
+public class BecknJob {
+    private UUID id;
+    private String action;
+    private byte[] requestBody;
+    /** Attempts including the current one. */
+    private int attempts;
+}
@@ -0,0 +1,28 @@
+package com.quickcatalog.ondc.job;
+
+import java.util.Set;
+
+/**
+ * Priority lanes of the Beckn job queue. Each lane has its own workers, so a burst
+ * in one lane (typically search) cannot delay the others.
+ */
+public enum BecknJobLane {
+    ORDER(Set.of("confirm", "cancel", "update", "status")),
+    TRANSACTION(Set.of("select", "init")),
+    SEARCH(Set.of("search"));
+
+    private final Set<String> actions;
+
+    BecknJobLane(Set<String> actions) {
+        this.actions = actions;
+    }
+
+    public static BecknJobLane forAction(String action) {
+        for (BecknJobLane lane : values()) {
+            if (lane.actions.contains(action)) {
+                return lane;
+            }
+        }
+        throw new IllegalArgumentException("No job lane for action: " + action);
+    }
+}
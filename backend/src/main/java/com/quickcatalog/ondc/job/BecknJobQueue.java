@@ -0,0 +1,283 @@
+package com.quickcatalog.ondc.job;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.quickcatalog.ondc.beckn.model.BecknRequest;
+import com.quickcatalog.ondc.beckn.service.*;
+import com.quickcatalog.ondc.config.OndcProperties;
+import com.quickcatalog.ondc.idempotency.MessageDeduplicator;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Processes incoming Beckn requests from the durable ondc_beckn_job queue. Each
+ * {@link BecknJobLane} has its own pool of workers, sized per lane, that claim jobs
+ * with SKIP LOCKED, so order actions are never queued behind search traffic and
+ * several nodes can share the queue. A job is deleted once processed; if its worker
+ * fails it is retried after a delay, and if the node stops mid-job it becomes visible
+ * again after the visibility timeout; while a job runs, its worker keeps renewing that
+ * lease, and the outcome is recorded only if the worker still holds it. Jobs out of attempts are kept as FAILED, and the
+ * receipt of their message is dropped so a resend from the buyer app is processed.
+ * <p>
+ * With {@code ondc.job.enabled=false}, or when a job cannot be stored, the request is
+ * processed in memory on the callback executor instead.
+ */
+@Slf4j
+@Component
+public class BecknJobQueue {
+
+    private final BecknJobStore jobStore;
+    private final BecknRequestReader requestReader;
+    private final SearchProcessingService searchProcessingService;
+    private final SelectProcessingService selectProcessingService;
+    private final InitProcessingService initProcessingService;
+    private final ConfirmProcessingService confirmProcessingService;
+    private final StatusProcessingService statusProcessingService;
+    private final UpdateProcessingService updateProcessingService;
+    private final CancelProcessingService cancelProcessingService;
+    private final MessageDeduplicator messageDeduplicator;
+    private final OndcProperties ondcProperties;
+    private final Executor callbackExecutor;
+
+    private final String nodeId = abbreviate(ManagementFactory.getRuntimeMXBean().getName(), 60);
+    /** Running jobs and the lease each was claimed under. */
+    private final Map<UUID, String> leases = new ConcurrentHashMap<>();
+    private final Map<BecknJobLane, Semaphore> wakeups = new EnumMap<>(BecknJobLane.class);
+    private final Map<BecknJobLane, ThreadPoolTaskExecutor> workers = new EnumMap<>(BecknJobLane.class);
+    private volatile boolean running;
+
+    public BecknJobQueue(BecknJobStore jobStore,
+                         BecknRequestReader requestReader,
+                         SearchProcessingService searchProcessingService,
+                         SelectProcessingService selectProcessingService,
+                         InitProcessingService initProcessingService,
+                         ConfirmProcessingService confirmProcessingService,
+                         StatusProcessingService statusProcessingService,
+                         UpdateProcessingService updateProcessingService,
+                         CancelProcessingService cancelProcessingService,
+                         MessageDeduplicator messageDeduplicator,
+                         OndcProperties ondcProperties,
+                         @Qualifier("ondcCallbackExecutor") Executor callbackExecutor) {
+        this.jobStore = jobStore;
+        this.requestReader = requestReader;
+        this.searchProcessingService = searchProcessingService;
+        this.selectProcessingService = selectProcessingService;
+        this.initProcessingService = initProcessingService;
+        this.confirmProcessingService = confirmProcessingService;
+        this.statusProcessingService = statusProcessingService;
+        this.updateProcessingService = updateProcessingService;
+        this.cancelProcessingService = cancelProcessingService;
+        this.messageDeduplicator = messageDeduplicator;
+        this.ondcProperties = ondcProperties;
+        this.callbackExecutor = callbackExecutor;
+        for (BecknJobLane lane : BecknJobLane.values()) {
+            wakeups.put(lane, new Semaphore(0));
+        }
+    }
+
+    /**
+     * Queue an incoming request for processing. Returns once the job is stored.
+     */
+    public void submit(String action, byte[] rawBody, BecknRequest<JsonNode> request) {
+        BecknJobLane lane = BecknJobLane.forAction(action);
+        if (!ondcProperties.getJob().isEnabled()) {
+            callbackExecutor.execute(() -> processInMemory(action, rawBody, request));
+            return;
+        }
+        try {
+            jobStore.enqueue(lane, action, request.getContext(), rawBody);
+        } catch (Exception e) {
+            log.error("Failed to queue /{} job, processing in memory: {}", action, e.getMessage());
+            callbackExecutor.execute(() -> processInMemory(action, rawBody, request));
+            return;
+        }
+        wakeups.get(lane).release();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        OndcProperties.JobConfig config = ondcProperties.getJob();
+        if (!config.isEnabled()) {
+            return;
+        }
+        running = true;
+        for (BecknJobLane lane : BecknJobLane.values()) {
+            int concurrency = concurrency(lane, config);
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(concurrency);
+            executor.setMaxPoolSize(concurrency);
+            executor.setQueueCapacity(0);
+            executor.setThreadNamePrefix("ondc-job-" + lane.name().toLowerCase() + "-");
+            executor.setWaitForTasksToCompleteOnShutdown(true);
+            executor.setAwaitTerminationSeconds(30);
+            executor.initialize();
+            for (int i = 0; i < concurrency; i++) {
+                executor.execute(() -> work(lane));
+            }
+            workers.put(lane, executor);
+        }
+        log.info("Beckn job queue started: {} order, {} transaction, {} search workers",
+                config.getOrderConcurrency(), config.getTransactionConcurrency(), config.getSearchConcurrency());
+    }
+
+    /**
+     * Stop claiming jobs and let the ones in progress finish.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        wakeups.values().forEach(wakeup -> wakeup.release(Integer.MAX_VALUE / 2));
+        workers.values().forEach(ThreadPoolTaskExecutor::shutdown);
+    }
+
+    /**
+     * Extend the leases of the jobs this node is running, so a slow job is not claimed
+     * and run a second time by another worker.
+     */
+    @Scheduled(fixedDelayString = "${ondc.job.lease-renewal-interval-ms:30000}")
+    public void renewLeases() {
+        long timeout = ondcProperties.getJob().getVisibilityTimeoutSeconds();
+        leases.forEach((jobId, workerId) -> {
+            try {
+                if (!jobStore.renew(jobId, workerId, timeout)) {
+                    log.warn("Lost the lease of job {}; another worker may run it again", jobId);
+                }
+            } catch (Exception e) {
+                log.warn("Failed to renew the lease of job {}: {}", jobId, e.getMessage());
+            }
+        });
+    }
+
+    private void work(BecknJobLane lane) {
+        OndcProperties.JobConfig config = ondcProperties.getJob();
+        Semaphore wakeup = wakeups.get(lane);
+        // One lease holder per worker thread, so two threads of this node never share a job
+        String workerId = nodeId + "/" + Thread.currentThread().getName();
+        while (running) {
+            BecknJob job;
+            try {
+                job = jobStore.claim(lane, workerId, config.getVisibilityTimeoutSeconds());
+            } catch (Exception e) {
+                log.warn("Failed to claim {} job: {}", lane, e.getMessage());
+                job = null;
+            }
+            if (job == null) {
+                try {
+                    wakeup.tryAcquire(config.getPollIntervalMs(), TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                continue;
+            }
+            leases.put(job.getId(), workerId);
+            try {
+                run(job, workerId, config);
+            } finally {
+                leases.remove(job.getId());
+            }
+        }
+    }
+
+    private void run(BecknJob job, String workerId, OndcProperties.JobConfig config) {
+        try {
+            if (job.getAttempts() > config.getMaxAttempts()) {
+                // Claimed again after its worker stopped on the last attempt
+                markFailed(job, workerId, "Abandoned after " + config.getMaxAttempts() + " attempts");
+                return;
+            }
+            try {
+                process(job.getAction(), job.getRequestBody(), requestReader.parse(job.getRequestBody()));
+            } catch (Exception e) {
+                // The processing service has logged the cause
+                log.error("/{} job {} failed (attempt {}): {}", job.getAction(), job.getId(), job.getAttempts(),
+                        e.getMessage());
+                if (job.getAttempts() < config.getMaxAttempts()) {
+                    if (!jobStore.retry(job.getId(), workerId, e.getMessage(), config.getRetryDelaySeconds())) {
+                        logLostLease(job);
+                    }
+                } else {
+                    markFailed(job, workerId, e.getMessage());
+                }
+                return;
+            }
+            if (!jobStore.complete(job.getId(), workerId)) {
+                logLostLease(job);
+            }
+        } catch (Exception e) {
+            // The job becomes visible again when its lease runs out
+            log.error("Failed to record outcome of /{} job {}: {}", job.getAction(), job.getId(), e.getMessage());
+        }
+    }
+
+    private void logLostLease(BecknJob job) {
+        log.warn("/{} job {} finished after its lease passed to another worker; outcome not recorded",
+                job.getAction(), job.getId());
+    }
+
+    private void markFailed(BecknJob job, String workerId, String error) {
+        if (!jobStore.markFailed(job.getId(), workerId, error)) {
+            logLostLease(job);
+            return;
+        }
+        try {
+            messageDeduplicator.forget(requestReader.parse(job.getRequestBody()).getContext(), job.getAction());
+        } catch (Exception e) {
+            log.warn("Could not drop message receipt of failed /{} job {}: {}", job.getAction(), job.getId(),
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Process without the queue; a failure is logged by the processing service and not
+     * retried here, but the message receipt is dropped so a resend is processed.
+     */
+    private void processInMemory(String action, byte[] rawBody, BecknRequest<JsonNode> request) {
+        try {
+            process(action, rawBody, request);
+        } catch (BecknProcessingException e) {
+            messageDeduplicator.forget(request.getContext(), action);
+            log.warn("/{} failed outside the job queue; a resend of message {} will be processed",
+                    action, request.getContext().getMessageId());
+        }
+    }
+
+    private void process(String action, byte[] rawBody, BecknRequest<JsonNode> request) {
+        switch (action) {
+            case "search" -> searchProcessingService.processSearch(rawBody, request);
+            case "select" -> selectProcessingService.processSelect(rawBody, request);
+            case "init" -> initProcessingService.processInit(rawBody, request);
+            case "confirm" -> confirmProcessingService.processConfirm(rawBody, request);
+            case "status" -> statusProcessingService.processStatus(rawBody, request);
+            case "update" -> updateProcessingService.processUpdate(rawBody, request);
+            case "cancel" -> cancelProcessingService.processCancel(rawBody, request);
+            default -> throw new IllegalArgumentException("Unknown job action: " + action);
+        }
+    }
+
+    private static String abbreviate(String value, int maxLength) {
+        return value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    private static int concurrency(BecknJobLane lane, OndcProperties.JobConfig config) {
+        return Math.max(1, switch (lane) {
+            case ORDER -> config.getOrderConcurrency();
+            case TRANSACTION -> config.getTransactionConcurrency();
+            case SEARCH -> config.getSearchConcurrency();
+        });
+    }
+}
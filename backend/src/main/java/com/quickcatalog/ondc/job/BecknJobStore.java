@@ -0,0 +1,93 @@
+package com.quickcatalog.ondc.job;
+
+import com.quickcatalog.ondc.beckn.model.BecknContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Persistence for the Beckn job queue. A job is claimed by pushing its available_at
+ * past the visibility timeout in the same statement that selects it, so a job held
+ * by a worker that dies becomes visible again once the timeout passes. The worker
+ * renews that lease while the job runs, and records the outcome only while it still
+ * holds the lease: a job whose lease was lost belongs to whichever worker claimed it next.
+ */
+@Component
+@RequiredArgsConstructor
+public class BecknJobStore {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO ondc_beckn_job (lane, action, transaction_id, message_id, request_body) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    private static final String CLAIM_SQL =
+            "UPDATE ondc_beckn_job SET attempts = attempts + 1, locked_by = ?, " +
+            "available_at = NOW() + ? * INTERVAL '1 second' " +
+            "WHERE id = (SELECT id FROM ondc_beckn_job " +
+            "WHERE lane = ? AND status = 'PENDING' AND available_at <= NOW() " +
+            "ORDER BY available_at LIMIT 1 FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, action, request_body, attempts";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void enqueue(BecknJobLane lane, String action, BecknContext context, byte[] requestBody) {
+        jdbcTemplate.update(INSERT_SQL, lane.name(), action, context.getTransactionId(),
+                context.getMessageId(), requestBody);
+    }
+
+    /**
+     * Claim the next visible job of the lane, or null if there is none.
+     */
+    public BecknJob claim(BecknJobLane lane, String workerId, long visibilityTimeoutSeconds) {
+        List<BecknJob> jobs = jdbcTemplate.query(CLAIM_SQL,
+                (rs, rowNum) -> new BecknJob(rs.getObject("id", UUID.class), rs.getString("action"),
+                        rs.getBytes("request_body"), rs.getInt("attempts")),
+                workerId, visibilityTimeoutSeconds, lane.name());
+        return jobs.isEmpty() ? null : jobs.get(0);
+    }
+
+    /**
+     * Push the visibility timeout of a running job further out.
+     *
+     * @return false if the worker no longer held the job's lease
+     */
+    public boolean renew(UUID jobId, String workerId, long visibilityTimeoutSeconds) {
+        return jdbcTemplate.update("UPDATE ondc_beckn_job SET available_at = NOW() + ? * INTERVAL '1 second' " +
+                "WHERE id = ? AND locked_by = ?", visibilityTimeoutSeconds, jobId, workerId) > 0;
+    }
+
+    /**
+     * @return false if the worker no longer held the job's lease
+     */
+    public boolean complete(UUID jobId, String workerId) {
+        return jdbcTemplate.update("DELETE FROM ondc_beckn_job WHERE id = ? AND locked_by = ?", jobId, workerId) > 0;
+    }
+
+    /**
+     * Make the job visible again after the delay.
+     *
+     * @return false if the worker no longer held the job's lease
+     */
+    public boolean retry(UUID jobId, String workerId, String error, long delaySeconds) {
+        return jdbcTemplate.update("UPDATE ondc_beckn_job SET locked_by = NULL, last_error = ?, " +
+                "available_at = NOW() + ? * INTERVAL '1 second' WHERE id = ? AND locked_by = ?",
+                truncate(error), delaySeconds, jobId, workerId) > 0;
+    }
+
+    /**
+     * @return false if the worker no longer held the job's lease
+     */
+    public boolean markFailed(UUID jobId, String workerId, String error) {
+        return jdbcTemplate.update("UPDATE ondc_beckn_job SET status = 'FAILED', locked_by = NULL, last_error = ? " +
+                "WHERE id = ? AND locked_by = ?", truncate(error), jobId, workerId) > 0;
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
@@ -0,0 +1,12 @@
+package com.quickcatalog.ondc.job;
+
+/**
+ * Thrown by a Beckn processing service when a request could not be processed, so the
+ * {@link BecknJobQueue} retries the job or marks it FAILED instead of completing it.
+ */
+public class BecknProcessingException extends RuntimeException {
+
+    public BecknProcessingException(String action, Throwable cause) {
+        super("Failed to process " + action + ": " + cause.getMessage(), cause);
+    }
+}
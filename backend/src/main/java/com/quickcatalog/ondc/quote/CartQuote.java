@@ -0,0 +1,44 @@
+package com.quickcatalog.ondc.quote;
+
+import com.quickcatalog.ondc.beckn.model.Quote;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A priced cart: its lines, the Beckn quote with breakup, and any items that cannot be
+ * supplied in full.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartQuote {
+    /** Requested count per item ID, in cart order; used to match a cached quote to a later request. */
+    private Map<String, Integer> cart;
+    private List<QuoteLine> lines;
+    /** Item IDs that did not resolve to an active product or variant of the tenant. */
+    private List<String> unknownItemIds;
+    private Quote quote;
+    private long createdAt;
+
+    public boolean hasShortfalls() {
+        return !unknownItemIds.isEmpty() || lines.stream().anyMatch(QuoteLine::isShort);
+    }
+
+    /**
+     * Message for a 40002 (item quantity unavailable) error listing the short items.
+     */
+    public String describeShortfalls() {
+        StringBuilder unavailable = new StringBuilder("Item quantity unavailable:");
+        for (QuoteLine line : lines) {
+            if (line.isShort()) unavailable.append(' ').append(line.getItemId());
+        }
+        for (String itemId : unknownItemIds) {
+            unavailable.append(' ').append(itemId);
+        }
+        return unavailable.toString();
+    }
+}
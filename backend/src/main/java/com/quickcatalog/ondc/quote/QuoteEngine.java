@@ -0,0 +1,188 @@
+package com.quickcatalog.ondc.quote;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.quickcatalog.entity.Product;
+import com.quickcatalog.entity.ProductVariant;
+import com.quickcatalog.entity.enums.ProductStatus;
+import com.quickcatalog.ondc.beckn.model.Price;
+import com.quickcatalog.ondc.beckn.model.Quote;
+import com.quickcatalog.ondc.beckn.model.QuoteBreakup;
+import com.quickcatalog.ondc.config.OndcProperties;
+import com.quickcatalog.ondc.inventory.StockAvailabilityCache;
+import com.quickcatalog.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+
+/**
+ * Prices ONDC carts. All cart items are resolved to products or variants in one query,
+ * and item, tax and delivery breakups are built in a single pass over the lines, with
+ * quantities capped by {@link StockAvailabilityCache}. /init and /confirm reuse the
+ * quote sent in on_select, carried in the transaction session, instead of pricing the
+ * cart again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QuoteEngine {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    private static final String QUOTE_TTL = "P1D";
+    private static final String FULFILLMENT_ID = "ful-1";
+
+    private final ProductRepository productRepository;
+    private final StockAvailabilityCache stockAvailabilityCache;
+    private final OndcProperties ondcProperties;
+
+    /**
+     * Price a cart afresh.
+     *
+     * @param itemsNode the order's items array
+     */
+    public CartQuote quote(UUID tenantId, JsonNode itemsNode) {
+        return price(tenantId, readCart(itemsNode));
+    }
+
+    /**
+     * The previous quote of the transaction if it covers the same items and quantities
+     * in full and is still valid; otherwise the cart is priced again.
+     */
+    public CartQuote reuseOrQuote(UUID tenantId, CartQuote previous, JsonNode itemsNode) {
+        Map<String, Integer> cart = readCart(itemsNode);
+        if (previous != null && previous.getCart().equals(cart) && !previous.hasShortfalls()
+                && System.currentTimeMillis() - previous.getCreatedAt()
+                        <= ondcProperties.getQuote().getValidityMinutes() * 60_000) {
+            return previous;
+        }
+        return price(tenantId, cart);
+    }
+
+    private CartQuote price(UUID tenantId, Map<String, Integer> cart) {
+        Map<UUID, Product> products = new HashMap<>();
+        Map<UUID, ProductVariant> variants = new HashMap<>();
+        List<UUID> ids = new ArrayList<>();
+        for (String itemId : cart.keySet()) {
+            UUID id = parseId(itemId);
+            if (id != null) ids.add(id);
+        }
+        if (!ids.isEmpty()) {
+            for (Object[] row : productRepository.findWithVariantsByItemIds(ids, tenantId)) {
+                Product product = (Product) row[0];
+                products.put(product.getId(), product);
+                if (row[1] != null) {
+                    ProductVariant variant = (ProductVariant) row[1];
+                    variants.put(variant.getId(), variant);
+                }
+            }
+        }
+
+        List<QuoteLine> lines = new ArrayList<>(cart.size());
+        List<String> unknownItemIds = new ArrayList<>();
+        List<QuoteBreakup> breakups = new ArrayList<>(cart.size() * 2 + 1);
+        BigDecimal total = BigDecimal.ZERO;
+
+        for (Map.Entry<String, Integer> item : cart.entrySet()) {
+            UUID id = parseId(item.getKey());
+            ProductVariant variant = id != null ? variants.get(id) : null;
+            Product product = variant != null ? products.get(variant.getProductId()) : products.get(id);
+            if (product == null || product.getStatus() != ProductStatus.ACTIVE
+                    || (variant != null && !variant.isActive())) {
+                unknownItemIds.add(item.getKey());
+                continue;
+            }
+
+            UUID variantId = variant != null ? variant.getId() : null;
+            int requested = item.getValue();
+            int quoted = Math.min(requested, stockAvailabilityCache.getOrderable(product.getId(), variantId));
+            BigDecimal unitPrice = unitPrice(product, variant);
+            BigDecimal itemTotal = unitPrice.multiply(BigDecimal.valueOf(quoted));
+            BigDecimal taxAmount = product.getGstRate() != null
+                    ? itemTotal.multiply(product.getGstRate().getRate()).divide(HUNDRED, 2, RoundingMode.HALF_UP)
+                    : BigDecimal.ZERO;
+            String title = variant != null && variant.getVariantName() != null
+                    ? product.getName() + " - " + variant.getVariantName() : product.getName();
+
+            QuoteLine line = new QuoteLine(item.getKey(), product.getId(), variantId, title,
+                    product.isTrackInventory() && (variant != null || product.getCurrentStock() != null),
+                    requested, quoted, stockAvailabilityCache.getAvailable(product.getId(), variantId),
+                    unitPrice, itemTotal, taxAmount);
+            lines.add(line);
+
+            QuoteBreakup itemBreakup = breakup(line.getItemId(), "item", title, itemTotal);
+            QuoteBreakup.ItemQuantity itemQuantity = new QuoteBreakup.ItemQuantity();
+            itemQuantity.setCount(quoted);
+            itemBreakup.setItem(itemQuantity);
+            breakups.add(itemBreakup);
+            breakups.add(breakup(line.getItemId(), "tax", "Tax", taxAmount));
+            total = total.add(itemTotal).add(taxAmount);
+        }
+
+        BigDecimal delivery = deliveryCharge(total);
+        breakups.add(breakup(FULFILLMENT_ID, "delivery", "Delivery charges", delivery));
+        total = total.add(delivery);
+
+        Quote quote = new Quote();
+        quote.setPrice(price(total));
+        quote.setBreakup(breakups);
+        quote.setTtl(QUOTE_TTL);
+        return new CartQuote(cart, lines, unknownItemIds, quote, System.currentTimeMillis());
+    }
+
+    private BigDecimal deliveryCharge(BigDecimal itemsTotal) {
+        OndcProperties.QuoteConfig config = ondcProperties.getQuote();
+        if (config.getDeliveryCharge() == null
+                || (config.getFreeDeliveryAbove() != null && itemsTotal.compareTo(config.getFreeDeliveryAbove()) >= 0)) {
+            return BigDecimal.ZERO;
+        }
+        return config.getDeliveryCharge();
+    }
+
+    /**
+     * Requested count per item ID. Repeated IDs are summed.
+     */
+    private static Map<String, Integer> readCart(JsonNode itemsNode) {
+        Map<String, Integer> cart = new LinkedHashMap<>();
+        if (itemsNode == null || !itemsNode.isArray()) return cart;
+        for (JsonNode itemNode : itemsNode) {
+            String itemId = itemNode.path("id").asText(null);
+            if (itemId == null) continue;
+            cart.merge(itemId, Math.max(itemNode.path("quantity").path("count").asInt(1), 0), Integer::sum);
+        }
+        return cart;
+    }
+
+    private static UUID parseId(String itemId) {
+        try {
+            return UUID.fromString(itemId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static BigDecimal unitPrice(Product product, ProductVariant variant) {
+        if (variant != null && variant.getSellingPrice() != null) return variant.getSellingPrice();
+        if (variant != null && variant.getMrp() != null) return variant.getMrp();
+        BigDecimal price = product.getSellingPrice() != null ? product.getSellingPrice() : product.getMrp();
+        return price != null ? price : BigDecimal.ZERO;
+    }
+
+    private static QuoteBreakup breakup(String itemId, String titleType, String title, BigDecimal amount) {
+        QuoteBreakup breakup = new QuoteBreakup();
+        breakup.setItemId(itemId);
+        breakup.setTitleType(titleType);
+        breakup.setTitle(title);
+        breakup.setPrice(price(amount));
+        return breakup;
+    }
+
+    private static Price price(BigDecimal amount) {
+        Price price = new Price();
+        price.setCurrency("INR");
+        price.setValue(amount.setScale(2, RoundingMode.HALF_UP).toString());
+        return price;
+    }
+}
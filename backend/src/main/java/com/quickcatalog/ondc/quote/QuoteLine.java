@@ -0,0 +1,39 @@
+package com.quickcatalog.ondc.quote;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * One priced cart line: a product, or a variant of it, at the quantity that can be supplied.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteLine {
+    /** The item ID as sent by the buyer app. */
+    private String itemId;
+    private UUID productId;
+    /** Null when the item is the product itself. */
+    private UUID variantId;
+    private String title;
+    /** Whether an order for this line reserves stock. */
+    private boolean stockTracked;
+    private int requested;
+    /** Requested quantity capped at what can be ordered. */
+    private int quoted;
+    /** Count advertised back to the buyer app. */
+    private int available;
+    private BigDecimal unitPrice;
+    private BigDecimal itemTotal;
+    private BigDecimal taxAmount;
+
+    @JsonIgnore
+    public boolean isShort() {
+        return quoted < requested;
+    }
+}
@@ -4,9 +4,11 @@ import com.quickcatalog.ondc.config.OndcProperties;
 import com.quickcatalog.ondc.crypto.X25519Service;
 import com.quickcatalog.ondc.entity.OndcSubscriber;
 import com.quickcatalog.ondc.entity.enums.RegistrationStatus;
+import com.quickcatalog.ondc.event.OndcSubscriberChangedEvent;
 import com.quickcatalog.ondc.repository.OndcSubscriberRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -26,6 +28,7 @@ public class OnSubscribeController {
     private final X25519Service x25519Service;
     private final OndcProperties ondcProperties;
     private final OndcSubscriberRepository subscriberRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @PostMapping("/on_subscribe")
     public ResponseEntity<?> onSubscribe(@RequestBody Map<String, Object> request) {
@@ -63,6 +66,7 @@ public class OnSubscribeController {
             // Update registration status
             subscriber.setRegistrationStatus(RegistrationStatus.SUBSCRIBED);
             subscriberRepository.save(subscriber);
+            eventPublisher.publishEvent(new OndcSubscriberChangedEvent(subscriber.getTenantId()));
 
             log.info("on_subscribe challenge solved for subscriber: {}", subscriberId);
             return ResponseEntity.ok(Map.of("answer", answer));
@@ -0,0 +1,156 @@
+package com.quickcatalog.ondc.registry;
+
+import com.quickcatalog.ondc.config.OndcProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Caches registry lookups of signing public keys by (subscriber_id, unique_key_id) so
+ * signature verification does not call the registry per request. Entries live for the
+ * configured TTL; an entry used close to expiry is refreshed in the background so hot
+ * keys never expire on the request path. Concurrent misses for the same key share one
+ * lookup, and unknown participants are cached briefly to absorb repeated bad requests.
+ */
+@Slf4j
+@Component
+public class RegistryKeyCache {
+
+    private final SubscriberKeyLookup keyLookup;
+    private final OndcProperties ondcProperties;
+    private final Executor refreshExecutor;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    public RegistryKeyCache(SubscriberKeyLookup keyLookup, OndcProperties ondcProperties,
+                            @Qualifier("ondcRegistryExecutor") Executor refreshExecutor) {
+        this.keyLookup = keyLookup;
+        this.ondcProperties = ondcProperties;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    /**
+     * @return the base64 signing public key, or null if the participant is unknown
+     */
+    public String getSigningPublicKey(String subscriberId, String uniqueKeyId) {
+        String cacheKey = cacheKey(subscriberId, uniqueKeyId);
+        Entry entry = entries.get(cacheKey);
+        long now = System.currentTimeMillis();
+        if (entry != null && now < entry.expiresAt) {
+            entry.lastUsedAt = now;
+            if (entry.publicKey != null && now >= entry.refreshAt) {
+                refreshAsync(cacheKey, subscriberId, uniqueKeyId);
+            }
+            return entry.publicKey;
+        }
+        return load(cacheKey, subscriberId, uniqueKeyId).join();
+    }
+
+    /**
+     * Called when a signature fails against a cached key: the participant may have
+     * rotated keys under the same unique_key_id. Re-fetches once the entry is older
+     * than the negative TTL and returns the new key, or null if it is unchanged.
+     */
+    public String revalidate(String subscriberId, String uniqueKeyId, String rejectedKey) {
+        String cacheKey = cacheKey(subscriberId, uniqueKeyId);
+        Entry entry = entries.get(cacheKey);
+        long minAgeMs = ondcProperties.getAuth().getNegativeTtlSeconds() * 1000;
+        if (entry != null && System.currentTimeMillis() - entry.fetchedAt < minAgeMs) {
+            return null;
+        }
+        String publicKey = load(cacheKey, subscriberId, uniqueKeyId).join();
+        return publicKey != null && !publicKey.equals(rejectedKey) ? publicKey : null;
+    }
+
+    private void refreshAsync(String cacheKey, String subscriberId, String uniqueKeyId) {
+        if (inFlight.containsKey(cacheKey)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> load(cacheKey, subscriberId, uniqueKeyId));
+        } catch (RejectedExecutionException e) {
+            log.warn("Registry key refresh for {} skipped: executor saturated", cacheKey);
+        }
+    }
+
+    private CompletableFuture<String> load(String cacheKey, String subscriberId, String uniqueKeyId) {
+        CompletableFuture<String> lookup = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(cacheKey, lookup);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            String publicKey = keyLookup.lookupPublicKey(subscriberId, uniqueKeyId);
+            lookup.complete(store(cacheKey, publicKey));
+        } catch (Exception e) {
+            log.error("Registry key lookup for {} failed: {}", cacheKey, e.getMessage());
+            lookup.complete(null);
+        } finally {
+            inFlight.remove(cacheKey);
+        }
+        return lookup;
+    }
+
+    /**
+     * @return the key now in effect for the entry
+     */
+    private String store(String cacheKey, String publicKey) {
+        OndcProperties.AuthConfig config = ondcProperties.getAuth();
+        long now = System.currentTimeMillis();
+        Entry current = entries.get(cacheKey);
+        if (publicKey == null && current != null && current.publicKey != null && now < current.expiresAt) {
+            // A failed refresh must not evict a key that is still valid
+            return current.publicKey;
+        }
+        if (entries.size() >= config.getMaxCachedKeys()) {
+            entries.values().removeIf(entry -> entry.expiresAt <= now);
+            if (entries.size() >= config.getMaxCachedKeys()) {
+                evictLeastRecentlyUsed(config.getMaxCachedKeys() / 10);
+            }
+        }
+        long ttlMs = (publicKey != null ? config.getKeyTtlSeconds() : config.getNegativeTtlSeconds()) * 1000;
+        long refreshAheadMs = Math.min(config.getKeyRefreshAheadSeconds() * 1000, ttlMs);
+        entries.put(cacheKey, new Entry(publicKey, now, now + ttlMs - refreshAheadMs, now + ttlMs));
+        return publicKey;
+    }
+
+    /**
+     * Drops a batch of the least recently used entries, so the scan is not repeated for
+     * every new key while the cache stays full.
+     */
+    private void evictLeastRecentlyUsed(int count) {
+        entries.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().lastUsedAt))
+                .limit(Math.max(count, 1))
+                .toList()
+                .forEach(entry -> entries.remove(entry.getKey(), entry.getValue()));
+    }
+
+    private static String cacheKey(String subscriberId, String uniqueKeyId) {
+        return subscriberId + "|" + uniqueKeyId;
+    }
+
+    private static class Entry {
+        private final String publicKey;
+        private final long fetchedAt;
+        private final long refreshAt;
+        private final long expiresAt;
+        private volatile long lastUsedAt;
+
+        Entry(String publicKey, long fetchedAt, long refreshAt, long expiresAt) {
+            this.publicKey = publicKey;
+            this.fetchedAt = fetchedAt;
+            this.refreshAt = refreshAt;
+            this.expiresAt = expiresAt;
+            this.lastUsedAt = fetchedAt;
+        }
+    }
+}
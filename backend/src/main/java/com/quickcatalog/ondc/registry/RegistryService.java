@@ -5,9 +5,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.quickcatalog.ondc.config.OndcProperties;
 import com.quickcatalog.ondc.entity.OndcSubscriber;
 import com.quickcatalog.ondc.entity.enums.RegistrationStatus;
+import com.quickcatalog.ondc.event.OndcSubscriberChangedEvent;
 import com.quickcatalog.ondc.repository.OndcSubscriberRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
@@ -23,12 +25,13 @@ import java.util.Map;
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class RegistryService {
+public class RegistryService implements SubscriberKeyLookup {
 
     private final OndcProperties ondcProperties;
     private final OndcSubscriberRepository subscriberRepository;
     private final ObjectMapper objectMapper;
     private final RestTemplate restTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Initiate subscription with the ONDC registry.
@@ -87,12 +90,14 @@ public class RegistryService {
             subscriberRepository.save(subscriber);
             log.error("ONDC subscription failed: {}", e.getMessage());
         }
+        eventPublisher.publishEvent(new OndcSubscriberChangedEvent(subscriber.getTenantId()));
     }
 
     /**
      * Lookup a network participant's public key from the ONDC registry.
      * Used to verify incoming request signatures.
      */
+    @Override
     public String lookupPublicKey(String subscriberId, String uniqueKeyId) {
         OndcProperties.RegistryConfig registryConfig = ondcProperties.getActiveRegistry();
 
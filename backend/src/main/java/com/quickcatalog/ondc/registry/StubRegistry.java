@@ -0,0 +1,42 @@
+package com.quickcatalog.ondc.registry;
+
+import com.quickcatalog.ondc.config.OndcProperties;
+import com.quickcatalog.ondc.repository.OndcSubscriberRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local stand-in for the ONDC registry /lookup, for development and tests without
+ * network access. Resolves keys from {@code ondc.auth.stub-keys} and, failing that,
+ * from this deployment's own subscribers, so locally signed requests verify.
+ */
+@Slf4j
+@Primary
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "ondc.auth.stub-registry", havingValue = "true")
+public class StubRegistry implements SubscriberKeyLookup {
+
+    private final OndcProperties ondcProperties;
+    private final OndcSubscriberRepository subscriberRepository;
+
+    @Override
+    public String lookupPublicKey(String subscriberId, String uniqueKeyId) {
+        for (OndcProperties.StubKey stubKey : ondcProperties.getAuth().getStubKeys()) {
+            if (subscriberId.equals(stubKey.getSubscriberId()) && uniqueKeyId.equals(stubKey.getUniqueKeyId())) {
+                return stubKey.getSigningPublicKey();
+            }
+        }
+        String publicKey = subscriberRepository.findBySubscriberId(subscriberId)
+                .filter(subscriber -> uniqueKeyId.equals(subscriber.getUniqueKeyId()))
+                .map(subscriber -> subscriber.getSigningPublicKey())
+                .orElse(null);
+        if (publicKey == null) {
+            log.warn("Stub registry has no key for {}|{}", subscriberId, uniqueKeyId);
+        }
+        return publicKey;
+    }
+}
@@ -0,0 +1,13 @@
+package com.quickcatalog.ondc.registry;
+
+/**
+ * Resolves a network participant's signing public key by (subscriber_id, unique_key_id).
+ */
+public interface SubscriberKeyLookup {
+
+    /**
+     * @return the base64 Ed25519 signing public key, or null if the participant is unknown
+     *         or the lookup failed
+     */
+    String lookupPublicKey(String subscriberId, String uniqueKeyId);
+}
@@ -0,0 +1,31 @@
+package com.quickcatalog.ondc.repository;
+
+import com.quickcatalog.ondc.entity.InventoryReservation;
+import com.quickcatalog.ondc.entity.enums.ReservationStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface InventoryReservationRepository extends JpaRepository<InventoryReservation, UUID> {
+
+    /**
+     * Locks the rows, so a release cannot race the expiry job into restocking twice.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<InventoryReservation> findByTenantIdAndBecknOrderIdAndStatusIn(
+            UUID tenantId, String becknOrderId, Collection<ReservationStatus> statuses);
+
+    /**
+     * Lock held reservations past their expiry, skipping rows another instance is
+     * already processing. Must be called inside a transaction.
+     */
+    @Query(value = "SELECT * FROM inventory_reservation WHERE status = 'HELD' AND expires_at <= NOW() " +
+            "ORDER BY expires_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<InventoryReservation> findExpiredForUpdate(@Param("limit") int limit);
+}
@@ -5,13 +5,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 public interface OndcApiLogRepository extends JpaRepository<OndcApiLog, UUID> {
 
-    Page<OndcApiLog> findByTenantIdOrderByCreatedAtDesc(UUID tenantId, Pageable pageable);
+    // ondc_api_log is range-partitioned on created_at; the lower bound lets Postgres prune old partitions
+    Page<OndcApiLog> findByTenantIdAndCreatedAtAfterOrderByCreatedAtDescIdDesc(UUID tenantId, LocalDateTime since, Pageable pageable);
 
-    Page<OndcApiLog> findByTenantIdAndActionOrderByCreatedAtDesc(UUID tenantId, String action, Pageable pageable);
-
-    Page<OndcApiLog> findByTransactionIdOrderByCreatedAtDesc(String transactionId, Pageable pageable);
+    Page<OndcApiLog> findByTenantIdAndActionAndCreatedAtAfterOrderByCreatedAtDescIdDesc(UUID tenantId, String action, LocalDateTime since, Pageable pageable);
 }
@@ -0,0 +1,9 @@
+package com.quickcatalog.ondc.repository;
+
+import com.quickcatalog.ondc.entity.OndcCallbackDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface OndcCallbackDeadLetterRepository extends JpaRepository<OndcCallbackDeadLetter, UUID> {
+}
@@ -0,0 +1,20 @@
+package com.quickcatalog.ondc.repository;
+
+import com.quickcatalog.ondc.entity.OndcCallbackRetry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface OndcCallbackRetryRepository extends JpaRepository<OndcCallbackRetry, UUID> {
+
+    /**
+     * Lock due retries, skipping rows another instance is already claiming.
+     * Must be called inside a transaction.
+     */
+    @Query(value = "SELECT * FROM ondc_callback_retry WHERE next_attempt_at <= NOW() " +
+            "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OndcCallbackRetry> findDueForUpdate(@Param("limit") int limit);
+}
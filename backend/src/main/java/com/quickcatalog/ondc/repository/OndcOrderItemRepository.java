@@ -1,12 +1,21 @@
 package com.quickcatalog.ondc.repository;
 
 import com.quickcatalog.ondc.entity.OndcOrderItem;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface OndcOrderItemRepository extends JpaRepository<OndcOrderItem, UUID> {
 
     List<OndcOrderItem> findByOndcOrderId(UUID ondcOrderId);
+
+    /**
+     * Locks the row, so one return cannot be approved twice. Must be called inside a transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<OndcOrderItem> findByIdAndOndcOrderId(UUID id, UUID ondcOrderId);
 }
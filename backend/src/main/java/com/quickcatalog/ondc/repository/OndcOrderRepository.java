@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -24,9 +25,23 @@ public interface OndcOrderRepository extends JpaRepository<OndcOrder, UUID> {
 
     List<OndcOrder> findByOndcProviderId(UUID ondcProviderId);
 
-    Page<OndcOrder> findByTenantIdOrderByCreatedAtDesc(UUID tenantId, Pageable pageable);
+    Page<OndcOrder> findByTenantIdOrderByCreatedAtDescIdDesc(UUID tenantId, Pageable pageable);
 
-    Page<OndcOrder> findByTenantIdAndStateOrderByCreatedAtDesc(UUID tenantId, OndcOrderState state, Pageable pageable);
+    Page<OndcOrder> findByTenantIdAndStateOrderByCreatedAtDescIdDesc(UUID tenantId, OndcOrderState state, Pageable pageable);
+
+    // Keyset pages: orders after (createdAt, id) in the same newest-first order
+    @Query("SELECT o FROM OndcOrder o WHERE o.tenantId = :tenantId " +
+            "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OndcOrder> findByTenantIdAfter(@Param("tenantId") UUID tenantId, @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") UUID id, Pageable pageable);
+
+    @Query("SELECT o FROM OndcOrder o WHERE o.tenantId = :tenantId AND o.state = :state " +
+            "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OndcOrder> findByTenantIdAndStateAfter(@Param("tenantId") UUID tenantId, @Param("state") OndcOrderState state,
+                                                @Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id,
+                                                Pageable pageable);
 
     Optional<OndcOrder> findByIdAndTenantId(UUID id, UUID tenantId);
 
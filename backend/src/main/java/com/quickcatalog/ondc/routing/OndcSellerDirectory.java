@@ -0,0 +1,246 @@
+package com.quickcatalog.ondc.routing;
+
+import com.quickcatalog.ondc.beckn.model.BecknContext;
+import com.quickcatalog.ondc.config.OndcProperties;
+import com.quickcatalog.ondc.entity.OndcProvider;
+import com.quickcatalog.ondc.entity.OndcSubscriber;
+import com.quickcatalog.ondc.entity.enums.OndcEnvironment;
+import com.quickcatalog.ondc.event.OndcProviderChangedEvent;
+import com.quickcatalog.ondc.event.OndcSubscriberChangedEvent;
+import com.quickcatalog.ondc.repository.OndcProviderRepository;
+import com.quickcatalog.ondc.repository.OndcSubscriberRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+
+/**
+ * In-memory directory of ONDC subscribers and active providers used on every Beckn call.
+ * The whole directory is loaded on first use and reloaded whenever a seller controller
+ * changes a subscriber or provider, so lookups never hit the database on the hot path.
+ * Also routes incoming requests to the tenant they address via bpp_id, bpp_uri or provider id.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OndcSellerDirectory {
+
+    private final OndcSubscriberRepository subscriberRepository;
+    private final OndcProviderRepository providerRepository;
+    private final OndcProperties ondcProperties;
+
+    private volatile Directory directory;
+
+    /**
+     * The environment this deployment serves, from ondc.environment.
+     */
+    public OndcEnvironment currentEnvironment() {
+        return OndcEnvironment.valueOf(ondcProperties.getEnvironment().toUpperCase());
+    }
+
+    /**
+     * All subscribers registered for an environment, in a stable order.
+     */
+    public List<OndcSubscriber> getSubscribers(OndcEnvironment env) {
+        return directory().subscribersByEnv.getOrDefault(env, Collections.emptyList());
+    }
+
+    /**
+     * Subscriber by its ONDC subscriber_id (the bpp_id of incoming requests).
+     */
+    public Optional<OndcSubscriber> findSubscriber(OndcEnvironment env, String subscriberId) {
+        return Optional.ofNullable(directory().subscribersById.get(envKey(env, subscriberId)));
+    }
+
+    /**
+     * Resolve the subscriber an incoming request is addressed to.
+     *
+     * @see #route(BecknContext, String)
+     */
+    public Optional<OndcSubscriber> route(BecknContext context) {
+        return route(context, null);
+    }
+
+    /**
+     * Resolve the subscriber an incoming request is addressed to, trying in order:
+     * context bpp_id, context bpp_uri, the tenant owning {@code providerId} (if unique),
+     * and finally the only subscriber of the environment in single-seller deployments.
+     *
+     * @param context The incoming Beckn context
+     * @param providerId The order/select provider id, or null
+     */
+    public Optional<OndcSubscriber> route(BecknContext context, String providerId) {
+        OndcEnvironment env = currentEnvironment();
+        Directory dir = directory();
+
+        if (context.getBppId() != null) {
+            OndcSubscriber subscriber = dir.subscribersById.get(envKey(env, context.getBppId()));
+            if (subscriber != null) return Optional.of(subscriber);
+        }
+        if (context.getBppUri() != null) {
+            OndcSubscriber subscriber = dir.subscribersByUrl.get(envKey(env, normalizeUrl(context.getBppUri())));
+            if (subscriber != null) return Optional.of(subscriber);
+        }
+        if (providerId != null) {
+            List<OndcProvider> owners = dir.activeProvidersByProviderId.getOrDefault(providerId, Collections.emptyList());
+            List<OndcSubscriber> subscribers = owners.stream()
+                    .map(p -> dir.subscribersByTenant.get(envKey(env, p.getTenantId().toString())))
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .toList();
+            if (subscribers.size() == 1) return Optional.of(subscribers.get(0));
+        }
+
+        List<OndcSubscriber> all = dir.subscribersByEnv.getOrDefault(env, Collections.emptyList());
+        if (all.size() == 1) {
+            return Optional.of(all.get(0));
+        }
+        log.warn("Could not route {} request (bpp_id={}, bpp_uri={}, provider={}) among {} subscribers",
+                context.getAction(), context.getBppId(), context.getBppUri(), providerId, all.size());
+        return Optional.empty();
+    }
+
+    /**
+     * Subscribers registered for a domain and city (ONDC city code such as std:080).
+     * Subscribers without a domain or city codes, or with city code "*", match any value.
+     * Without a domain, every subscriber of the environment is a candidate.
+     */
+    public List<OndcSubscriber> getSubscribersServing(OndcEnvironment env, String domain, String city) {
+        Directory dir = directory();
+        List<OndcSubscriber> candidates;
+        if (domain == null) {
+            candidates = dir.subscribersByEnv.getOrDefault(env, Collections.emptyList());
+        } else {
+            candidates = new ArrayList<>(
+                    dir.subscribersByDomain.getOrDefault(envKey(env, domain), Collections.emptyList()));
+            candidates.addAll(dir.subscribersByDomain.getOrDefault(envKey(env, null), Collections.emptyList()));
+        }
+        if (city == null || city.equals("*")) {
+            return candidates;
+        }
+        return candidates.stream()
+                .filter(s -> servesCity(s, city))
+                .toList();
+    }
+
+    public List<OndcProvider> getActiveProviders(UUID tenantId) {
+        return directory().activeProvidersByTenant.getOrDefault(tenantId, Collections.emptyList());
+    }
+
+    /**
+     * Active provider of a tenant by its ONDC provider id.
+     */
+    public Optional<OndcProvider> findActiveProvider(UUID tenantId, String providerId) {
+        return Optional.ofNullable(directory().activeProvidersById.get(providerKey(tenantId, providerId)));
+    }
+
+    /**
+     * Reload the directory from the database.
+     */
+    public void refresh() {
+        long startTime = System.currentTimeMillis();
+        Directory loaded = load();
+        directory = loaded;
+        log.info("Loaded ONDC seller directory: {} subscribers, {} active providers in {}ms",
+                loaded.subscribersById.size(), loaded.activeProvidersById.size(),
+                System.currentTimeMillis() - startTime);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubscriberChanged(OndcSubscriberChangedEvent event) {
+        refresh();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProviderChanged(OndcProviderChangedEvent event) {
+        refresh();
+    }
+
+    private Directory directory() {
+        Directory current = directory;
+        if (current == null) {
+            synchronized (this) {
+                current = directory;
+                if (current == null) {
+                    refresh();
+                    current = directory;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Directory load() {
+        Directory loaded = new Directory();
+
+        List<OndcSubscriber> subscribers = new ArrayList<>(subscriberRepository.findAll());
+        subscribers.sort(Comparator.comparing(OndcSubscriber::getCreatedAt,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+        for (OndcSubscriber subscriber : subscribers) {
+            loaded.subscribersByEnv.computeIfAbsent(subscriber.getEnvironment(), e -> new ArrayList<>())
+                    .add(subscriber);
+            loaded.subscribersById.put(
+                    envKey(subscriber.getEnvironment(), subscriber.getSubscriberId()), subscriber);
+            if (subscriber.getSubscriberUrl() != null) {
+                loaded.subscribersByUrl.put(envKey(subscriber.getEnvironment(),
+                        normalizeUrl(subscriber.getSubscriberUrl())), subscriber);
+            }
+            loaded.subscribersByTenant.putIfAbsent(
+                    envKey(subscriber.getEnvironment(), subscriber.getTenantId().toString()), subscriber);
+            String domain = subscriber.getDomain() == null || subscriber.getDomain().isBlank()
+                    ? null : subscriber.getDomain();
+            loaded.subscribersByDomain.computeIfAbsent(envKey(subscriber.getEnvironment(), domain),
+                    k -> new ArrayList<>()).add(subscriber);
+        }
+
+        for (OndcProvider provider : providerRepository.findAll()) {
+            if (!provider.isActive()) continue;
+            loaded.activeProvidersByTenant.computeIfAbsent(provider.getTenantId(), t -> new ArrayList<>())
+                    .add(provider);
+            loaded.activeProvidersById.put(providerKey(provider.getTenantId(), provider.getProviderId()), provider);
+            loaded.activeProvidersByProviderId.computeIfAbsent(provider.getProviderId(), p -> new ArrayList<>())
+                    .add(provider);
+        }
+        return loaded;
+    }
+
+    private static String envKey(OndcEnvironment env, String subscriberId) {
+        return env + "|" + subscriberId;
+    }
+
+    private static String providerKey(UUID tenantId, String providerId) {
+        return tenantId + "|" + providerId;
+    }
+
+    private static String normalizeUrl(String url) {
+        String trimmed = url.trim().toLowerCase();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    private static boolean servesCity(OndcSubscriber subscriber, String city) {
+        String[] cityCodes = subscriber.getCityCodes();
+        if (cityCodes == null || cityCodes.length == 0) {
+            return true;
+        }
+        for (String code : cityCodes) {
+            if ("*".equals(code) || city.equalsIgnoreCase(code)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Immutable once published through the volatile field.
+     */
+    private static class Directory {
+        private final Map<OndcEnvironment, List<OndcSubscriber>> subscribersByEnv = new EnumMap<>(OndcEnvironment.class);
+        private final Map<String, OndcSubscriber> subscribersById = new HashMap<>();
+        private final Map<String, OndcSubscriber> subscribersByUrl = new HashMap<>();
+        private final Map<String, OndcSubscriber> subscribersByTenant = new HashMap<>();
+        private final Map<String, List<OndcSubscriber>> subscribersByDomain = new HashMap<>();
+        private final Map<UUID, List<OndcProvider>> activeProvidersByTenant = new HashMap<>();
+        private final Map<String, OndcProvider> activeProvidersById = new HashMap<>();
+        private final Map<String, List<OndcProvider>> activeProvidersByProviderId = new HashMap<>();
+    }
+}
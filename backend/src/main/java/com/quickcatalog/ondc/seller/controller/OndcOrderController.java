@@ -2,14 +2,19 @@ package com.quickcatalog.ondc.seller.controller;
 
 import com.quickcatalog.config.TenantContext;
 import com.quickcatalog.dto.common.ApiResponse;
+import com.quickcatalog.dto.common.PageCursor;
 import com.quickcatalog.dto.common.PagedResponse;
+import com.quickcatalog.exception.BadRequestException;
 import com.quickcatalog.exception.ResourceNotFoundException;
+import com.quickcatalog.ondc.beckn.service.OrderReturnService;
 import com.quickcatalog.ondc.entity.*;
 import com.quickcatalog.ondc.entity.enums.OndcOrderState;
+import com.quickcatalog.ondc.inventory.StockReservationService;
 import com.quickcatalog.ondc.repository.*;
 import com.quickcatalog.ondc.seller.dto.OrderDetailResponse;
 import com.quickcatalog.ondc.seller.dto.OrderListResponse;
 import com.quickcatalog.repository.ProductRepository;
+import com.quickcatalog.service.RowCountEstimator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -31,30 +36,58 @@ public class OndcOrderController {
     private final OndcFulfillmentRepository fulfillmentRepository;
     private final OndcPaymentRepository paymentRepository;
     private final ProductRepository productRepository;
-
+    private final StockReservationService stockReservationService;
+    private final OrderReturnService orderReturnService;
+    private final RowCountEstimator rowCountEstimator;
+
+    /**
+     * Orders newest first. Pass the {@code nextCursor} of a page as {@code cursor} to get
+     * the next one by keyset instead of offset; its total is then an estimate.
+     */
     @GetMapping
     public ApiResponse<PagedResponse<OrderListResponse>> list(
             @RequestParam(required = false) String state,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
 
         UUID tenantId = TenantContext.getTenantId();
-        PageRequest pageRequest = PageRequest.of(page, size);
-
-        Page<OndcOrder> orderPage;
-        if (state != null && !state.isBlank()) {
-            OndcOrderState orderState = OndcOrderState.valueOf(state.toUpperCase());
-            orderPage = orderRepository.findByTenantIdAndStateOrderByCreatedAtDesc(tenantId, orderState, pageRequest);
-        } else {
-            orderPage = orderRepository.findByTenantIdOrderByCreatedAtDesc(tenantId, pageRequest);
+        OndcOrderState orderState = state != null && !state.isBlank()
+                ? OndcOrderState.valueOf(state.toUpperCase()) : null;
+
+        if (cursor != null && !cursor.isBlank()) {
+            PageCursor after = PageCursor.decode(cursor, "createdAt");
+            if (after.timestampValue() == null) {
+                throw new BadRequestException("Invalid page cursor");
+            }
+            PageRequest limit = PageRequest.of(0, size + 1);
+            List<OndcOrder> rows = orderState != null
+                    ? orderRepository.findByTenantIdAndStateAfter(tenantId, orderState, after.timestampValue(), after.getId(), limit)
+                    : orderRepository.findByTenantIdAfter(tenantId, after.timestampValue(), after.getId(), limit);
+            long estimate = orderState != null
+                    ? rowCountEstimator.estimate("SELECT 1 FROM ondc_order WHERE tenant_id = ? " +
+                            "AND state = CAST(? AS ondc_order_state)", tenantId, orderState.name())
+                    : rowCountEstimator.estimate("SELECT 1 FROM ondc_order WHERE tenant_id = ?", tenantId);
+            return ApiResponse.success(PagedResponse.ofCursor(rows, page, size, estimate,
+                    this::mapToListResponse, order -> PageCursor.encode("createdAt", order.getCreatedAt(), order.getId())));
         }
 
+        PageRequest pageRequest = PageRequest.of(page, size);
+        Page<OndcOrder> orderPage = orderState != null
+                ? orderRepository.findByTenantIdAndStateOrderByCreatedAtDescIdDesc(tenantId, orderState, pageRequest)
+                : orderRepository.findByTenantIdOrderByCreatedAtDescIdDesc(tenantId, pageRequest);
+
         List<OrderListResponse> content = orderPage.getContent().stream()
                 .map(this::mapToListResponse)
                 .collect(Collectors.toList());
 
-        return ApiResponse.success(PagedResponse.of(
-                content, page, size, orderPage.getTotalElements(), orderPage.getTotalPages()));
+        PagedResponse<OrderListResponse> response = PagedResponse.of(
+                content, page, size, orderPage.getTotalElements(), orderPage.getTotalPages());
+        if (!response.isLast() && orderPage.hasContent()) {
+            OndcOrder lastOrder = orderPage.getContent().get(orderPage.getNumberOfElements() - 1);
+            response.setNextCursor(PageCursor.encode("createdAt", lastOrder.getCreatedAt(), lastOrder.getId()));
+        }
+        return ApiResponse.success(response);
     }
 
     @GetMapping("/{id}")
@@ -72,15 +105,35 @@ public class OndcOrderController {
         OndcOrder order = orderRepository.findByIdAndTenantIdWithItems(id, tenantId)
                 .orElseThrow(() -> new ResourceNotFoundException("OndcOrder", "id", id));
 
-        if (order.getState() != OndcOrderState.CREATED) {
-            return ApiResponse.error("Order can only be accepted when in CREATED state, current: " + order.getState());
+        if (order.getState() != OndcOrderState.CREATED
+                || !stockReservationService.accept(tenantId, order.getId(), order.getBecknOrderId())) {
+            OndcOrderState current = orderRepository.findById(order.getId())
+                    .map(OndcOrder::getState).orElse(order.getState());
+            return ApiResponse.error("Order can only be accepted when in CREATED state, current: " + current);
         }
 
         order.setState(OndcOrderState.ACCEPTED);
-        orderRepository.save(order);
         return ApiResponse.success(mapToDetailResponse(order));
     }
 
+    /**
+     * Approve a return the buyer app requested, once its goods are back with the seller;
+     * the returned units go back into stock.
+     */
+    @PostMapping("/{id}/items/{itemId}/return/approve")
+    @PreAuthorize("hasAnyRole('OWNER','ADMIN')")
+    public ApiResponse<OrderDetailResponse> approveReturn(@PathVariable UUID id, @PathVariable UUID itemId) {
+        UUID tenantId = TenantContext.getTenantId();
+        OndcOrder order = orderRepository.findByIdAndTenantId(id, tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("OndcOrder", "id", id));
+
+        orderReturnService.approve(order, itemId);
+
+        OndcOrder updated = orderRepository.findByIdAndTenantIdWithItems(id, tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("OndcOrder", "id", id));
+        return ApiResponse.success(mapToDetailResponse(updated));
+    }
+
     private OrderListResponse mapToListResponse(OndcOrder order) {
         OrderListResponse dto = new OrderListResponse();
         dto.setId(order.getId());
@@ -129,6 +182,9 @@ public class OndcOrderController {
                 itemDto.setUnitPrice(item.getUnitPrice());
                 itemDto.setTaxAmount(item.getTaxAmount());
                 itemDto.setTotalAmount(item.getTotalPrice());
+                itemDto.setReturnStatus(item.getReturnStatus());
+                itemDto.setReturnReason(item.getReturnReason());
+                itemDto.setReturnQuantity(item.getReturnQuantity());
 
                 if (item.getProductId() != null) {
                     productRepository.findByIdAndTenantId(item.getProductId(), tenantId)
@@ -2,7 +2,7 @@ package com.quickcatalog.ondc.seller.controller;
 
 import com.quickcatalog.config.TenantContext;
 import com.quickcatalog.dto.common.ApiResponse;
-import com.quickcatalog.entity.Product;
+import com.quickcatalog.event.ProductChangedEvent;
 import com.quickcatalog.exception.ResourceNotFoundException;
 import com.quickcatalog.ondc.entity.OndcProductConfig;
 import com.quickcatalog.ondc.repository.OndcProductConfigRepository;
@@ -11,6 +11,7 @@ import com.quickcatalog.ondc.seller.dto.ProductConfigResponse;
 import com.quickcatalog.repository.ProductRepository;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
@@ -26,6 +27,7 @@ public class OndcProductConfigController {
 
     private final OndcProductConfigRepository configRepository;
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @GetMapping("/{productId}/config")
     public ApiResponse<ProductConfigResponse> getConfig(@PathVariable UUID productId) {
@@ -68,6 +70,7 @@ public class OndcProductConfigController {
         config.setStatutoryInfo(request.getStatutoryInfo());
 
         OndcProductConfig saved = configRepository.save(config);
+        eventPublisher.publishEvent(new ProductChangedEvent(tenantId, productId));
         return ApiResponse.success(mapToResponse(saved));
     }
 
@@ -81,6 +84,7 @@ public class OndcProductConfigController {
         config.setPublishedToOndc(true);
         config.setLastPublishedAt(LocalDateTime.now());
         OndcProductConfig saved = configRepository.save(config);
+        eventPublisher.publishEvent(new ProductChangedEvent(tenantId, productId));
         return ApiResponse.success(mapToResponse(saved));
     }
 
@@ -93,6 +97,7 @@ public class OndcProductConfigController {
 
         config.setPublishedToOndc(false);
         OndcProductConfig saved = configRepository.save(config);
+        eventPublisher.publishEvent(new ProductChangedEvent(tenantId, productId));
         return ApiResponse.success(mapToResponse(saved));
     }
 
@@ -4,11 +4,13 @@ import com.quickcatalog.config.TenantContext;
 import com.quickcatalog.dto.common.ApiResponse;
 import com.quickcatalog.exception.ResourceNotFoundException;
 import com.quickcatalog.ondc.entity.OndcProvider;
+import com.quickcatalog.ondc.event.OndcProviderChangedEvent;
 import com.quickcatalog.ondc.repository.OndcProviderRepository;
 import com.quickcatalog.ondc.seller.dto.ProviderRequest;
 import com.quickcatalog.ondc.seller.dto.ProviderResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -24,6 +26,7 @@ import java.util.stream.Collectors;
 public class OndcProviderController {
 
     private final OndcProviderRepository providerRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @GetMapping
     public ApiResponse<List<ProviderResponse>> list() {
@@ -54,6 +57,7 @@ public class OndcProviderController {
         applyRequest(provider, request);
 
         OndcProvider saved = providerRepository.save(provider);
+        eventPublisher.publishEvent(new OndcProviderChangedEvent(tenantId));
         return ApiResponse.success(mapToResponse(saved));
     }
 
@@ -67,6 +71,7 @@ public class OndcProviderController {
 
         applyRequest(provider, request);
         OndcProvider saved = providerRepository.save(provider);
+        eventPublisher.publishEvent(new OndcProviderChangedEvent(tenantId));
         return ApiResponse.success(mapToResponse(saved));
     }
 
@@ -77,6 +82,7 @@ public class OndcProviderController {
         OndcProvider provider = providerRepository.findByIdAndTenantId(id, tenantId)
                 .orElseThrow(() -> new ResourceNotFoundException("OndcProvider", "id", id));
         providerRepository.delete(provider);
+        eventPublisher.publishEvent(new OndcProviderChangedEvent(tenantId));
         return ApiResponse.success(null);
     }
 
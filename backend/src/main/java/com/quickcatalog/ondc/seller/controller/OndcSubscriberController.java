@@ -6,6 +6,7 @@ import com.quickcatalog.ondc.crypto.KeyGenerationService;
 import com.quickcatalog.ondc.entity.OndcSubscriber;
 import com.quickcatalog.ondc.entity.enums.OndcEnvironment;
 import com.quickcatalog.ondc.entity.enums.RegistrationStatus;
+import com.quickcatalog.ondc.event.OndcSubscriberChangedEvent;
 import com.quickcatalog.ondc.registry.RegistryService;
 import com.quickcatalog.ondc.repository.OndcSubscriberRepository;
 import com.quickcatalog.ondc.seller.dto.SubscriberRequest;
@@ -13,6 +14,7 @@ import com.quickcatalog.ondc.seller.dto.SubscriberResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -28,6 +30,7 @@ public class OndcSubscriberController {
     private final OndcSubscriberRepository subscriberRepository;
     private final KeyGenerationService keyGenerationService;
     private final RegistryService registryService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @GetMapping
     public ApiResponse<SubscriberResponse> getSubscriber() {
@@ -62,6 +65,7 @@ public class OndcSubscriberController {
         }
 
         OndcSubscriber saved = subscriberRepository.save(subscriber);
+        eventPublisher.publishEvent(new OndcSubscriberChangedEvent(tenantId));
         return ApiResponse.success(mapToResponse(saved));
     }
 
@@ -86,6 +90,7 @@ public class OndcSubscriberController {
         subscriber.setUniqueKeyId(UUID.randomUUID().toString());
 
         OndcSubscriber saved = subscriberRepository.save(subscriber);
+        eventPublisher.publishEvent(new OndcSubscriberChangedEvent(tenantId));
         log.info("Generated ONDC key pairs for tenant: {}", tenantId);
         return ApiResponse.success(mapToResponse(saved));
     }
@@ -6,6 +6,7 @@ import com.quickcatalog.ondc.entity.enums.FulfillmentState;
 import com.quickcatalog.ondc.entity.enums.FulfillmentType;
 import com.quickcatalog.ondc.entity.enums.OndcOrderState;
 import com.quickcatalog.ondc.entity.enums.PaymentType;
+import com.quickcatalog.ondc.entity.enums.ReturnStatus;
 import com.quickcatalog.ondc.entity.enums.SettlementStatus;
 import lombok.Data;
 
@@ -49,6 +50,9 @@ public class OrderDetailResponse {
         private BigDecimal unitPrice;
         private BigDecimal taxAmount;
         private BigDecimal totalAmount;
+        private ReturnStatus returnStatus;
+        private String returnReason;
+        private Integer returnQuantity;
     }
 
     @Data
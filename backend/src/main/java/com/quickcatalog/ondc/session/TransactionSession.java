@@ -0,0 +1,46 @@
+package com.quickcatalog.ondc.session;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.quickcatalog.ondc.quote.CartQuote;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * What one Beckn transaction has established so far: who the buyer app is, which
+ * provider the cart is with, the quote given for it and the billing and fulfillment
+ * details collected at /init. Later steps read it instead of resolving them again.
+ */
+@Data
+@NoArgsConstructor
+public class TransactionSession {
+    private UUID tenantId;
+    private String transactionId;
+    private String bapId;
+    /** Beckn provider ID as sent by the buyer app. */
+    private String providerId;
+    private UUID ondcProviderId;
+    private CartQuote quote;
+    private JsonNode billing;
+    private JsonNode fulfillment;
+    /** The last action that updated the session, e.g. "select" or "init". */
+    private String lastAction;
+    private long updatedAt;
+
+    public TransactionSession(UUID tenantId, String transactionId, String bapId) {
+        this.tenantId = tenantId;
+        this.transactionId = transactionId;
+        this.bapId = bapId;
+    }
+
+    /**
+     * Whether this session belongs to the given buyer app and provider; a provider ID
+     * of null matches any provider.
+     */
+    public boolean matches(String bapId, String providerId) {
+        return Objects.equals(this.bapId, bapId)
+                && (providerId == null || providerId.equals(this.providerId));
+    }
+}
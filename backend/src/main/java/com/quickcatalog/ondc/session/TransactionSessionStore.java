@@ -0,0 +1,148 @@
+package com.quickcatalog.ondc.session;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickcatalog.ondc.config.OndcProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Transaction sessions keyed by (tenant, Beckn transaction_id). Sessions are held in a
+ * bounded in-memory map and dropped once idle for the configured TTL. With
+ * {@code ondc.session.persist} they are also written through to
+ * ondc_transaction_session, and a session missing locally is read from there, so a
+ * transaction can move between nodes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransactionSessionStore {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO ondc_transaction_session (tenant_id, transaction_id, state, expires_at) " +
+            "VALUES (?, ?, CAST(? AS jsonb), NOW() + ? * INTERVAL '1 minute') " +
+            "ON CONFLICT (tenant_id, transaction_id) DO UPDATE SET " +
+            "state = EXCLUDED.state, expires_at = EXCLUDED.expires_at";
+
+    private static final String SELECT_SQL =
+            "SELECT state FROM ondc_transaction_session " +
+            "WHERE tenant_id = ? AND transaction_id = ? AND expires_at > NOW()";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final OndcProperties ondcProperties;
+
+    private final Map<String, TransactionSession> sessions = new ConcurrentHashMap<>();
+
+    public Optional<TransactionSession> get(UUID tenantId, String transactionId) {
+        if (transactionId == null) {
+            return Optional.empty();
+        }
+        String key = key(tenantId, transactionId);
+        TransactionSession session = sessions.get(key);
+        long now = System.currentTimeMillis();
+        if (session != null) {
+            if (!isExpired(session, now)) {
+                return Optional.of(session);
+            }
+            sessions.remove(key, session);
+        }
+        if (!ondcProperties.getSession().isPersist()) {
+            return Optional.empty();
+        }
+        return load(tenantId, transactionId).map(loaded -> {
+            sessions.put(key, loaded);
+            return loaded;
+        });
+    }
+
+    /**
+     * Store the session after a step of the transaction. Failing to persist it is
+     * logged and otherwise ignored: later steps just resolve everything again.
+     */
+    public void put(TransactionSession session, String action) {
+        if (session.getTransactionId() == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        session.setLastAction(action);
+        session.setUpdatedAt(now);
+
+        OndcProperties.SessionConfig config = ondcProperties.getSession();
+        if (sessions.size() >= config.getMaxSessions()) {
+            sessions.values().removeIf(existing -> isExpired(existing, now));
+            if (sessions.size() >= config.getMaxSessions()) {
+                evictLeastRecentlyUpdated(config.getMaxSessions() / 10);
+            }
+        }
+        sessions.put(key(session.getTenantId(), session.getTransactionId()), session);
+
+        if (config.isPersist()) {
+            try {
+                jdbcTemplate.update(UPSERT_SQL, session.getTenantId(), session.getTransactionId(),
+                        objectMapper.writeValueAsString(session), config.getTtlMinutes());
+            } catch (Exception e) {
+                log.warn("Failed to persist session for transaction {}: {}",
+                        session.getTransactionId(), e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ondc.session.purge-interval-ms:300000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        sessions.values().removeIf(session -> isExpired(session, now));
+        if (ondcProperties.getSession().isPersist()) {
+            int purged = jdbcTemplate.update("DELETE FROM ondc_transaction_session WHERE expires_at <= NOW()");
+            if (purged > 0) {
+                log.debug("Purged {} expired transaction sessions", purged);
+            }
+        }
+    }
+
+    /**
+     * Drops a batch of the sessions idle the longest, so the scan is not repeated for
+     * every new transaction while the map stays full. With persistence on they are
+     * read back from the table if their transaction continues.
+     */
+    private void evictLeastRecentlyUpdated(int count) {
+        sessions.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().getUpdatedAt()))
+                .limit(Math.max(count, 1))
+                .toList()
+                .forEach(entry -> sessions.remove(entry.getKey(), entry.getValue()));
+    }
+
+    private Optional<TransactionSession> load(UUID tenantId, String transactionId) {
+        try {
+            List<String> states = jdbcTemplate.queryForList(SELECT_SQL, String.class, tenantId, transactionId);
+            if (states.isEmpty()) {
+                return Optional.empty();
+            }
+            TransactionSession session = objectMapper.readValue(states.get(0), TransactionSession.class);
+            // The row's expiry is authoritative; restart the local TTL from now
+            session.setUpdatedAt(System.currentTimeMillis());
+            return Optional.of(session);
+        } catch (Exception e) {
+            log.warn("Failed to load session for transaction {}: {}", transactionId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private boolean isExpired(TransactionSession session, long now) {
+        return now - session.getUpdatedAt() > ondcProperties.getSession().getTtlMinutes() * 60_000;
+    }
+
+    private static String key(UUID tenantId, String transactionId) {
+        return tenantId + "|" + transactionId;
+    }
+}
@@ -6,18 +6,61 @@ import com.quickcatalog.entity.enums.EntityType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 public interface ActivityLogRepository extends JpaRepository<ActivityLog, UUID> {
-    List<ActivityLog> findTop20ByTenantIdOrderByCreatedAtDesc(UUID tenantId);
+    // activity_log is range-partitioned on created_at; the lower bound lets Postgres prune old partitions
+    List<ActivityLog> findTop20ByTenantIdAndCreatedAtAfterOrderByCreatedAtDesc(UUID tenantId, LocalDateTime since);
 
-    Page<ActivityLog> findByTenantIdOrderByCreatedAtDesc(UUID tenantId, Pageable pageable);
+    Page<ActivityLog> findByTenantIdAndCreatedAtAfterOrderByCreatedAtDescIdDesc(UUID tenantId, LocalDateTime since, Pageable pageable);
 
-    Page<ActivityLog> findByTenantIdAndEntityTypeOrderByCreatedAtDesc(UUID tenantId, EntityType entityType, Pageable pageable);
+    Page<ActivityLog> findByTenantIdAndEntityTypeAndCreatedAtAfterOrderByCreatedAtDescIdDesc(UUID tenantId, EntityType entityType, LocalDateTime since, Pageable pageable);
 
-    Page<ActivityLog> findByTenantIdAndActionOrderByCreatedAtDesc(UUID tenantId, ActionType action, Pageable pageable);
+    Page<ActivityLog> findByTenantIdAndActionAndCreatedAtAfterOrderByCreatedAtDescIdDesc(UUID tenantId, ActionType action, LocalDateTime since, Pageable pageable);
 
-    Page<ActivityLog> findByTenantIdAndEntityTypeAndActionOrderByCreatedAtDesc(UUID tenantId, EntityType entityType, ActionType action, Pageable pageable);
+    Page<ActivityLog> findByTenantIdAndEntityTypeAndActionAndCreatedAtAfterOrderByCreatedAtDescIdDesc(UUID tenantId, EntityType entityType, ActionType action, LocalDateTime since, Pageable pageable);
+
+    // Keyset pages: entries after (createdAt, id) in the same newest-first order, still bounded below by since
+    @Query("SELECT a FROM ActivityLog a WHERE a.tenantId = :tenantId AND a.createdAt > :since " +
+            "AND (a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id)) " +
+            "ORDER BY a.createdAt DESC, a.id DESC")
+    List<ActivityLog> findByTenantIdAfter(@Param("tenantId") UUID tenantId, @Param("since") LocalDateTime since,
+                                          @Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id,
+                                          Pageable pageable);
+
+    @Query("SELECT a FROM ActivityLog a WHERE a.tenantId = :tenantId AND a.entityType = :entityType " +
+            "AND a.createdAt > :since " +
+            "AND (a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id)) " +
+            "ORDER BY a.createdAt DESC, a.id DESC")
+    List<ActivityLog> findByTenantIdAndEntityTypeAfter(@Param("tenantId") UUID tenantId,
+                                                       @Param("entityType") EntityType entityType,
+                                                       @Param("since") LocalDateTime since,
+                                                       @Param("createdAt") LocalDateTime createdAt,
+                                                       @Param("id") UUID id, Pageable pageable);
+
+    @Query("SELECT a FROM ActivityLog a WHERE a.tenantId = :tenantId AND a.action = :action " +
+            "AND a.createdAt > :since " +
+            "AND (a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id)) " +
+            "ORDER BY a.createdAt DESC, a.id DESC")
+    List<ActivityLog> findByTenantIdAndActionAfter(@Param("tenantId") UUID tenantId,
+                                                   @Param("action") ActionType action,
+                                                   @Param("since") LocalDateTime since,
+                                                   @Param("createdAt") LocalDateTime createdAt,
+                                                   @Param("id") UUID id, Pageable pageable);
+
+    @Query("SELECT a FROM ActivityLog a WHERE a.tenantId = :tenantId AND a.entityType = :entityType " +
+            "AND a.action = :action AND a.createdAt > :since " +
+            "AND (a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id)) " +
+            "ORDER BY a.createdAt DESC, a.id DESC")
+    List<ActivityLog> findByTenantIdAndEntityTypeAndActionAfter(@Param("tenantId") UUID tenantId,
+                                                                @Param("entityType") EntityType entityType,
+                                                                @Param("action") ActionType action,
+                                                                @Param("since") LocalDateTime since,
+                                                                @Param("createdAt") LocalDateTime createdAt,
+                                                                @Param("id") UUID id, Pageable pageable);
 }
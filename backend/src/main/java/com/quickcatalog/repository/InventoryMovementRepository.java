@@ -0,0 +1,13 @@
+package com.quickcatalog.repository;
+
+import com.quickcatalog.entity.InventoryMovement;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface InventoryMovementRepository extends JpaRepository<InventoryMovement, UUID> {
+
+    Page<InventoryMovement> findByTenantIdAndProductIdOrderByCreatedAtDesc(UUID tenantId, UUID productId, Pageable pageable);
+}
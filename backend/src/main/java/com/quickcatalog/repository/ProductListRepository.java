@@ -0,0 +1,182 @@
+package com.quickcatalog.repository;
+
+import com.quickcatalog.dto.common.PageCursor;
+import com.quickcatalog.dto.product.ProductListResponse;
+import com.quickcatalog.entity.enums.ProductStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Read path for the product grid. Selects only the grid columns, with the category name
+ * and primary image thumbnail joined in, so a page is one statement and no entities
+ * are loaded. Pages after the first can also be fetched by keyset from a
+ * {@link PageCursor}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductListRepository {
+
+    private static final String SELECT_SQL =
+            "SELECT p.id, p.name, p.sku, img.thumbnail_url, c.name AS category_name, p.mrp, p.selling_price, " +
+            "CAST(p.gst_rate AS text) AS gst_rate, CAST(p.status AS text) AS status, p.current_stock, " +
+            "p.low_stock_threshold, p.track_inventory, p.tags, p.created_at ";
+
+    private static final String FROM_SQL =
+            "FROM product p " +
+            "LEFT JOIN category c ON c.id = p.category_id " +
+            "LEFT JOIN LATERAL (SELECT pi.thumbnail_url FROM product_image pi " +
+            "WHERE pi.product_id = p.id AND pi.is_primary = TRUE ORDER BY pi.sort_order LIMIT 1) img ON TRUE ";
+
+    /** Sortable entity properties and their columns. */
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "createdAt", "p.created_at",
+            "name", "p.name",
+            "sellingPrice", "p.selling_price");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A page of the tenant's products, optionally limited to a category and a status.
+     * Without a status, archived products are left out. The total is not counted here;
+     * it comes from {@link com.quickcatalog.service.ProductCountService}.
+     */
+    public List<ProductListResponse> findPage(UUID tenantId, UUID categoryId, ProductStatus status, Pageable pageable) {
+        List<Object> args = new ArrayList<>();
+        String where = where(tenantId, categoryId, status, args);
+        args.add(pageable.getPageSize());
+        args.add(pageable.getOffset());
+        return jdbcTemplate.query(SELECT_SQL + FROM_SQL + where + orderBy(pageable.getSort()) + " LIMIT ? OFFSET ?",
+                (rs, rowNum) -> mapRow(rs), args.toArray());
+    }
+
+    /**
+     * Up to {@code limit} products following the cursor in the given sort order, found by
+     * seeking on (sort column, id) rather than skipping rows, so every page costs the same.
+     */
+    public List<ProductListResponse> findAfter(UUID tenantId, UUID categoryId, ProductStatus status, Sort sort,
+                                               PageCursor cursor, int limit) {
+        Sort.Order order = sortOrder(sort);
+        String column = SORT_COLUMNS.get(order.getProperty());
+        List<Object> args = new ArrayList<>();
+        StringBuilder where = new StringBuilder(where(tenantId, categoryId, status, args));
+
+        // Postgres sorts NULLs last ascending and first descending; the seek follows that order
+        Object value = switch (order.getProperty()) {
+            case "createdAt" -> cursor.timestampValue() != null ? Timestamp.valueOf(cursor.timestampValue()) : null;
+            case "sellingPrice" -> cursor.decimalValue();
+            default -> cursor.getValue();
+        };
+        if (value != null && order.getProperty().equals("createdAt")) {
+            // created_at is always set, so a row comparison can seek straight along the index
+            where.append(" AND (p.created_at, p.id) ").append(order.isAscending() ? ">" : "<").append(" (?, ?)");
+            args.add(value);
+        } else if (order.isAscending()) {
+            if (value != null) {
+                where.append(" AND (").append(column).append(" > ? OR (").append(column)
+                        .append(" = ? AND p.id > ?) OR ").append(column).append(" IS NULL)");
+                args.add(value);
+                args.add(value);
+            } else {
+                where.append(" AND ").append(column).append(" IS NULL AND p.id > ?");
+            }
+        } else {
+            if (value != null) {
+                where.append(" AND (").append(column).append(" < ? OR (").append(column)
+                        .append(" = ? AND p.id < ?))");
+                args.add(value);
+                args.add(value);
+            } else {
+                where.append(" AND (").append(column).append(" IS NOT NULL OR p.id < ?)");
+            }
+        }
+        args.add(cursor.getId());
+        args.add(limit);
+
+        return jdbcTemplate.query(SELECT_SQL + FROM_SQL + where + orderBy(sort) + " LIMIT ?",
+                (rs, rowNum) -> mapRow(rs), args.toArray());
+    }
+
+    /**
+     * Cursor positioned after the given row of a list in the given sort order.
+     */
+    public static String cursorAfter(ProductListResponse row, Sort sort) {
+        String sortKey = sortOrder(sort).getProperty();
+        Object value = switch (sortKey) {
+            case "name" -> row.getName();
+            case "sellingPrice" -> row.getSellingPrice();
+            default -> row.getCreatedAt();
+        };
+        return PageCursor.encode(sortKey, value, row.getId());
+    }
+
+    public static String sortKey(Sort sort) {
+        return sortOrder(sort).getProperty();
+    }
+
+    private static Sort.Order sortOrder(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (SORT_COLUMNS.containsKey(order.getProperty())) {
+                return order;
+            }
+        }
+        return Sort.Order.desc("createdAt");
+    }
+
+    private static String where(UUID tenantId, UUID categoryId, ProductStatus status, List<Object> args) {
+        StringBuilder where = new StringBuilder("WHERE p.tenant_id = ?");
+        args.add(tenantId);
+        if (categoryId != null) {
+            where.append(" AND p.category_id = ?");
+            args.add(categoryId);
+        }
+        if (status != null) {
+            where.append(" AND p.status = CAST(? AS product_status)");
+            args.add(status.name());
+        } else {
+            where.append(" AND p.status != 'ARCHIVED'");
+        }
+        return where.toString();
+    }
+
+    private static String orderBy(Sort sort) {
+        Sort.Order order = sortOrder(sort);
+        String direction = order.isAscending() ? "ASC" : "DESC";
+        // Tie-break on id so rows with equal sort values keep a stable order across pages
+        return " ORDER BY " + SORT_COLUMNS.get(order.getProperty()) + " " + direction + ", p.id " + direction;
+    }
+
+    private static ProductListResponse mapRow(ResultSet rs) throws SQLException {
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        int lowStockThreshold = rs.getInt("low_stock_threshold");
+        boolean noThreshold = rs.wasNull();
+        Array tags = rs.getArray("tags");
+        return ProductListResponse.builder()
+                .id(rs.getObject("id", UUID.class))
+                .name(rs.getString("name"))
+                .sku(rs.getString("sku"))
+                .thumbnailUrl(rs.getString("thumbnail_url"))
+                .categoryName(rs.getString("category_name"))
+                .mrp(rs.getBigDecimal("mrp"))
+                .sellingPrice(rs.getBigDecimal("selling_price"))
+                .gstRate(rs.getString("gst_rate"))
+                .status(rs.getString("status"))
+                .currentStock(rs.getBigDecimal("current_stock"))
+                .lowStockThreshold(noThreshold ? null : lowStockThreshold)
+                .trackInventory(rs.getBoolean("track_inventory"))
+                .tags(tags != null ? (String[]) tags.getArray() : null)
+                .createdAt(createdAt != null ? createdAt.toLocalDateTime() : null)
+                .build();
+    }
+}
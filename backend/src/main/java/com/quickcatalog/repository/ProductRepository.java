@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,6 +17,8 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
 
     Optional<Product> findByIdAndTenantId(UUID id, UUID tenantId);
 
+    boolean existsByIdAndTenantId(UUID id, UUID tenantId);
+
     Page<Product> findByTenantIdAndStatusNot(UUID tenantId, ProductStatus status, Pageable pageable);
 
     Page<Product> findByTenantIdAndStatus(UUID tenantId, ProductStatus status, Pageable pageable);
@@ -52,6 +55,20 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
     @Query("SELECT p FROM Product p LEFT JOIN FETCH p.images WHERE p.id = :id AND p.tenantId = :tenantId")
     Optional<Product> findByIdAndTenantIdWithImages(@Param("id") UUID id, @Param("tenantId") UUID tenantId);
 
+    // Batched ONDC catalog loading - callers chunk the ID list to keep IN clauses bounded
+    @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.images WHERE p.id IN :ids AND p.tenantId = :tenantId AND p.status = 'ACTIVE'")
+    List<Product> findActiveByIdInAndTenantIdWithImages(@Param("ids") Collection<UUID> ids, @Param("tenantId") UUID tenantId);
+
+    /**
+     * Resolve cart item IDs, each naming either a product or a product variant, in one
+     * query. Returns [Product, ProductVariant] pairs; the variant is null for rows where
+     * the ID named the product itself.
+     */
+    @Query("SELECT p, v FROM Product p LEFT JOIN ProductVariant v ON v.productId = p.id AND v.id IN :ids " +
+            "WHERE p.tenantId = :tenantId AND (p.id IN :ids " +
+            "OR p.id IN (SELECT pv.productId FROM ProductVariant pv WHERE pv.id IN :ids))")
+    List<Object[]> findWithVariantsByItemIds(@Param("ids") Collection<UUID> ids, @Param("tenantId") UUID tenantId);
+
     // Duplicate detection - name similarity using pg_trgm
     @Query(value = """
             SELECT p.* FROM product p
@@ -80,20 +97,4 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
             @Param("tenantId") UUID tenantId,
             @Param("excludeId") UUID excludeId,
             @Param("sku") String sku);
-
-    // Dashboard catalog health queries
-    @Query(value = "SELECT COUNT(DISTINCT p.id) FROM product p JOIN product_image pi ON p.id = pi.product_id WHERE p.tenant_id = :tenantId AND p.status != 'ARCHIVED'", nativeQuery = true)
-    long countProductsWithImages(@Param("tenantId") UUID tenantId);
-
-    @Query(value = "SELECT COUNT(*) FROM product WHERE tenant_id = :tenantId AND status != 'ARCHIVED' AND short_description IS NOT NULL AND short_description != ''", nativeQuery = true)
-    long countProductsWithDescriptions(@Param("tenantId") UUID tenantId);
-
-    @Query(value = "SELECT COUNT(*) FROM product WHERE tenant_id = :tenantId AND status != 'ARCHIVED' AND seo_title IS NOT NULL AND seo_title != ''", nativeQuery = true)
-    long countProductsWithSeo(@Param("tenantId") UUID tenantId);
-
-    @Query(value = "SELECT COUNT(*) FROM product WHERE tenant_id = :tenantId AND status != 'ARCHIVED' AND barcode_value IS NOT NULL AND barcode_value != ''", nativeQuery = true)
-    long countProductsWithBarcode(@Param("tenantId") UUID tenantId);
-
-    @Query(value = "SELECT COUNT(*) FROM product WHERE tenant_id = :tenantId AND status != 'ARCHIVED' AND hsn_code IS NOT NULL AND hsn_code != ''", nativeQuery = true)
-    long countProductsWithHsn(@Param("tenantId") UUID tenantId);
 }
@@ -10,6 +10,7 @@ import com.quickcatalog.entity.BulkImportJob;
 import com.quickcatalog.entity.Category;
 import com.quickcatalog.entity.Product;
 import com.quickcatalog.entity.enums.*;
+import com.quickcatalog.event.ProductChangedEvent;
 import com.quickcatalog.exception.ResourceNotFoundException;
 import com.quickcatalog.repository.BulkImportJobRepository;
 import com.quickcatalog.repository.CategoryRepository;
@@ -18,6 +19,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -39,6 +41,8 @@ public class BulkImportService {
     private final CategoryRepository categoryRepository;
     private final ActivityLogService activityLogService;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryLedgerService ledgerService;
 
     private static final String[] TEMPLATE_HEADERS = {
             "Name", "SKU", "Category", "Brand", "MRP", "SellingPrice",
@@ -117,7 +121,10 @@ public class BulkImportService {
                 try {
                     Product product = validateAndCreateProduct(row, rowNum, rowErrors, tenantId, userId);
                     if (product != null && rowErrors.isEmpty()) {
-                        productRepository.save(product);
+                        product = productRepository.save(product);
+                        ledgerService.recordAdjustment(tenantId, product.getId(), null,
+                                null, product.getCurrentStock(), userId, "Imported stock");
+                        eventPublisher.publishEvent(new ProductChangedEvent(tenantId, product.getId()));
                         successCount++;
                     } else {
                         errorCount++;
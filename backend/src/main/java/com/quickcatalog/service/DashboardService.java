@@ -12,33 +12,62 @@ import com.quickcatalog.dto.dashboard.RecentActivityResponse;
 import com.quickcatalog.entity.ActivityLog;
 import com.quickcatalog.entity.Category;
 import com.quickcatalog.entity.enums.ProductStatus;
+import com.quickcatalog.event.ProductChangedEvent;
 import com.quickcatalog.repository.ActivityLogRepository;
 import com.quickcatalog.repository.CategoryRepository;
-import com.quickcatalog.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class DashboardService {
 
-    private final ProductRepository productRepository;
+    /** Product counts per category and status, with the completeness checks counted over non-archived products. */
+    private static final String CATALOG_HEALTH_SQL =
+            "SELECT p.category_id, CAST(p.status AS text) AS status, COUNT(*) AS products, " +
+            "COUNT(*) FILTER (WHERE p.status != 'ARCHIVED' " +
+            "AND EXISTS (SELECT 1 FROM product_image pi WHERE pi.product_id = p.id)) AS with_images, " +
+            "COUNT(*) FILTER (WHERE p.status != 'ARCHIVED' AND p.short_description != '') AS with_descriptions, " +
+            "COUNT(*) FILTER (WHERE p.status != 'ARCHIVED' AND p.seo_title != '') AS with_seo, " +
+            "COUNT(*) FILTER (WHERE p.status != 'ARCHIVED' AND p.barcode_value != '') AS with_barcode, " +
+            "COUNT(*) FILTER (WHERE p.status != 'ARCHIVED' AND p.hsn_code != '') AS with_hsn " +
+            "FROM product p WHERE p.tenant_id = ? " +
+            "GROUP BY p.category_id, p.status";
+
+    private final JdbcTemplate jdbcTemplate;
     private final ActivityLogRepository activityLogRepository;
     private final ChannelRepository channelRepository;
     private final ProductChannelListingRepository channelListingRepository;
     private final CategoryRepository categoryRepository;
+    private final ProductCountService productCountService;
+
+    @Value("${app.log-retention.activity-log-months:24}")
+    private int activityRetentionMonths;
+
+    @Value("${app.catalog-health.ttl-seconds:60}")
+    private long catalogHealthTtlSeconds;
+
+    @Value("${app.catalog-health.max-tenants:1000}")
+    private int catalogHealthMaxTenants;
+
+    private final Map<UUID, TenantHealth> healthCache = new ConcurrentHashMap<>();
 
     public DashboardSummaryResponse getSummary() {
         UUID tenantId = TenantContext.getTenantId();
 
-        long total = productRepository.countByTenantId(tenantId);
-        long active = productRepository.countByTenantIdAndStatus(tenantId, ProductStatus.ACTIVE);
-        long draft = productRepository.countByTenantIdAndStatus(tenantId, ProductStatus.DRAFT);
-        long inactive = productRepository.countByTenantIdAndStatus(tenantId, ProductStatus.INACTIVE);
-        long lowStock = productRepository.findLowStock(tenantId).size();
+        long total = productCountService.total(tenantId);
+        long active = productCountService.countByStatus(tenantId, ProductStatus.ACTIVE);
+        long draft = productCountService.countByStatus(tenantId, ProductStatus.DRAFT);
+        long inactive = productCountService.countByStatus(tenantId, ProductStatus.INACTIVE);
+        long lowStock = productCountService.lowStock(tenantId);
 
         return DashboardSummaryResponse.builder()
                 .totalProducts(total)
@@ -51,7 +80,8 @@ public class DashboardService {
 
     public List<RecentActivityResponse> getRecentActivity() {
         UUID tenantId = TenantContext.getTenantId();
-        List<ActivityLog> logs = activityLogRepository.findTop20ByTenantIdOrderByCreatedAtDesc(tenantId);
+        List<ActivityLog> logs = activityLogRepository.findTop20ByTenantIdAndCreatedAtAfterOrderByCreatedAtDesc(
+                tenantId, LocalDateTime.now().minusMonths(activityRetentionMonths));
 
         return logs.stream()
                 .map(log -> RecentActivityResponse.builder()
@@ -85,15 +115,82 @@ public class DashboardService {
         }).collect(Collectors.toList());
     }
 
+    /**
+     * Completeness and distribution of the tenant's catalog. The report is computed by one
+     * aggregate query grouped by category and status, and kept per tenant for a short
+     * time; any product write for the tenant drops it. A report whose computation
+     * overlapped such a write is returned but not kept. Stock movements are ignored, as
+     * the report does not count stock.
+     */
     public CatalogHealthResponse getCatalogHealth() {
         UUID tenantId = TenantContext.getTenantId();
+        long now = System.currentTimeMillis();
+        TenantHealth health = healthCache.get(tenantId);
+        if (health == null) {
+            if (healthCache.size() >= catalogHealthMaxTenants) {
+                evictLeastRecentlyUsed();
+            }
+            health = healthCache.computeIfAbsent(tenantId, id -> new TenantHealth());
+        }
+        health.lastUsedAt = now;
+        CachedHealth cached = health.cached;
+        if (cached != null && now - cached.computedAt < catalogHealthTtlSeconds * 1000L) {
+            return cached.response;
+        }
+        long stamp = health.evictions;
+        CatalogHealthResponse response = computeCatalogHealth(tenantId);
+        health.store(stamp, new CachedHealth(response, now));
+        return response;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isStockOnly()) {
+            return;
+        }
+        TenantHealth health = healthCache.get(event.getTenantId());
+        if (health != null) {
+            health.evict();
+        }
+    }
+
+    private void evictLeastRecentlyUsed() {
+        healthCache.entrySet().stream()
+                .min(Comparator.comparingLong(entry -> entry.getValue().lastUsedAt))
+                .ifPresent(entry -> healthCache.remove(entry.getKey(), entry.getValue()));
+    }
+
+    private CatalogHealthResponse computeCatalogHealth(UUID tenantId) {
+        long total = 0;
+        long withImages = 0;
+        long withDesc = 0;
+        long withSeo = 0;
+        long withBarcode = 0;
+        long withHsn = 0;
+        long[] statusCounts = new long[ProductStatus.values().length];
+        Map<UUID, Long> categoryCounts = new HashMap<>();
 
-        long total = productRepository.countByTenantId(tenantId);
-        long withImages = productRepository.countProductsWithImages(tenantId);
-        long withDesc = productRepository.countProductsWithDescriptions(tenantId);
-        long withSeo = productRepository.countProductsWithSeo(tenantId);
-        long withBarcode = productRepository.countProductsWithBarcode(tenantId);
-        long withHsn = productRepository.countProductsWithHsn(tenantId);
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(CATALOG_HEALTH_SQL, tenantId);
+        for (Map<String, Object> row : rows) {
+            long products = ((Number) row.get("products")).longValue();
+            total += products;
+            withImages += ((Number) row.get("with_images")).longValue();
+            withDesc += ((Number) row.get("with_descriptions")).longValue();
+            withSeo += ((Number) row.get("with_seo")).longValue();
+            withBarcode += ((Number) row.get("with_barcode")).longValue();
+            withHsn += ((Number) row.get("with_hsn")).longValue();
+
+            String status = (String) row.get("status");
+            if (status == null) {
+                continue;
+            }
+            ProductStatus productStatus = ProductStatus.valueOf(status);
+            statusCounts[productStatus.ordinal()] += products;
+            UUID categoryId = (UUID) row.get("category_id");
+            if (categoryId != null && productStatus != ProductStatus.ARCHIVED) {
+                categoryCounts.merge(categoryId, products, Long::sum);
+            }
+        }
 
         int completeness = total == 0 ? 0 :
                 (int) ((withImages + withDesc + withSeo + withBarcode + withHsn) * 100 / (total * 5));
@@ -101,7 +198,7 @@ public class DashboardService {
         // Status distribution
         Map<String, Long> statusDist = new LinkedHashMap<>();
         for (ProductStatus status : ProductStatus.values()) {
-            long count = productRepository.countByTenantIdAndStatus(tenantId, status);
+            long count = statusCounts[status.ordinal()];
             if (count > 0) {
                 statusDist.put(status.name(), count);
             }
@@ -111,9 +208,7 @@ public class DashboardService {
         Map<String, Long> categoryDist = new LinkedHashMap<>();
         List<Category> categories = categoryRepository.findByTenantIdAndIsActiveTrueOrderBySortOrder(tenantId);
         for (Category cat : categories) {
-            long count = productRepository.findByTenantIdAndCategoryIdAndStatusNot(
-                    tenantId, cat.getId(), ProductStatus.ARCHIVED,
-                    org.springframework.data.domain.Pageable.unpaged()).getTotalElements();
+            long count = categoryCounts.getOrDefault(cat.getId(), 0L);
             if (count > 0) {
                 categoryDist.put(cat.getName(), count);
             }
@@ -131,4 +226,35 @@ public class DashboardService {
                 .categoryDistribution(categoryDist)
                 .build();
     }
+
+    /**
+     * The tenant's cached report and a count of the writes that dropped it. A report is
+     * kept only if no write was counted while it was computed.
+     */
+    private static final class TenantHealth {
+        volatile CachedHealth cached;
+        volatile long evictions;
+        volatile long lastUsedAt = System.currentTimeMillis();
+
+        synchronized void store(long stamp, CachedHealth computed) {
+            if (evictions == stamp) {
+                cached = computed;
+            }
+        }
+
+        synchronized void evict() {
+            evictions++;
+            cached = null;
+        }
+    }
+
+    private static final class CachedHealth {
+        final CatalogHealthResponse response;
+        final long computedAt;
+
+        CachedHealth(CatalogHealthResponse response, long computedAt) {
+            this.response = response;
+            this.computedAt = computedAt;
+        }
+    }
 }
@@ -0,0 +1,163 @@
+package com.quickcatalog.service;
+
+import com.quickcatalog.config.TenantContext;
+import com.quickcatalog.dto.common.PagedResponse;
+import com.quickcatalog.dto.product.InventoryMovementResponse;
+import com.quickcatalog.entity.InventoryMovement;
+import com.quickcatalog.entity.enums.InventoryMovementType;
+import com.quickcatalog.exception.ResourceNotFoundException;
+import com.quickcatalog.repository.InventoryMovementRepository;
+import com.quickcatalog.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only inventory ledger. Every stock movement is written to inventory_movement
+ * and applied to the SKU's row in inventory_balance in the same transaction, so the
+ * balance is always the running total of the ledger and can be read by key; ONDC
+ * availability is read from it through {@link com.quickcatalog.ondc.inventory.StockAvailabilityCache}.
+ */
+@Service
+@RequiredArgsConstructor
+public class InventoryLedgerService {
+
+    private static final String INSERT_MOVEMENT_SQL =
+            "INSERT INTO inventory_movement (tenant_id, product_id, variant_id, movement_type, quantity, " +
+            "reference, note, created_by) VALUES (?, ?, ?, CAST(? AS inventory_movement_type), ?, ?, ?, ?)";
+
+    private static final String APPLY_BALANCE_SQL =
+            "INSERT INTO inventory_balance (tenant_id, product_id, variant_id, available, reserved, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, NOW()) " +
+            "ON CONFLICT (product_id, variant_id) DO UPDATE SET " +
+            "available = inventory_balance.available + EXCLUDED.available, " +
+            "reserved = inventory_balance.reserved + EXCLUDED.reserved, updated_at = NOW()";
+
+    private static final String SET_AVAILABLE_SQL =
+            "INSERT INTO inventory_balance (tenant_id, product_id, variant_id, available, updated_at) " +
+            "VALUES (?, ?, ?, ?, NOW()) " +
+            "ON CONFLICT (product_id, variant_id) DO UPDATE SET " +
+            "available = EXCLUDED.available, updated_at = NOW()";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductRepository productRepository;
+    private final InventoryMovementRepository movementRepository;
+
+    /**
+     * Build a movement; quantity is the number of units moved (signed for ADJUST).
+     */
+    public static InventoryMovement movement(UUID tenantId, UUID productId, UUID variantId,
+                                             InventoryMovementType type, BigDecimal quantity, String reference) {
+        InventoryMovement movement = new InventoryMovement();
+        movement.setTenantId(tenantId);
+        movement.setProductId(productId);
+        movement.setVariantId(variantId);
+        movement.setMovementType(type);
+        movement.setQuantity(quantity);
+        movement.setReference(reference);
+        return movement;
+    }
+
+    /**
+     * Append movements and apply them to the balances, each as one JDBC batch.
+     */
+    @Transactional
+    public void record(List<InventoryMovement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        insertMovements(movements);
+        jdbcTemplate.batchUpdate(APPLY_BALANCE_SQL, movements, movements.size(), (ps, movement) -> {
+            BigDecimal quantity = movement.getQuantity();
+            ps.setObject(1, movement.getTenantId());
+            ps.setObject(2, movement.getProductId());
+            ps.setObject(3, movement.getVariantId());
+            ps.setBigDecimal(4, availableDelta(movement.getMovementType(), quantity));
+            ps.setBigDecimal(5, reservedDelta(movement.getMovementType(), quantity));
+        });
+    }
+
+    /**
+     * Record a manual stock edit from {@code previous} to {@code current}. The balance is
+     * set to the new level rather than shifted by the difference, so an edit also
+     * corrects any drift.
+     */
+    @Transactional
+    public void recordAdjustment(UUID tenantId, UUID productId, UUID variantId,
+                                 BigDecimal previous, BigDecimal current, UUID userId, String note) {
+        BigDecimal from = previous != null ? previous : BigDecimal.ZERO;
+        BigDecimal to = current != null ? current : BigDecimal.ZERO;
+        if (from.compareTo(to) == 0) {
+            return;
+        }
+        InventoryMovement movement = movement(tenantId, productId, variantId,
+                InventoryMovementType.ADJUST, to.subtract(from), null);
+        movement.setNote(note);
+        movement.setCreatedBy(userId);
+        insertMovements(List.of(movement));
+        jdbcTemplate.update(SET_AVAILABLE_SQL, tenantId, productId, variantId, to);
+    }
+
+    /**
+     * A product's movements, newest first, for auditing how its stock got to where it is.
+     */
+    @Transactional(readOnly = true)
+    public PagedResponse<InventoryMovementResponse> getMovements(UUID productId, int page, int size) {
+        UUID tenantId = TenantContext.getTenantId();
+        if (!productRepository.existsByIdAndTenantId(productId, tenantId)) {
+            throw new ResourceNotFoundException("Product", "id", productId);
+        }
+        Page<InventoryMovement> movements = movementRepository.findByTenantIdAndProductIdOrderByCreatedAtDesc(
+                tenantId, productId, PageRequest.of(page, size));
+        List<InventoryMovementResponse> content = movements.getContent().stream()
+                .map(movement -> InventoryMovementResponse.builder()
+                        .id(movement.getId())
+                        .variantId(movement.getVariantId())
+                        .movementType(movement.getMovementType().name())
+                        .quantity(movement.getQuantity())
+                        .reference(movement.getReference())
+                        .note(movement.getNote())
+                        .createdBy(movement.getCreatedBy())
+                        .createdAt(movement.getCreatedAt())
+                        .build())
+                .collect(Collectors.toList());
+        return PagedResponse.of(content, page, size, movements.getTotalElements(), movements.getTotalPages());
+    }
+
+    private void insertMovements(List<InventoryMovement> movements) {
+        jdbcTemplate.batchUpdate(INSERT_MOVEMENT_SQL, movements, movements.size(), (ps, movement) -> {
+            ps.setObject(1, movement.getTenantId());
+            ps.setObject(2, movement.getProductId());
+            ps.setObject(3, movement.getVariantId());
+            ps.setString(4, movement.getMovementType().name());
+            ps.setBigDecimal(5, movement.getQuantity());
+            ps.setString(6, movement.getReference());
+            ps.setString(7, movement.getNote());
+            ps.setObject(8, movement.getCreatedBy());
+        });
+    }
+
+    private static BigDecimal availableDelta(InventoryMovementType type, BigDecimal quantity) {
+        return switch (type) {
+            case RESERVE -> quantity.negate();
+            case RELEASE, RETURN, ADJUST -> quantity;
+            case SALE -> BigDecimal.ZERO;
+        };
+    }
+
+    private static BigDecimal reservedDelta(InventoryMovementType type, BigDecimal quantity) {
+        return switch (type) {
+            case RESERVE -> quantity;
+            case RELEASE, SALE -> quantity.negate();
+            case RETURN, ADJUST -> BigDecimal.ZERO;
+        };
+    }
+}
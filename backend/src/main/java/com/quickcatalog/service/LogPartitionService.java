@@ -0,0 +1,111 @@
+package com.quickcatalog.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the range partitions of activity_log (monthly) and ondc_api_log (daily):
+ * creates upcoming partitions ahead of time and drops, or moves to an archive schema,
+ * partitions that are entirely older than the retention period.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LogPartitionService {
+
+    private static final String ACTIVITY_LOG = "activity_log";
+    private static final String ONDC_API_LOG = "ondc_api_log";
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('(\\d{4}-\\d{2}-\\d{2})");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.log-retention.activity-log-months:24}")
+    private int activityLogMonths;
+
+    @Value("${app.log-retention.api-log-days:90}")
+    private int apiLogDays;
+
+    /** When set, expired partitions are moved to this schema instead of being dropped. */
+    @Value("${app.log-retention.archive-schema:}")
+    private String archiveSchema;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${app.log-retention.cron:0 15 2 * * *}")
+    public void maintain() {
+        try {
+            LocalDate today = LocalDate.now();
+
+            LocalDate month = today.withDayOfMonth(1);
+            for (int i = 0; i <= 3; i++) {
+                createPartition(ACTIVITY_LOG, month.plusMonths(i), month.plusMonths(i + 1));
+            }
+            for (int i = 0; i <= 7; i++) {
+                createPartition(ONDC_API_LOG, today.plusDays(i), today.plusDays(i + 1));
+            }
+
+            expirePartitions(ACTIVITY_LOG, month.minusMonths(activityLogMonths));
+            expirePartitions(ONDC_API_LOG, today.minusDays(apiLogDays));
+        } catch (Exception e) {
+            log.error("Log partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void createPartition(String parent, LocalDate from, LocalDate to) {
+        try {
+            jdbcTemplate.queryForObject("SELECT create_log_partition(?, ?, ?)", String.class,
+                    parent, Date.valueOf(from), Date.valueOf(to));
+        } catch (Exception e) {
+            // e.g. rows for this range already landed in the DEFAULT partition
+            log.warn("Could not create {} partition for {}: {}", parent, from, e.getMessage());
+        }
+    }
+
+    /**
+     * Detach every partition whose upper bound is on or before the cutoff, then drop
+     * or archive it. The DEFAULT partition is never touched.
+     */
+    private void expirePartitions(String parent, LocalDate cutoff) {
+        List<Map<String, Object>> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname AS name, pg_get_expr(c.relpartbound, c.oid) AS bound " +
+                "FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = ?", parent);
+
+        for (Map<String, Object> partition : partitions) {
+            String name = (String) partition.get("name");
+            Matcher matcher = UPPER_BOUND.matcher((String) partition.get("bound"));
+            if (!matcher.find()) continue;
+
+            LocalDate upperBound = LocalDate.parse(matcher.group(1));
+            if (upperBound.isAfter(cutoff)) continue;
+
+            jdbcTemplate.execute("ALTER TABLE " + parent + " DETACH PARTITION " + name);
+            if (archiveSchema != null && !archiveSchema.isBlank()) {
+                jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + archiveSchema);
+                jdbcTemplate.execute("ALTER TABLE " + name + " SET SCHEMA " + archiveSchema);
+                log.info("Archived log partition {} to schema {}", name, archiveSchema);
+            } else {
+                jdbcTemplate.execute("DROP TABLE " + name);
+                log.info("Dropped expired log partition {}", name);
+            }
+        }
+    }
+}
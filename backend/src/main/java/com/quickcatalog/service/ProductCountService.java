@@ -0,0 +1,297 @@
+package com.quickcatalog.service;
+
+import com.quickcatalog.entity.enums.ProductStatus;
+import com.quickcatalog.event.ProductChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-tenant product counts held in memory: by status and category, low stock, and
+ * published to ONDC. A tenant's counts are built in one pass over its products on first
+ * use, then kept current by re-reading each product named in a
+ * {@link ProductChangedEvent} and moving it between buckets. Counts of tenants in use
+ * are rebuilt periodically to correct drift from writes that publish no event; idle
+ * tenants are dropped instead. Memory is bounded by the number of products held across
+ * tenants as well as by the number of tenants: per product only a reference to one of
+ * the tenant's few distinct fact combinations is kept, and least recently used tenants
+ * are evicted to make room.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductCountService {
+
+    private static final String FACTS_SQL =
+            "SELECT p.id, CAST(p.status AS text) AS status, p.category_id, " +
+            "COALESCE(p.track_inventory AND p.current_stock <= p.low_stock_threshold " +
+            "AND p.status != 'ARCHIVED', FALSE) AS low_stock, " +
+            "COALESCE(c.published_to_ondc, FALSE) AS published " +
+            "FROM product p LEFT JOIN ondc_product_config c ON c.product_id = p.id " +
+            "WHERE p.tenant_id = ?";
+
+    private static final UUID NO_CATEGORY = new UUID(0, 0);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.product-counts.max-tenants:200}")
+    private int maxTenants;
+
+    @Value("${app.product-counts.max-products:1000000}")
+    private long maxProducts;
+
+    @Value("${app.product-counts.reconcile-interval-ms:600000}")
+    private long reconcileIntervalMs;
+
+    private final Map<UUID, TenantCounts> tenants = new ConcurrentHashMap<>();
+    /** Products changed while their tenant's counts were being rebuilt, re-read after the rebuild. */
+    private final Map<UUID, Set<UUID>> changedDuringRebuild = new ConcurrentHashMap<>();
+
+    /**
+     * Products of the tenant, optionally limited to a category and a status. Without a
+     * status, archived products are left out.
+     */
+    public long count(UUID tenantId, UUID categoryId, ProductStatus status) {
+        return counts(tenantId).count(categoryId, status);
+    }
+
+    /** All products of the tenant, archived included. */
+    public long total(UUID tenantId) {
+        return counts(tenantId).total();
+    }
+
+    public long countByStatus(UUID tenantId, ProductStatus status) {
+        return counts(tenantId).count(null, status);
+    }
+
+    /** Non-archived products per category; products without a category are left out. */
+    public Map<UUID, Long> countByCategory(UUID tenantId) {
+        return counts(tenantId).countByCategory();
+    }
+
+    public long lowStock(UUID tenantId) {
+        return counts(tenantId).lowStock();
+    }
+
+    public long published(UUID tenantId) {
+        return counts(tenantId).published();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Set<UUID> pending = changedDuringRebuild.get(event.getTenantId());
+        if (pending != null) {
+            pending.add(event.getProductId());
+        }
+        TenantCounts counts = tenants.get(event.getTenantId());
+        if (counts != null) {
+            refresh(event.getTenantId(), event.getProductId(), counts);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.product-counts.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<UUID, TenantCounts> entry : tenants.entrySet()) {
+            if (now - entry.getValue().lastUsedAt > reconcileIntervalMs) {
+                tenants.remove(entry.getKey(), entry.getValue());
+                continue;
+            }
+            try {
+                tenants.put(entry.getKey(), load(entry.getKey()));
+            } catch (Exception e) {
+                log.warn("Failed to reconcile product counts for tenant {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    private TenantCounts counts(UUID tenantId) {
+        TenantCounts counts = tenants.get(tenantId);
+        if (counts == null) {
+            // Built outside the map so a slow scan does not block other tenants
+            TenantCounts loaded = load(tenantId);
+            makeRoom(loaded.total());
+            TenantCounts existing = tenants.putIfAbsent(tenantId, loaded);
+            counts = existing != null ? existing : loaded;
+        }
+        counts.lastUsedAt = System.currentTimeMillis();
+        return counts;
+    }
+
+    /**
+     * Evict least recently used tenants until one more tenant with {@code products}
+     * products fits. A tenant larger than the whole budget is still held, on its own.
+     */
+    private void makeRoom(long products) {
+        while (!tenants.isEmpty() && (tenants.size() >= maxTenants || heldProducts() + products > maxProducts)) {
+            evictLeastRecentlyUsed();
+        }
+    }
+
+    private long heldProducts() {
+        long held = 0;
+        for (TenantCounts counts : tenants.values()) {
+            held += counts.total();
+        }
+        return held;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        tenants.entrySet().stream()
+                .min(Comparator.comparingLong(entry -> entry.getValue().lastUsedAt))
+                .ifPresent(entry -> tenants.remove(entry.getKey(), entry.getValue()));
+    }
+
+    private TenantCounts load(UUID tenantId) {
+        Set<UUID> pending = ConcurrentHashMap.newKeySet();
+        changedDuringRebuild.put(tenantId, pending);
+        try {
+            TenantCounts counts = new TenantCounts();
+            jdbcTemplate.query(FACTS_SQL, rs -> {
+                counts.put(rs.getObject("id", UUID.class), facts(rs));
+            }, tenantId);
+            // Products written while the scan ran may have been read before their change
+            for (UUID productId : pending) {
+                refresh(tenantId, productId, counts);
+            }
+            return counts;
+        } finally {
+            changedDuringRebuild.remove(tenantId, pending);
+        }
+    }
+
+    private void refresh(UUID tenantId, UUID productId, TenantCounts counts) {
+        try {
+            List<Facts> rows = jdbcTemplate.query(FACTS_SQL + " AND p.id = ?",
+                    (rs, rowNum) -> facts(rs), tenantId, productId);
+            if (rows.isEmpty()) {
+                counts.remove(productId);
+            } else {
+                counts.put(productId, rows.get(0));
+            }
+        } catch (Exception e) {
+            // The next reconcile corrects the counts
+            log.warn("Failed to refresh product counts for product {}: {}", productId, e.getMessage());
+        }
+    }
+
+    private static Facts facts(ResultSet rs) throws SQLException {
+        String status = rs.getString("status");
+        UUID categoryId = rs.getObject("category_id", UUID.class);
+        return new Facts(status != null ? ProductStatus.valueOf(status) : null,
+                categoryId != null ? categoryId : NO_CATEGORY,
+                rs.getBoolean("low_stock"), rs.getBoolean("published"));
+    }
+
+    /**
+     * What a product contributes to the counts. Equal facts are shared between the
+     * products of a tenant.
+     */
+    private static final class Facts {
+        final ProductStatus status;
+        final UUID categoryId;
+        final boolean lowStock;
+        final boolean published;
+
+        Facts(ProductStatus status, UUID categoryId, boolean lowStock, boolean published) {
+            this.status = status;
+            this.categoryId = categoryId;
+            this.lowStock = lowStock;
+            this.published = published;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Facts other)) return false;
+            return status == other.status && categoryId.equals(other.categoryId)
+                    && lowStock == other.lowStock && published == other.published;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(status, categoryId, lowStock, published);
+        }
+    }
+
+    private static final class TenantCounts {
+        private final Map<UUID, Facts> products = new HashMap<>();
+        /** One instance per distinct combination, so products hold a shared reference. */
+        private final Map<Facts, Facts> distinctFacts = new HashMap<>();
+        /** Per category, counts indexed by status ordinal; the last slot counts a null status. */
+        private final Map<UUID, long[]> byCategory = new HashMap<>();
+        private long lowStock;
+        private long published;
+        volatile long lastUsedAt = System.currentTimeMillis();
+
+        synchronized void put(UUID productId, Facts facts) {
+            remove(productId);
+            facts = distinctFacts.computeIfAbsent(facts, f -> f);
+            products.put(productId, facts);
+            byCategory.computeIfAbsent(facts.categoryId, id -> new long[ProductStatus.values().length + 1])
+                    [slot(facts.status)]++;
+            if (facts.lowStock) lowStock++;
+            if (facts.published) published++;
+        }
+
+        synchronized void remove(UUID productId) {
+            Facts facts = products.remove(productId);
+            if (facts == null) return;
+            long[] statusCounts = byCategory.get(facts.categoryId);
+            if (statusCounts != null) statusCounts[slot(facts.status)]--;
+            if (facts.lowStock) lowStock--;
+            if (facts.published) published--;
+        }
+
+        synchronized long count(UUID categoryId, ProductStatus status) {
+            long count = 0;
+            for (Map.Entry<UUID, long[]> entry : byCategory.entrySet()) {
+                if (categoryId != null && !categoryId.equals(entry.getKey())) continue;
+                count += status != null ? entry.getValue()[slot(status)] : nonArchived(entry.getValue());
+            }
+            return count;
+        }
+
+        synchronized long total() {
+            return products.size();
+        }
+
+        synchronized Map<UUID, Long> countByCategory() {
+            Map<UUID, Long> counts = new HashMap<>();
+            byCategory.forEach((categoryId, statusCounts) -> {
+                long count = nonArchived(statusCounts);
+                if (!NO_CATEGORY.equals(categoryId) && count > 0) counts.put(categoryId, count);
+            });
+            return counts;
+        }
+
+        synchronized long lowStock() {
+            return lowStock;
+        }
+
+        synchronized long published() {
+            return published;
+        }
+
+        private static long nonArchived(long[] statusCounts) {
+            long count = 0;
+            for (int i = 0; i < statusCounts.length; i++) {
+                if (i != ProductStatus.ARCHIVED.ordinal() && i != statusCounts.length - 1) count += statusCounts[i];
+            }
+            return count;
+        }
+
+        private static int slot(ProductStatus status) {
+            return status != null ? status.ordinal() : ProductStatus.values().length;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.quickcatalog.dto.image.ImageReorderRequest;
 import com.quickcatalog.dto.image.ImageUploadResponse;
 import com.quickcatalog.entity.Product;
 import com.quickcatalog.entity.ProductImage;
+import com.quickcatalog.event.ProductChangedEvent;
 import com.quickcatalog.exception.FileValidationException;
 import com.quickcatalog.exception.ResourceNotFoundException;
 import com.quickcatalog.repository.ProductImageRepository;
@@ -14,6 +15,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.coobird.thumbnailator.Thumbnails;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -34,6 +36,7 @@ public class ProductImageService {
     private final ProductRepository productRepository;
     private final StorageService storageService;
     private final MinioConfig minioConfig;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${app.image.thumbnail-size:150}")
     private int thumbnailSize;
@@ -104,6 +107,7 @@ public class ProductImageService {
             }
         }
 
+        eventPublisher.publishEvent(new ProductChangedEvent(tenantId, productId));
         return responses;
     }
 
@@ -124,6 +128,7 @@ public class ProductImageService {
         deleteFileIfPresent(image.getLargeUrl());
 
         productImageRepository.delete(image);
+        eventPublisher.publishEvent(new ProductChangedEvent(tenantId, productId));
     }
 
     @Transactional
@@ -142,6 +147,7 @@ public class ProductImageService {
             image.setSortOrder(sortOrder);
             productImageRepository.save(image);
         }
+        eventPublisher.publishEvent(new ProductChangedEvent(tenantId, productId));
     }
 
     private ImageUploadResponse mapToResponse(ProductImage image) {
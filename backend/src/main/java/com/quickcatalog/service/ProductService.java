@@ -3,9 +3,9 @@ package com.quickcatalog.service;
 import com.quickcatalog.channel.dto.ListingSummaryResponse;
 import com.quickcatalog.channel.entity.Channel;
 import com.quickcatalog.channel.entity.ProductChannelListing;
-import com.quickcatalog.channel.repository.ChannelRepository;
 import com.quickcatalog.channel.repository.ProductChannelListingRepository;
 import com.quickcatalog.config.TenantContext;
+import com.quickcatalog.dto.common.PageCursor;
 import com.quickcatalog.dto.common.PagedResponse;
 import com.quickcatalog.dto.image.ImageUploadResponse;
 import com.quickcatalog.dto.product.*;
@@ -15,13 +15,16 @@ import com.quickcatalog.entity.Product;
 import com.quickcatalog.entity.ProductImage;
 import com.quickcatalog.entity.ProductVariant;
 import com.quickcatalog.entity.enums.*;
+import com.quickcatalog.event.ProductChangedEvent;
 import com.quickcatalog.exception.ResourceNotFoundException;
 import com.quickcatalog.repository.CategoryRepository;
 import com.quickcatalog.repository.ProductImageRepository;
+import com.quickcatalog.repository.ProductListRepository;
 import com.quickcatalog.repository.ProductRepository;
 import com.quickcatalog.repository.ProductVariantRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -38,11 +41,13 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -51,36 +56,46 @@ import java.util.stream.Collectors;
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductListRepository productListRepository;
+    private final ProductCountService productCountService;
     private final CategoryRepository categoryRepository;
     private final ProductImageRepository productImageRepository;
     private final ProductVariantRepository productVariantRepository;
     private final ProductChannelListingRepository channelListingRepository;
-    private final ChannelRepository channelRepository;
     private final ActivityLogService activityLogService;
-
-    public PagedResponse<ProductListResponse> list(UUID categoryId, String status, String sort, int page, int size) {
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryLedgerService ledgerService;
+
+    /**
+     * A page of the product grid. Without a cursor the page is found by offset; with the
+     * cursor returned for the previous page it is found by keyset. Totals come from
+     * {@link ProductCountService} and may briefly trail concurrent writes.
+     */
+    public PagedResponse<ProductListResponse> list(UUID categoryId, String status, String sort, String cursor,
+                                                   int page, int size) {
         UUID tenantId = TenantContext.getTenantId();
         Pageable pageable = buildPageable(sort, page, size);
+        ProductStatus productStatus = status != null ? ProductStatus.valueOf(status) : null;
 
-        Page<Product> productPage;
-
-        if (categoryId != null && status != null) {
-            ProductStatus productStatus = ProductStatus.valueOf(status);
-            productPage = productRepository.findByTenantIdAndCategoryIdAndStatus(tenantId, categoryId, productStatus, pageable);
-        } else if (categoryId != null) {
-            productPage = productRepository.findByTenantIdAndCategoryIdAndStatusNot(tenantId, categoryId, ProductStatus.ARCHIVED, pageable);
-        } else if (status != null) {
-            ProductStatus productStatus = ProductStatus.valueOf(status);
-            productPage = productRepository.findByTenantIdAndStatus(tenantId, productStatus, pageable);
-        } else {
-            productPage = productRepository.findByTenantIdAndStatusNot(tenantId, ProductStatus.ARCHIVED, pageable);
+        if (cursor != null && !cursor.isBlank()) {
+            PageCursor after = PageCursor.decode(cursor, ProductListRepository.sortKey(pageable.getSort()));
+            List<ProductListResponse> rows = productListRepository.findAfter(
+                    tenantId, categoryId, productStatus, pageable.getSort(), after, size + 1);
+            return PagedResponse.ofCursor(rows, page, size,
+                    productCountService.count(tenantId, categoryId, productStatus),
+                    Function.identity(), row -> ProductListRepository.cursorAfter(row, pageable.getSort()));
         }
 
-        List<ProductListResponse> content = productPage.getContent().stream()
-                .map(this::mapToListResponse)
-                .collect(Collectors.toList());
+        // Grid columns only, straight from SQL; the total comes from the in-memory counts
+        List<ProductListResponse> content = productListRepository.findPage(tenantId, categoryId, productStatus, pageable);
+        long total = productCountService.count(tenantId, categoryId, productStatus);
+        int totalPages = size > 0 ? (int) ((total + size - 1) / size) : 0;
 
-        return PagedResponse.of(content, page, size, productPage.getTotalElements(), productPage.getTotalPages());
+        PagedResponse<ProductListResponse> response = PagedResponse.of(content, page, size, total, totalPages);
+        if (!response.isLast() && !content.isEmpty()) {
+            response.setNextCursor(ProductListRepository.cursorAfter(content.get(content.size() - 1), pageable.getSort()));
+        }
+        return response;
     }
 
     public ProductResponse getById(UUID id) {
@@ -173,6 +188,9 @@ public class ProductService {
         }
 
         product = productRepository.save(product);
+        ledgerService.recordAdjustment(tenantId, product.getId(), null,
+                null, product.getCurrentStock(), userId, "Opening stock");
+        eventPublisher.publishEvent(new ProductChangedEvent(tenantId, product.getId()));
 
         activityLogService.log(tenantId, userId, EntityType.PRODUCT, product.getId(),
                 ActionType.CREATED, "{\"name\":\"" + product.getName() + "\"}");
@@ -189,6 +207,7 @@ public class ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
 
         boolean nameChanged = false;
+        BigDecimal previousStock = product.getCurrentStock();
 
         if (req.getName() != null) {
             nameChanged = !req.getName().equals(product.getName());
@@ -289,6 +308,11 @@ public class ProductService {
         }
 
         product = productRepository.save(product);
+        if (req.getCurrentStock() != null) {
+            ledgerService.recordAdjustment(tenantId, product.getId(), null,
+                    previousStock, product.getCurrentStock(), userId, "Stock edited");
+        }
+        eventPublisher.publishEvent(new ProductChangedEvent(tenantId, product.getId()));
 
         activityLogService.log(tenantId, userId, EntityType.PRODUCT, product.getId(),
                 ActionType.UPDATED, "{\"name\":\"" + product.getName() + "\"}");
@@ -306,6 +330,7 @@ public class ProductService {
 
         product.setStatus(ProductStatus.ARCHIVED);
         productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(tenantId, product.getId()));
 
         activityLogService.log(tenantId, userId, EntityType.PRODUCT, product.getId(),
                 ActionType.DELETED, "{\"name\":\"" + product.getName() + "\"}");
@@ -322,6 +347,7 @@ public class ProductService {
         ProductStatus newStatus = ProductStatus.valueOf(req.getStatus());
         product.setStatus(newStatus);
         productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(tenantId, product.getId()));
 
         activityLogService.log(tenantId, userId, EntityType.PRODUCT, product.getId(),
                 ActionType.STATUS_CHANGED,
@@ -386,6 +412,9 @@ public class ProductService {
         copy.setSku(generateSku(categoryName));
 
         copy = productRepository.save(copy);
+        ledgerService.recordAdjustment(tenantId, copy.getId(), null,
+                null, copy.getCurrentStock(), userId, "Opening stock");
+        eventPublisher.publishEvent(new ProductChangedEvent(tenantId, copy.getId()));
 
         activityLogService.log(tenantId, userId, EntityType.PRODUCT, copy.getId(),
                 ActionType.CREATED,
@@ -600,13 +629,15 @@ public class ProductService {
                     .collect(Collectors.toList());
         }
 
+        // Listings come with their channels in the same query rather than one lookup per listing
         List<ListingSummaryResponse> listingSummaries = Collections.emptyList();
-        List<ProductChannelListing> listings = channelListingRepository
-                .findByProductIdAndTenantId(product.getId(), product.getTenantId());
+        List<Object[]> listings = channelListingRepository
+                .findWithChannelByProductIdAndTenantId(product.getId(), product.getTenantId());
         if (listings != null && !listings.isEmpty()) {
             listingSummaries = listings.stream()
-                    .map(listing -> {
-                        Channel ch = channelRepository.findById(listing.getChannelId()).orElse(null);
+                    .map(row -> {
+                        ProductChannelListing listing = (ProductChannelListing) row[0];
+                        Channel ch = (Channel) row[1];
                         return ListingSummaryResponse.builder()
                                 .channelId(listing.getChannelId())
                                 .channelName(ch != null ? ch.getChannelName() : null)
@@ -0,0 +1,36 @@
+package com.quickcatalog.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Approximate row counts for cursor-paginated lists, taken from the planner's estimate
+ * for the filtering query instead of running count(*) over every matching row.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RowCountEstimator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param sql a SELECT whose row count is wanted
+     * @return the estimated number of rows, or -1 if no estimate could be made
+     */
+    public long estimate(String sql, Object... args) {
+        try {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class, args);
+            JsonNode root = objectMapper.readTree(plan);
+            return root.path(0).path("Plan").path("Plan Rows").asLong(-1);
+        } catch (Exception e) {
+            log.warn("Could not estimate row count: {}", e.getMessage());
+            return -1;
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.quickcatalog.entity.Product;
 import com.quickcatalog.entity.ProductVariant;
 import com.quickcatalog.entity.enums.ActionType;
 import com.quickcatalog.entity.enums.EntityType;
+import com.quickcatalog.event.ProductChangedEvent;
 import com.quickcatalog.exception.ResourceNotFoundException;
 import com.quickcatalog.repository.ProductRepository;
 import com.quickcatalog.repository.ProductVariantRepository;
@@ -15,9 +16,11 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -30,6 +33,8 @@ public class VariantService {
     private final ProductRepository productRepository;
     private final ActivityLogService activityLogService;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryLedgerService ledgerService;
 
     public List<VariantResponse> list(UUID productId) {
         UUID tenantId = TenantContext.getTenantId();
@@ -70,6 +75,9 @@ public class VariantService {
         if (req.getIsActive() != null) variant.setActive(req.getIsActive());
 
         variant = variantRepository.save(variant);
+        ledgerService.recordAdjustment(tenantId, productId, variant.getId(),
+                null, variant.getCurrentStock(), userId, "Opening stock");
+        eventPublisher.publishEvent(new ProductChangedEvent(tenantId, productId));
 
         activityLogService.log(tenantId, userId, EntityType.PRODUCT, productId,
                 ActionType.UPDATED, "{\"variant_created\":\"" + variant.getVariantName() + "\"}");
@@ -85,6 +93,7 @@ public class VariantService {
 
         ProductVariant variant = variantRepository.findByIdAndProductId(variantId, productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Variant", "id", variantId));
+        BigDecimal previousStock = variant.getCurrentStock();
 
         if (req.getVariantName() != null) variant.setVariantName(req.getVariantName());
         if (req.getSku() != null) variant.setSku(req.getSku());
@@ -99,6 +108,11 @@ public class VariantService {
         if (req.getIsActive() != null) variant.setActive(req.getIsActive());
 
         variant = variantRepository.save(variant);
+        if (req.getCurrentStock() != null) {
+            ledgerService.recordAdjustment(tenantId, productId, variantId,
+                    previousStock, variant.getCurrentStock(), userId, "Stock edited");
+        }
+        eventPublisher.publishEvent(new ProductChangedEvent(tenantId, productId));
 
         activityLogService.log(tenantId, userId, EntityType.PRODUCT, productId,
                 ActionType.UPDATED, "{\"variant_updated\":\"" + variant.getVariantName() + "\"}");
@@ -116,6 +130,7 @@ public class VariantService {
                 .orElseThrow(() -> new ResourceNotFoundException("Variant", "id", variantId));
 
         variantRepository.delete(variant);
+        eventPublisher.publishEvent(new ProductChangedEvent(tenantId, productId));
 
         activityLogService.log(tenantId, userId, EntityType.PRODUCT, productId,
                 ActionType.UPDATED, "{\"variant_deleted\":\"" + variant.getVariantName() + "\"}");
@@ -154,6 +169,8 @@ public class VariantService {
             results.add(mapToResponse(variant));
         }
 
+        eventPublisher.publishEvent(new ProductChangedEvent(tenantId, productId));
+
         activityLogService.log(tenantId, userId, EntityType.PRODUCT, productId,
                 ActionType.UPDATED, "{\"variants_generated\":" + results.size() + "}");
 
@@ -0,0 +1,109 @@
+package com.quickcatalog.ondc.beckn.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickcatalog.ondc.beckn.model.BecknContext;
+import com.quickcatalog.ondc.beckn.model.BecknRequest;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time and allocation per inbound /confirm body for 1KB and 100KB payloads.
+ * {@code parseOnce} is the controller's path: the verified bytes are parsed in one pass
+ * by {@link BecknRequestReader}. {@code decodeAndParseTwice} is the previous path: the
+ * body is bound to a String, read into a tree for the context, and read again by the
+ * processor.
+ * <p>
+ * Run {@link #main} from the test classpath, e.g. from the IDE after {@code mvn test-compile};
+ * it attaches the GC profiler, whose {@code gc.alloc.rate.norm} is bytes allocated per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BecknRequestParsingBenchmark {
+
+    @Param({"1024", "102400"})
+    public int payloadBytes;
+
+    private ObjectMapper objectMapper;
+    private BecknRequestReader requestReader;
+    private byte[] body;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        requestReader = new BecknRequestReader(objectMapper);
+        body = confirm(payloadBytes);
+    }
+
+    @Benchmark
+    public BecknRequest<JsonNode> parseOnce() throws IOException {
+        return requestReader.parse(body);
+    }
+
+    @Benchmark
+    public void decodeAndParseTwice(Blackhole blackhole) throws IOException {
+        String rawBody = new String(body, StandardCharsets.UTF_8);
+        JsonNode request = objectMapper.readTree(rawBody);
+        blackhole.consume(objectMapper.treeToValue(request.get("context"), BecknContext.class));
+        blackhole.consume(objectMapper.readTree(rawBody).get("message"));
+    }
+
+    /**
+     * A /confirm request whose serialized size is at least {@code targetBytes}.
+     */
+    private byte[] confirm(int targetBytes) throws IOException {
+        Map<String, Object> context = new LinkedHashMap<>();
+        context.put("domain", "ONDC:RET10");
+        context.put("action", "confirm");
+        context.put("core_version", "1.2.0");
+        context.put("bap_id", "buyer.example.com");
+        context.put("bap_uri", "https://buyer.example.com/ondc");
+        context.put("bpp_id", "seller.example.com");
+        context.put("bpp_uri", "https://seller.example.com/ondc");
+        context.put("transaction_id", UUID.randomUUID().toString());
+        context.put("message_id", UUID.randomUUID().toString());
+        context.put("timestamp", "2024-01-01T10:00:00.000Z");
+
+        List<Map<String, Object>> items = new ArrayList<>();
+        Map<String, Object> order = new LinkedHashMap<>();
+        order.put("id", "order-1");
+        order.put("provider", Map.of("id", "P1"));
+        order.put("items", items);
+        order.put("billing", Map.of("name", "Buyer", "phone", "9999999999"));
+
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("context", context);
+        request.put("message", Map.of("order", order));
+
+        int size = objectMapper.writeValueAsBytes(request).length;
+        while (size < targetBytes) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", UUID.nameUUIDFromBytes(String.valueOf(items.size()).getBytes()).toString());
+            item.put("fulfillment_id", "F1");
+            item.put("quantity", Map.of("count", 1 + items.size() % 5));
+            items.add(item);
+            size += objectMapper.writeValueAsBytes(item).length + 1;
+        }
+        return objectMapper.writeValueAsBytes(request);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BecknRequestParsingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,35 @@
+package com.quickcatalog.ondc.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Which intents narrow the catalog: only text with searchable tokens, or a category.
+ */
+class CatalogSearchIntentTest {
+
+    @Test
+    void punctuationOnlyQueryIsNoCriteria() {
+        CatalogSearchIntent intent = new CatalogSearchIntent("***", null, null, null, null);
+
+        assertThat(intent.hasQueryTokens()).isFalse();
+        assertThat(intent.hasItemCriteria()).isFalse();
+    }
+
+    @Test
+    void punctuationOnlyQueryWithCategoryIsCategoryOnly() {
+        CatalogSearchIntent intent = new CatalogSearchIntent(" - ", "Fruits", null, null, null);
+
+        assertThat(intent.hasQueryTokens()).isFalse();
+        assertThat(intent.hasItemCriteria()).isTrue();
+    }
+
+    @Test
+    void wordsAroundPunctuationAreCriteria() {
+        CatalogSearchIntent intent = new CatalogSearchIntent("*atta*", null, null, null, null);
+
+        assertThat(intent.hasQueryTokens()).isTrue();
+        assertThat(intent.hasItemCriteria()).isTrue();
+    }
+}
@@ -0,0 +1,69 @@
+package com.quickcatalog.ondc.catalog;
+
+import com.quickcatalog.ondc.entity.OndcProvider;
+import com.quickcatalog.support.PostgresIntegrationTest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Building a catalog snapshot reads the published configs once and the products, with
+ * their images, in chunks of 500 ids, instead of once per product. Only statements
+ * issued through Hibernate are counted; the stock preload runs on JDBC.
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class CatalogSnapshotLoadTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void smallCatalogLoadsInTwoStatements() {
+        assertThat(statementsToBuild(3)).isEqualTo(2);
+    }
+
+    @Test
+    void productsAreLoadedInChunks() {
+        // One config query, then chunks of 500, 500 and 201 products
+        assertThat(statementsToBuild(1201)).isEqualTo(4);
+    }
+
+    private long statementsToBuild(int productCount) {
+        UUID tenantId = jdbcTemplate.queryForObject(
+                "INSERT INTO tenant (company_name) VALUES ('Snapshot Test') RETURNING id", UUID.class);
+        jdbcTemplate.update("INSERT INTO product (tenant_id, name, status, selling_price) " +
+                "SELECT ?, 'Product ' || n, CAST('ACTIVE' AS product_status), 100 FROM generate_series(1, ?) n", tenantId, productCount);
+        jdbcTemplate.update("INSERT INTO product_image (product_id, original_url) " +
+                "SELECT id, 'https://cdn.example.com/' || id || '.jpg' FROM product WHERE tenant_id = ?", tenantId);
+        jdbcTemplate.update("INSERT INTO ondc_product_config (product_id, tenant_id, ondc_domain, published_to_ondc) " +
+                "SELECT id, tenant_id, 'ONDC:RET10', TRUE FROM product WHERE tenant_id = ?", tenantId);
+
+        OndcProvider provider = new OndcProvider();
+        provider.setId(UUID.randomUUID());
+        provider.setTenantId(tenantId);
+        provider.setProviderId("P1");
+        provider.setName("Snapshot Test Store");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot(provider, null);
+
+        assertThat(snapshot.getItems()).hasSize(productCount);
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,89 @@
+package com.quickcatalog.ondc.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Patched snapshots read like a copied map: replaced items stay in place, removed ones
+ * are gone and added ones come last, before and after the changes are compacted.
+ */
+class CatalogSnapshotTest {
+
+    private static final CatalogSnapshot.Key KEY = new CatalogSnapshot.Key(UUID.randomUUID(), UUID.randomUUID(), "");
+
+    @Test
+    void patchesKeepCatalogOrder() {
+        List<UUID> ids = ids(5);
+        CatalogSnapshot snapshot = snapshot(ids);
+        UUID added = UUID.randomUUID();
+
+        CatalogSnapshot patched = snapshot
+                .withItem(item(ids.get(1), "v2"), 2)
+                .withoutItem(ids.get(3), 3)
+                .withItem(item(added, "new"), 4);
+
+        assertThat(patched.getItems().keySet()).containsExactly(ids.get(0), ids.get(1), ids.get(2), ids.get(4), added);
+        assertThat(patched.getItems().get(ids.get(1)).getJson()).isEqualTo("v2");
+        assertThat(patched.getItems().containsKey(ids.get(3))).isFalse();
+        assertThat(patched.getItems()).hasSize(5);
+        assertThat(patched.select(List.of(added, ids.get(3), ids.get(0))))
+                .extracting(CatalogSnapshot.Item::getProductId).containsExactly(added, ids.get(0));
+        // The snapshot patched from is unchanged
+        assertThat(snapshot.getItems().get(ids.get(1)).getJson()).isEqualTo("v1");
+        assertThat(snapshot.getItems()).hasSize(5);
+    }
+
+    @Test
+    void manyPatchesMatchACopiedMap() {
+        List<UUID> ids = ids(2000);
+        CatalogSnapshot snapshot = snapshot(ids);
+        Map<UUID, CatalogSnapshot.Item> expected = new LinkedHashMap<>(snapshot.getItems());
+
+        for (int i = 0; i < 500; i++) {
+            UUID productId = ids.get(i * 3);
+            if (i % 5 == 0) {
+                snapshot = snapshot.withoutItem(productId, i);
+                expected.remove(productId);
+            } else {
+                CatalogSnapshot.Item item = item(productId, "v" + i);
+                snapshot = snapshot.withItem(item, i);
+                expected.put(productId, item);
+            }
+            if (i % 50 == 0) {
+                CatalogSnapshot.Item item = item(UUID.randomUUID(), "added" + i);
+                snapshot = snapshot.withItem(item, i);
+                expected.put(item.getProductId(), item);
+            }
+        }
+
+        assertThat(snapshot.getItems()).hasSize(expected.size());
+        assertThat(new ArrayList<>(snapshot.getItems().entrySet())).isEqualTo(new ArrayList<>(expected.entrySet()));
+    }
+
+    private static CatalogSnapshot snapshot(List<UUID> ids) {
+        Map<UUID, CatalogSnapshot.Item> items = new LinkedHashMap<>();
+        for (UUID id : ids) {
+            items.put(id, item(id, "v1"));
+        }
+        return new CatalogSnapshot(KEY, 1, null, "{", items);
+    }
+
+    private static CatalogSnapshot.Item item(UUID productId, String json) {
+        return new CatalogSnapshot.Item(productId, json, json.length());
+    }
+
+    private static List<UUID> ids(int count) {
+        List<UUID> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,86 @@
+package com.quickcatalog.ondc.crypto;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachedBodyRequestTest {
+
+    private static final byte[] BODY = "{\"message\":{}}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void bodyCanBeReadMoreThanOnce() throws IOException {
+        CachedBodyRequest request = new CachedBodyRequest(new MockHttpServletRequest(), BODY);
+
+        assertThat(request.getInputStream().readAllBytes()).isEqualTo(BODY);
+        assertThat(request.getInputStream().readAllBytes()).isEqualTo(BODY);
+        assertThat(request.getContentLength()).isEqualTo(BODY.length);
+    }
+
+    @Test
+    void readListenerIsNotifiedImmediately() throws IOException {
+        CachedBodyRequest request = new CachedBodyRequest(new MockHttpServletRequest(), BODY);
+        ServletInputStream input = request.getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        List<String> events = new ArrayList<>();
+
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.add("dataAvailable");
+                byte[] buffer = new byte[4];
+                while (input.isReady() && !input.isFinished()) {
+                    int n = input.read(buffer);
+                    if (n > 0) read.write(buffer, 0, n);
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("allDataRead");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.add("error");
+            }
+        });
+
+        assertThat(events).containsExactly("dataAvailable", "allDataRead");
+        assertThat(read.toByteArray()).isEqualTo(BODY);
+    }
+
+    @Test
+    void emptyBodyIsReportedAsFullyRead() {
+        CachedBodyRequest request = new CachedBodyRequest(new MockHttpServletRequest(), new byte[0]);
+        List<String> events = new ArrayList<>();
+
+        request.getInputStream().setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() {
+                events.add("dataAvailable");
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("allDataRead");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.add("error");
+            }
+        });
+
+        assertThat(events).containsExactly("allDataRead");
+    }
+}
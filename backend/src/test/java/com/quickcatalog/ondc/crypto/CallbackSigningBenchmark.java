@@ -0,0 +1,120 @@
+package com.quickcatalog.ondc.crypto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickcatalog.ondc.entity.OndcSubscriber;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialize + hash + sign throughput of an on_search callback for 1KB, 100KB and 5MB
+ * payloads. {@code signSerializedBytes} is the dispatcher's path: the Jackson output is
+ * hashed as-is and signed with the subscriber's cached key. {@code signStringParsingKey}
+ * is the previous path: serialize to a String, re-encode it to hash, and parse the
+ * private key for every signature.
+ * <p>
+ * Run {@link #main} from the test classpath, e.g. from the IDE after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CallbackSigningBenchmark {
+
+    @Param({"1024", "102400", "5242880"})
+    public int payloadBytes;
+
+    private ObjectMapper objectMapper;
+    private Ed25519Service ed25519Service;
+    private OndcSubscriber subscriber;
+    private Map<String, Object> payload;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = new ObjectMapper();
+        ed25519Service = new Ed25519Service(new Ed25519KeyCache());
+
+        KeyGenerationService.KeyPairResult keys = new KeyGenerationService().generateSigningKeyPair();
+        subscriber = new OndcSubscriber();
+        subscriber.setId(UUID.randomUUID());
+        subscriber.setSubscriberId("seller.example.com");
+        subscriber.setUniqueKeyId("key-1");
+        subscriber.setSigningPublicKey(keys.getPublicKey());
+        subscriber.setSigningPrivateKey(keys.getPrivateKey());
+
+        payload = onSearch(payloadBytes);
+    }
+
+    @Benchmark
+    public String signSerializedBytes() throws JsonProcessingException {
+        byte[] body = objectMapper.writeValueAsBytes(payload);
+        return ed25519Service.buildAuthorizationHeader(body, subscriber);
+    }
+
+    @Benchmark
+    public String signStringParsingKey() throws JsonProcessingException {
+        String body = objectMapper.writeValueAsString(payload);
+        return ed25519Service.buildAuthorizationHeader(body, subscriber.getSubscriberId(),
+                subscriber.getUniqueKeyId(), subscriber.getSigningPrivateKey());
+    }
+
+    /**
+     * An on_search response whose serialized size is at least {@code targetBytes}.
+     */
+    private Map<String, Object> onSearch(int targetBytes) throws JsonProcessingException {
+        Map<String, Object> context = new LinkedHashMap<>();
+        context.put("domain", "ONDC:RET10");
+        context.put("action", "on_search");
+        context.put("core_version", "1.2.0");
+        context.put("bap_id", "buyer.example.com");
+        context.put("bpp_id", "seller.example.com");
+        context.put("transaction_id", UUID.randomUUID().toString());
+        context.put("message_id", UUID.randomUUID().toString());
+
+        List<Map<String, Object>> items = new ArrayList<>();
+        Map<String, Object> provider = new LinkedHashMap<>();
+        provider.put("id", "P1");
+        provider.put("descriptor", Map.of("name", "Benchmark Store"));
+        provider.put("items", items);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("context", context);
+        response.put("message", Map.of("catalog", Map.of("bpp/providers", List.of(provider))));
+
+        int size = objectMapper.writeValueAsBytes(response).length;
+        while (size < targetBytes) {
+            Map<String, Object> item = item(items.size());
+            items.add(item);
+            size += objectMapper.writeValueAsBytes(item).length + 1;
+        }
+        return response;
+    }
+
+    private static Map<String, Object> item(int index) {
+        Map<String, Object> descriptor = new LinkedHashMap<>();
+        descriptor.put("name", "Product " + index);
+        descriptor.put("short_desc", "Short description of product " + index);
+        descriptor.put("images", List.of("https://cdn.example.com/products/" + index + ".jpg"));
+
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("id", UUID.nameUUIDFromBytes(String.valueOf(index).getBytes()).toString());
+        item.put("descriptor", descriptor);
+        item.put("price", Map.of("currency", "INR", "value", String.valueOf(100 + index % 900)));
+        item.put("quantity", Map.of("available", Map.of("count", "99")));
+        item.put("category_id", "Grocery");
+        return item;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CallbackSigningBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
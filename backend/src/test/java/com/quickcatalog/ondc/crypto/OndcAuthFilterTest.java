@@ -0,0 +1,212 @@
+package com.quickcatalog.ondc.crypto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickcatalog.ondc.config.OndcProperties;
+import com.quickcatalog.ondc.entity.OndcSubscriber;
+import com.quickcatalog.ondc.registry.RegistryKeyCache;
+import com.quickcatalog.ondc.registry.StubRegistry;
+import com.quickcatalog.ondc.registry.SubscriberKeyLookup;
+import com.quickcatalog.ondc.repository.OndcSubscriberRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Inbound signature verification against a local stub registry.
+ */
+class OndcAuthFilterTest {
+
+    private static final String BUYER_ID = "buyer.example.com";
+    private static final String BUYER_KEY_ID = "buyer-key-1";
+    private static final byte[] BODY =
+            "{\"context\":{\"action\":\"search\"},\"message\":{}}".getBytes(StandardCharsets.UTF_8);
+
+    private final Ed25519Service ed25519Service = new Ed25519Service(new Ed25519KeyCache());
+    private final OndcProperties ondcProperties = new OndcProperties();
+    private final AtomicInteger lookups = new AtomicInteger();
+    private OndcSubscriber buyer;
+    private OndcAuthFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        KeyGenerationService.KeyPairResult keys = new KeyGenerationService().generateSigningKeyPair();
+        buyer = new OndcSubscriber();
+        buyer.setId(UUID.randomUUID());
+        buyer.setSubscriberId(BUYER_ID);
+        buyer.setUniqueKeyId(BUYER_KEY_ID);
+        buyer.setSigningPublicKey(keys.getPublicKey());
+        buyer.setSigningPrivateKey(keys.getPrivateKey());
+
+        OndcProperties.StubKey stubKey = new OndcProperties.StubKey();
+        stubKey.setSubscriberId(BUYER_ID);
+        stubKey.setUniqueKeyId(BUYER_KEY_ID);
+        stubKey.setSigningPublicKey(keys.getPublicKey());
+        ondcProperties.getAuth().setStubRegistry(true);
+        ondcProperties.getAuth().getStubKeys().add(stubKey);
+
+        OndcSubscriberRepository subscriberRepository = mock(OndcSubscriberRepository.class);
+        when(subscriberRepository.findBySubscriberId(anyString())).thenReturn(Optional.empty());
+        StubRegistry stubRegistry = new StubRegistry(ondcProperties, subscriberRepository);
+        SubscriberKeyLookup countingLookup = (subscriberId, uniqueKeyId) -> {
+            lookups.incrementAndGet();
+            return stubRegistry.lookupPublicKey(subscriberId, uniqueKeyId);
+        };
+
+        RegistryKeyCache keyCache = new RegistryKeyCache(countingLookup, ondcProperties, Runnable::run);
+        filter = new OndcAuthFilter(ed25519Service, keyCache, ondcProperties, new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Test
+    void signedRequestReachesControllerWithSameBytes() throws Exception {
+        MockHttpServletRequest request = searchRequest(BODY, ed25519Service.buildAuthorizationHeader(BODY, buyer));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(chain.getRequest().getInputStream().readAllBytes()).isEqualTo(BODY);
+        assertThat(chain.getRequest().getAttribute(OndcAuthFilter.RAW_BODY_ATTRIBUTE)).isEqualTo(BODY);
+    }
+
+    @Test
+    void tamperedBodyIsRejectedBeforeController() throws Exception {
+        String authorization = ed25519Service.buildAuthorizationHeader(BODY, buyer);
+        byte[] tampered = "{\"context\":{\"action\":\"search\"},\"message\":{\"x\":1}}".getBytes(StandardCharsets.UTF_8);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(searchRequest(tampered, authorization), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(response.getHeader("WWW-Authenticate")).startsWith("Signature");
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void unknownKeyIsRejected() throws Exception {
+        buyer.setUniqueKeyId("unregistered-key");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(searchRequest(BODY, ed25519Service.buildAuthorizationHeader(BODY, buyer)), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(response.getContentAsString()).contains("Unknown subscriber key");
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void missingAuthorizationIsRejected() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(searchRequest(BODY, null), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void failuresOnlyLoggedWhenNotEnforced() throws Exception {
+        ondcProperties.getAuth().setEnforce(false);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(searchRequest(BODY, null), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    @Test
+    void registryIsLookedUpOncePerKey() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(searchRequest(BODY, ed25519Service.buildAuthorizationHeader(BODY, buyer)),
+                    response, new MockFilterChain());
+            assertThat(response.getStatus()).isEqualTo(200);
+        }
+
+        assertThat(lookups.get()).isEqualTo(1);
+    }
+
+    @Test
+    void nonBecknPathsAreNotVerified() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+
+    @Test
+    void oversizedBodyIsRejectedBeforeVerification() throws Exception {
+        ondcProperties.getAuth().setMaxBodyBytes(BODY.length - 1);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(searchRequest(BODY, ed25519Service.buildAuthorizationHeader(BODY, buyer)), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(chain.getRequest()).isNull();
+        assertThat(lookups).hasValue(0);
+    }
+
+    @Test
+    void oversizedBodyWithoutContentLengthIsRejected() throws Exception {
+        ondcProperties.getAuth().setMaxBodyBytes(BODY.length - 1);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/ondc/search") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.setContent(BODY);
+        request.addHeader("Authorization", ed25519Service.buildAuthorizationHeader(BODY, buyer));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void bodyAtTheLimitIsAccepted() throws Exception {
+        ondcProperties.getAuth().setMaxBodyBytes(BODY.length);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(searchRequest(BODY, ed25519Service.buildAuthorizationHeader(BODY, buyer)), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(chain.getRequest().getAttribute(OndcAuthFilter.RAW_BODY_ATTRIBUTE)).isEqualTo(BODY);
+    }
+
+    private static MockHttpServletRequest searchRequest(byte[] body, String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/ondc/search");
+        request.setContentType("application/json");
+        request.setContent(body);
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,214 @@
+package com.quickcatalog.ondc.inventory;
+
+import com.quickcatalog.ondc.beckn.service.OrderBookingService;
+import com.quickcatalog.ondc.entity.OndcFulfillment;
+import com.quickcatalog.ondc.entity.OndcOrder;
+import com.quickcatalog.ondc.entity.OndcPayment;
+import com.quickcatalog.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent confirms against a real database: a hot SKU must never be oversold, a
+ * confirm repeated for the same order must book it once, and a seller accepting an
+ * order while its hold expires must end with exactly one of the two outcomes.
+ */
+class ConcurrentReservationTest extends PostgresIntegrationTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private OrderBookingService orderBookingService;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID tenantId;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = jdbcTemplate.queryForObject(
+                "INSERT INTO tenant (company_name) VALUES ('Reservation Test') RETURNING id", UUID.class);
+    }
+
+    @Test
+    void hotSkuIsNeverOversold() throws Exception {
+        UUID productId = product(10);
+
+        List<Outcome> outcomes = runConcurrently(40, i -> book("order-" + UUID.randomUUID(), productId));
+
+        assertThat(outcomes).filteredOn(outcome -> outcome == Outcome.BOOKED).hasSize(10);
+        assertThat(outcomes).filteredOn(outcome -> outcome == Outcome.OUT_OF_STOCK).hasSize(30);
+        assertThat(stock(productId)).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(count("SELECT COUNT(*) FROM ondc_order WHERE tenant_id = ?")).isEqualTo(10);
+        assertThat(count("SELECT COUNT(*) FROM inventory_reservation WHERE tenant_id = ?")).isEqualTo(10);
+    }
+
+    @Test
+    void repeatedConfirmBooksOrderOnce() throws Exception {
+        UUID productId = product(10);
+        String becknOrderId = "order-" + UUID.randomUUID();
+
+        List<Outcome> outcomes = runConcurrently(THREADS, i -> book(becknOrderId, productId));
+
+        assertThat(outcomes).filteredOn(outcome -> outcome == Outcome.BOOKED).hasSize(1);
+        assertThat(outcomes).filteredOn(outcome -> outcome == Outcome.DUPLICATE).hasSize(THREADS - 1);
+        assertThat(stock(productId)).isEqualByComparingTo("9");
+        assertThat(count("SELECT COUNT(*) FROM ondc_order WHERE tenant_id = ?")).isEqualTo(1);
+        assertThat(count("SELECT COUNT(*) FROM inventory_reservation WHERE tenant_id = ?")).isEqualTo(1);
+    }
+
+    @Test
+    void ordersTakingSkusInOppositeOrderDoNotDeadlock() throws Exception {
+        UUID first = product(100);
+        UUID second = product(100);
+
+        List<Outcome> outcomes = runConcurrently(40, i -> {
+            List<StockLine> lines = i % 2 == 0
+                    ? List.of(line(first), line(second))
+                    : List.of(line(second), line(first));
+            stockReservationService.reserve(tenantId, "order-" + UUID.randomUUID(), "txn-" + i, lines);
+            return Outcome.BOOKED;
+        });
+
+        assertThat(outcomes).containsOnly(Outcome.BOOKED);
+        assertThat(stock(first)).isEqualByComparingTo("60");
+        assertThat(stock(second)).isEqualByComparingTo("60");
+    }
+
+    @Test
+    void acceptRacingExpiryLeavesOrderAndStockConsistent() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            UUID productId = product(1);
+            String becknOrderId = "order-" + UUID.randomUUID();
+            assertThat(book(becknOrderId, productId)).isEqualTo(Outcome.BOOKED);
+            UUID orderId = jdbcTemplate.queryForObject(
+                    "SELECT id FROM ondc_order WHERE beckn_order_id = ?", UUID.class, becknOrderId);
+            jdbcTemplate.update("UPDATE inventory_reservation SET expires_at = NOW() - INTERVAL '1 minute' " +
+                    "WHERE beckn_order_id = ?", becknOrderId);
+
+            runConcurrently(2, i -> {
+                if (i == 0) {
+                    stockReservationService.accept(tenantId, orderId, becknOrderId);
+                } else {
+                    stockReservationService.expireDue(100);
+                }
+                return Outcome.BOOKED;
+            });
+
+            String state = jdbcTemplate.queryForObject(
+                    "SELECT CAST(state AS text) FROM ondc_order WHERE id = ?", String.class, orderId);
+            String reservation = jdbcTemplate.queryForObject(
+                    "SELECT CAST(status AS text) FROM inventory_reservation WHERE beckn_order_id = ?",
+                    String.class, becknOrderId);
+            if ("ACCEPTED".equals(state)) {
+                assertThat(reservation).isEqualTo("COMMITTED");
+                assertThat(stock(productId)).isEqualByComparingTo(BigDecimal.ZERO);
+            } else {
+                assertThat(state).isEqualTo("CANCELLED");
+                assertThat(reservation).isEqualTo("EXPIRED");
+                assertThat(stock(productId)).isEqualByComparingTo(BigDecimal.ONE);
+            }
+        }
+    }
+
+    @Test
+    void repeatedCancelRestocksOnce() throws Exception {
+        UUID productId = product(1);
+        String becknOrderId = "order-" + UUID.randomUUID();
+        assertThat(book(becknOrderId, productId)).isEqualTo(Outcome.BOOKED);
+        UUID orderId = jdbcTemplate.queryForObject(
+                "SELECT id FROM ondc_order WHERE beckn_order_id = ?", UUID.class, becknOrderId);
+
+        List<Outcome> outcomes = runConcurrently(THREADS, i ->
+                stockReservationService.cancel(tenantId, orderId, becknOrderId, "001", "bap.example.com")
+                        ? Outcome.BOOKED : Outcome.DUPLICATE);
+
+        assertThat(outcomes).filteredOn(outcome -> outcome == Outcome.BOOKED).hasSize(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT CAST(state AS text) FROM ondc_order WHERE id = ?", String.class, orderId))
+                .isEqualTo("CANCELLED");
+        assertThat(stock(productId)).isEqualByComparingTo(BigDecimal.ONE);
+    }
+
+    private Outcome book(String becknOrderId, UUID productId) {
+        OndcOrder order = new OndcOrder();
+        order.setTenantId(tenantId);
+        order.setBecknOrderId(becknOrderId);
+        order.setTransactionId("txn-" + becknOrderId);
+        try {
+            orderBookingService.book(order, List.of(line(productId)), new OndcFulfillment(), new OndcPayment());
+            return Outcome.BOOKED;
+        } catch (InsufficientStockException e) {
+            return Outcome.OUT_OF_STOCK;
+        } catch (DataIntegrityViolationException e) {
+            return Outcome.DUPLICATE;
+        }
+    }
+
+    /**
+     * Runs {@code tasks} calls on a pool, released together so they contend for the same rows.
+     */
+    private List<Outcome> runConcurrently(int tasks, Task task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Outcome>> futures = new ArrayList<>(tasks);
+            for (int i = 0; i < tasks; i++) {
+                int index = i;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return task.apply(index);
+                }));
+            }
+            start.countDown();
+            List<Outcome> outcomes = new ArrayList<>(tasks);
+            for (Future<Outcome> future : futures) {
+                outcomes.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return outcomes;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private UUID product(int stock) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO product (tenant_id, name, track_inventory, current_stock) " +
+                "VALUES (?, 'Hot SKU', TRUE, ?) RETURNING id", UUID.class, tenantId, stock);
+    }
+
+    private static StockLine line(UUID productId) {
+        return new StockLine(productId, null, BigDecimal.ONE);
+    }
+
+    private BigDecimal stock(UUID productId) {
+        return jdbcTemplate.queryForObject("SELECT current_stock FROM product WHERE id = ?",
+                BigDecimal.class, productId);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class, tenantId);
+    }
+
+    private enum Outcome { BOOKED, OUT_OF_STOCK, DUPLICATE }
+
+    @FunctionalInterface
+    private interface Task {
+        Outcome apply(int index) throws Exception;
+    }
+}
@@ -0,0 +1,101 @@
+package com.quickcatalog.service;
+
+import com.quickcatalog.config.TenantContext;
+import com.quickcatalog.dto.product.ProductResponse;
+import com.quickcatalog.support.PostgresIntegrationTest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A product detail read runs a fixed number of statements, however many images,
+ * variants and channel listings the product has.
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProductDetailStatementCountTest extends PostgresIntegrationTest {
+
+    /** Product, category, images, variants, and listings with their channels. */
+    private static final long DETAIL_STATEMENTS = 5;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UUID tenantId;
+    private UUID categoryId;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = jdbcTemplate.queryForObject(
+                "INSERT INTO tenant (company_name) VALUES ('Statement Count Test') RETURNING id", UUID.class);
+        categoryId = jdbcTemplate.queryForObject(
+                "INSERT INTO category (tenant_id, name) VALUES (?, 'Grocery') RETURNING id", UUID.class, tenantId);
+        TenantContext.setTenantId(tenantId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithImagesVariantsOrListings() {
+        UUID small = product(1);
+        UUID large = product(20);
+
+        long smallStatements = statementsFor(small, 1);
+        long largeStatements = statementsFor(large, 20);
+
+        assertThat(smallStatements).isEqualTo(DETAIL_STATEMENTS);
+        assertThat(largeStatements).isEqualTo(DETAIL_STATEMENTS);
+    }
+
+    private long statementsFor(UUID productId, int expectedChildren) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ProductResponse response = productService.getById(productId);
+
+        assertThat(response.getImages()).hasSize(expectedChildren);
+        assertThat(response.getVariants()).hasSize(expectedChildren);
+        assertThat(response.getChannelListings()).hasSize(expectedChildren)
+                .allSatisfy(listing -> assertThat(listing.getChannelName()).isNotNull());
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * A product with {@code children} images, variants and channel listings.
+     */
+    private UUID product(int children) {
+        UUID productId = jdbcTemplate.queryForObject(
+                "INSERT INTO product (tenant_id, category_id, name) VALUES (?, ?, 'Detail Product') RETURNING id",
+                UUID.class, tenantId, categoryId);
+        for (int i = 0; i < children; i++) {
+            jdbcTemplate.update("INSERT INTO product_image (product_id, original_url, sort_order) VALUES (?, ?, ?)",
+                    productId, "https://cdn.example.com/" + productId + "/" + i + ".jpg", i);
+            jdbcTemplate.update("INSERT INTO product_variant (product_id, variant_name) VALUES (?, ?)",
+                    productId, "Variant " + i);
+            UUID channelId = jdbcTemplate.queryForObject(
+                    "INSERT INTO channel (tenant_id, channel_type, channel_name) " +
+                    "VALUES (?, 'CUSTOM', ?) RETURNING id", UUID.class, tenantId, "Channel " + i);
+            jdbcTemplate.update("INSERT INTO product_channel_listing (product_id, channel_id, tenant_id) VALUES (?, ?, ?)",
+                    productId, channelId, tenantId);
+        }
+        return productId;
+    }
+}
@@ -0,0 +1,60 @@
+package com.quickcatalog.support;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Base class for tests that need the real schema. One Postgres container is started
+ * for all subclasses and initialised with the scripts from {@code db/}, in the order
+ * docker-compose mounts them. Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = "ondc.job.enabled=false")
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresIntegrationTest {
+
+    private static final List<String> SCHEMA_SCRIPTS = List.of(
+            "init.sql",
+            "ondc_migration.sql",
+            "channel_migration.sql",
+            "phase4_migration.sql",
+            "ondc_callback_migration.sql",
+            "ondc_api_log_migration.sql",
+            "log_partitioning_migration.sql",
+            "inventory_reservation_migration.sql",
+            "inventory_ledger_migration.sql",
+            "transaction_session_migration.sql",
+            "message_receipt_migration.sql",
+            "beckn_job_migration.sql",
+            "keyset_pagination_migration.sql",
+            "order_city_migration.sql",
+            "order_return_migration.sql");
+
+    protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("quickcatalog")
+            .withUsername("quickcatalog")
+            .withPassword("quickcatalog123");
+
+    static {
+        for (int i = 0; i < SCHEMA_SCRIPTS.size(); i++) {
+            String script = SCHEMA_SCRIPTS.get(i);
+            POSTGRES.withCopyFileToContainer(
+                    MountableFile.forHostPath(Path.of("..", "db", script)),
+                    String.format("/docker-entrypoint-initdb.d/%02d-%s", i + 1, script));
+        }
+        POSTGRES.start();
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+}
@@ -0,0 +1,41 @@
+-- ============================================================================
+-- QuickCatalog - Beckn Job Queue Migration
+-- ============================================================================
+-- Run this AFTER message_receipt_migration.sql. Adds the durable work queue
+-- that incoming Beckn requests are processed from. Workers claim jobs with
+-- FOR UPDATE SKIP LOCKED and lease them until a visibility timeout, so a job
+-- held by a node that stops is picked up again by another. Completed jobs are
+-- deleted; jobs that exhaust their attempts are kept as FAILED.
+-- ============================================================================
+
+BEGIN;
+
+-- ============================================================================
+-- 1. JOBS
+-- ============================================================================
+
+CREATE TABLE ondc_beckn_job (
+    id                      UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    lane                    VARCHAR(20) NOT NULL,
+    action                  VARCHAR(50) NOT NULL,
+    transaction_id          VARCHAR(255),
+    message_id              VARCHAR(255),
+    request_body            BYTEA NOT NULL,
+    status                  VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts                INT NOT NULL DEFAULT 0,
+    available_at            TIMESTAMP NOT NULL DEFAULT NOW(),
+    locked_by               VARCHAR(100),
+    last_error              TEXT,
+    created_at              TIMESTAMP DEFAULT NOW(),
+    updated_at              TIMESTAMP DEFAULT NOW()
+);
+
+-- Claim path: next visible pending job of a lane
+CREATE INDEX idx_ondc_beckn_job_claim ON ondc_beckn_job(lane, available_at)
+    WHERE status = 'PENDING';
+
+CREATE TRIGGER trg_ondc_beckn_job_updated_at
+    BEFORE UPDATE ON ondc_beckn_job FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+COMMIT;
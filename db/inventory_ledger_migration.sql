@@ -0,0 +1,92 @@
+-- ============================================================================
+-- QuickCatalog - Inventory Ledger Migration
+-- ============================================================================
+-- Run this AFTER inventory_reservation_migration.sql. Adds an append-only log
+-- of stock movements and a per-SKU balance table that is updated with every
+-- movement, so current availability is a primary-key read and stock audits
+-- read one SKU's movements instead of scanning the product table.
+-- ============================================================================
+
+BEGIN;
+
+-- ============================================================================
+-- 1. ENUM
+-- ============================================================================
+
+CREATE TYPE inventory_movement_type AS ENUM ('RESERVE', 'RELEASE', 'SALE', 'RETURN', 'ADJUST');
+
+-- ============================================================================
+-- 2. MOVEMENTS (append-only)
+-- ============================================================================
+-- quantity is the number of units moved; only ADJUST carries a sign.
+--   RESERVE  available -q, reserved +q   (order confirmed)
+--   RELEASE  available +q, reserved -q   (held order cancelled or expired)
+--   SALE                   reserved -q   (order accepted by the seller)
+--   RETURN   available +q                (sold units back in stock)
+--   ADJUST   available +q                (manual stock edit)
+
+CREATE TABLE inventory_movement (
+    id                      UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    tenant_id               UUID NOT NULL REFERENCES tenant(id),
+    product_id              UUID NOT NULL REFERENCES product(id) ON DELETE CASCADE,
+    variant_id              UUID REFERENCES product_variant(id) ON DELETE CASCADE,
+    movement_type           inventory_movement_type NOT NULL,
+    quantity                NUMERIC(12,3) NOT NULL,
+    reference               VARCHAR(255),
+    note                    VARCHAR(500),
+    created_by              UUID,
+    created_at              TIMESTAMP DEFAULT NOW()
+);
+
+CREATE INDEX idx_inventory_movement_product ON inventory_movement(product_id, created_at DESC);
+CREATE INDEX idx_inventory_movement_tenant ON inventory_movement(tenant_id, created_at DESC);
+CREATE INDEX idx_inventory_movement_reference ON inventory_movement(tenant_id, reference)
+    WHERE reference IS NOT NULL;
+
+-- ============================================================================
+-- 3. PER-SKU BALANCE (one row per product, and per variant)
+-- ============================================================================
+
+CREATE TABLE inventory_balance (
+    tenant_id               UUID NOT NULL REFERENCES tenant(id),
+    product_id              UUID NOT NULL REFERENCES product(id) ON DELETE CASCADE,
+    variant_id              UUID REFERENCES product_variant(id) ON DELETE CASCADE,
+    available               NUMERIC(12,3) NOT NULL DEFAULT 0,
+    reserved                NUMERIC(12,3) NOT NULL DEFAULT 0,
+    updated_at              TIMESTAMP DEFAULT NOW(),
+    CONSTRAINT uq_inventory_balance_sku UNIQUE NULLS NOT DISTINCT (product_id, variant_id)
+);
+
+CREATE INDEX idx_inventory_balance_tenant ON inventory_balance(tenant_id);
+
+-- ============================================================================
+-- 4. OPENING BALANCES
+-- ============================================================================
+
+INSERT INTO inventory_balance (tenant_id, product_id, variant_id, available)
+SELECT tenant_id, id, NULL, current_stock
+FROM product
+WHERE current_stock IS NOT NULL;
+
+INSERT INTO inventory_balance (tenant_id, product_id, variant_id, available)
+SELECT p.tenant_id, v.product_id, v.id, COALESCE(v.current_stock, 0)
+FROM product_variant v
+JOIN product p ON p.id = v.product_id;
+
+UPDATE inventory_balance b
+SET reserved = r.quantity
+FROM (
+    SELECT product_id, variant_id, SUM(quantity) AS quantity
+    FROM inventory_reservation
+    WHERE status = 'HELD'
+    GROUP BY product_id, variant_id
+) r
+WHERE b.product_id = r.product_id
+  AND b.variant_id IS NOT DISTINCT FROM r.variant_id;
+
+INSERT INTO inventory_movement (tenant_id, product_id, variant_id, movement_type, quantity, note)
+SELECT tenant_id, product_id, variant_id, 'ADJUST', available, 'Opening balance'
+FROM inventory_balance
+WHERE available <> 0;
+
+COMMIT;
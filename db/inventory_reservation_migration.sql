@@ -0,0 +1,43 @@
+-- ============================================================================
+-- QuickCatalog - Inventory Reservation Migration
+-- ============================================================================
+-- Run this AFTER ondc_migration.sql. Adds the stock reservation ledger written
+-- when an ONDC order is confirmed. Stock is decremented atomically at confirm;
+-- each reservation row records what was taken so it can be committed when the
+-- seller accepts the order, or given back on cancellation / expiry.
+-- ============================================================================
+
+BEGIN;
+
+-- ============================================================================
+-- 1. ENUM
+-- ============================================================================
+
+CREATE TYPE reservation_status AS ENUM ('HELD', 'COMMITTED', 'RELEASED', 'EXPIRED');
+
+-- ============================================================================
+-- 2. RESERVATION LEDGER
+-- ============================================================================
+
+CREATE TABLE inventory_reservation (
+    id                      UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    tenant_id               UUID NOT NULL REFERENCES tenant(id),
+    beckn_order_id          VARCHAR(255) NOT NULL,
+    transaction_id          VARCHAR(255),
+    product_id              UUID NOT NULL REFERENCES product(id) ON DELETE CASCADE,
+    variant_id              UUID REFERENCES product_variant(id) ON DELETE CASCADE,
+    quantity                NUMERIC(12,3) NOT NULL CHECK (quantity > 0),
+    status                  reservation_status NOT NULL DEFAULT 'HELD',
+    expires_at              TIMESTAMP NOT NULL,
+    created_at              TIMESTAMP DEFAULT NOW(),
+    updated_at              TIMESTAMP DEFAULT NOW()
+);
+
+CREATE INDEX idx_inventory_reservation_order ON inventory_reservation(tenant_id, beckn_order_id);
+CREATE INDEX idx_inventory_reservation_held ON inventory_reservation(expires_at) WHERE status = 'HELD';
+
+CREATE TRIGGER trg_inventory_reservation_updated_at
+    BEFORE UPDATE ON inventory_reservation FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+COMMIT;
@@ -0,0 +1,41 @@
+-- ============================================================================
+-- QuickCatalog - Keyset Pagination Migration
+-- ============================================================================
+-- Run this AFTER beckn_job_migration.sql. Adds composite indexes ending in id
+-- for the sort orders of the product grid, the ONDC order list and the
+-- activity and API logs, so a page fetched by cursor is an index seek on
+-- (sort key, id) however deep it is.
+-- ============================================================================
+
+BEGIN;
+
+-- ============================================================================
+-- 1. PRODUCTS
+-- ============================================================================
+
+CREATE INDEX idx_product_tenant_created_id ON product(tenant_id, created_at, id);
+CREATE INDEX idx_product_tenant_status_created_id ON product(tenant_id, status, created_at, id);
+CREATE INDEX idx_product_tenant_name_id ON product(tenant_id, name, id);
+CREATE INDEX idx_product_tenant_price_id ON product(tenant_id, selling_price, id);
+
+-- ============================================================================
+-- 2. ONDC ORDERS
+-- ============================================================================
+
+CREATE INDEX idx_ondc_order_tenant_created_id ON ondc_order(tenant_id, created_at DESC, id DESC);
+CREATE INDEX idx_ondc_order_tenant_state_created_id ON ondc_order(tenant_id, state, created_at DESC, id DESC);
+
+-- ============================================================================
+-- 3. LOGS (indexes on the partitioned parents cascade to every partition)
+-- ============================================================================
+
+DROP INDEX idx_activity_log_tenant_created;
+CREATE INDEX idx_activity_log_tenant_created ON activity_log(tenant_id, created_at DESC, id DESC);
+
+DROP INDEX idx_ondc_api_log_tenant;
+CREATE INDEX idx_ondc_api_log_tenant ON ondc_api_log(tenant_id, created_at DESC, id DESC);
+
+DROP INDEX idx_ondc_api_log_action;
+CREATE INDEX idx_ondc_api_log_action ON ondc_api_log(tenant_id, action, created_at DESC, id DESC);
+
+COMMIT;
@@ -0,0 +1,125 @@
+-- ============================================================================
+-- QuickCatalog - Log Table Partitioning Migration
+-- ============================================================================
+-- Run this AFTER ondc_api_log_migration.sql. Rebuilds activity_log (monthly)
+-- and ondc_api_log (daily) as range-partitioned tables on created_at so old
+-- data can be dropped or archived per partition and time-bounded queries
+-- only touch recent partitions. Future partitions and retention are handled
+-- by the application's LogPartitionService.
+-- ============================================================================
+
+BEGIN;
+
+-- ============================================================================
+-- 1. PARTITION HELPER
+-- ============================================================================
+
+CREATE OR REPLACE FUNCTION create_log_partition(parent TEXT, range_start DATE, range_end DATE)
+RETURNS TEXT AS $$
+DECLARE
+    partition_name TEXT := parent || '_p' || to_char(range_start, 'YYYYMMDD');
+BEGIN
+    IF to_regclass(partition_name) IS NULL THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, parent, range_start, range_end);
+    END IF;
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- ============================================================================
+-- 2. ACTIVITY LOG (monthly partitions)
+-- ============================================================================
+
+ALTER TABLE activity_log RENAME TO activity_log_legacy;
+DROP INDEX idx_activity_log_tenant_id;
+DROP INDEX idx_activity_log_entity;
+DROP INDEX idx_activity_log_tenant_created;
+
+CREATE TABLE activity_log (
+    id          UUID NOT NULL DEFAULT uuid_generate_v4(),
+    tenant_id   UUID NOT NULL REFERENCES tenant(id),
+    user_id     UUID REFERENCES "user"(id),
+    entity_type entity_type NOT NULL,
+    entity_id   UUID NOT NULL,
+    action      action_type NOT NULL,
+    details     JSONB DEFAULT '{}',
+    created_at  TIMESTAMP NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE activity_log_default PARTITION OF activity_log DEFAULT;
+
+SELECT create_log_partition('activity_log', m::date, (m + INTERVAL '1 month')::date)
+FROM generate_series(
+    date_trunc('month', COALESCE((SELECT MIN(created_at) FROM activity_log_legacy), NOW())),
+    date_trunc('month', NOW()) + INTERVAL '3 months',
+    INTERVAL '1 month') AS m;
+
+INSERT INTO activity_log (id, tenant_id, user_id, entity_type, entity_id, action, details, created_at)
+SELECT id, tenant_id, user_id, entity_type, entity_id, action, details, COALESCE(created_at, NOW())
+FROM activity_log_legacy;
+
+DROP TABLE activity_log_legacy;
+
+CREATE INDEX idx_activity_log_tenant_id ON activity_log(tenant_id);
+CREATE INDEX idx_activity_log_entity ON activity_log(entity_type, entity_id);
+CREATE INDEX idx_activity_log_tenant_created ON activity_log(tenant_id, created_at DESC);
+
+-- ============================================================================
+-- 3. ONDC API LOG (daily partitions; earlier months kept as monthly partitions)
+-- ============================================================================
+
+ALTER TABLE ondc_api_log RENAME TO ondc_api_log_legacy;
+DROP INDEX idx_ondc_api_log_tenant;
+DROP INDEX idx_ondc_api_log_action;
+DROP INDEX idx_ondc_api_log_transaction;
+DROP INDEX idx_ondc_api_log_created;
+
+CREATE TABLE ondc_api_log (
+    id                      UUID NOT NULL DEFAULT uuid_generate_v4(),
+    tenant_id               UUID REFERENCES tenant(id),
+    direction               api_direction NOT NULL,
+    action                  VARCHAR(50) NOT NULL,
+    transaction_id          VARCHAR(255),
+    message_id              VARCHAR(255),
+    bap_id                  VARCHAR(500),
+    request_body            JSONB COMPRESSION lz4,
+    response_body           JSONB COMPRESSION lz4,
+    http_status             INT,
+    error_message           TEXT,
+    processing_time_ms      INT,
+    created_at              TIMESTAMP NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE ondc_api_log_default PARTITION OF ondc_api_log DEFAULT;
+
+SELECT create_log_partition('ondc_api_log', m::date, (m + INTERVAL '1 month')::date)
+FROM generate_series(
+    date_trunc('month', (SELECT MIN(created_at) FROM ondc_api_log_legacy)),
+    date_trunc('month', NOW()) - INTERVAL '1 month',
+    INTERVAL '1 month') AS m;
+
+SELECT create_log_partition('ondc_api_log', d::date, (d + INTERVAL '1 day')::date)
+FROM generate_series(
+    date_trunc('month', NOW()),
+    date_trunc('day', NOW()) + INTERVAL '7 days',
+    INTERVAL '1 day') AS d;
+
+INSERT INTO ondc_api_log (id, tenant_id, direction, action, transaction_id, message_id, bap_id,
+                          request_body, response_body, http_status, error_message,
+                          processing_time_ms, created_at)
+SELECT id, tenant_id, direction, action, transaction_id, message_id, bap_id,
+       request_body, response_body, http_status, error_message,
+       processing_time_ms, COALESCE(created_at, NOW())
+FROM ondc_api_log_legacy;
+
+DROP TABLE ondc_api_log_legacy;
+
+CREATE INDEX idx_ondc_api_log_tenant ON ondc_api_log(tenant_id, created_at DESC);
+CREATE INDEX idx_ondc_api_log_action ON ondc_api_log(tenant_id, action, created_at DESC);
+CREATE INDEX idx_ondc_api_log_transaction ON ondc_api_log(transaction_id);
+CREATE INDEX idx_ondc_api_log_created ON ondc_api_log(created_at DESC);
+
+COMMIT;
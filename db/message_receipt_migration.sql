@@ -0,0 +1,27 @@
+-- ============================================================================
+-- QuickCatalog - Beckn Message Receipt Migration
+-- ============================================================================
+-- Run this AFTER transaction_session_migration.sql. Records every Beckn
+-- message accepted for processing, keyed by (bap_id, message_id, action), so
+-- that retries from gateways and buyer apps are acknowledged without being
+-- processed again. Rows are purged after the configured retention.
+-- ============================================================================
+
+BEGIN;
+
+-- ============================================================================
+-- 1. RECEIPTS
+-- ============================================================================
+
+CREATE TABLE ondc_message_receipt (
+    bap_id                  VARCHAR(255) NOT NULL,
+    message_id              VARCHAR(255) NOT NULL,
+    action                  VARCHAR(50) NOT NULL,
+    transaction_id          VARCHAR(255),
+    received_at             TIMESTAMP NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (bap_id, message_id, action)
+);
+
+CREATE INDEX idx_ondc_message_receipt_received ON ondc_message_receipt(received_at);
+
+COMMIT;
@@ -0,0 +1,14 @@
+-- ============================================================================
+-- QuickCatalog - ONDC API Log Storage Migration
+-- ============================================================================
+-- Run this AFTER ondc_migration.sql. API log rows are written in JDBC batches
+-- by the application's write-behind pipeline; request/response bodies are
+-- compressed by TOAST with lz4, which is cheaper than pglz for large JSON.
+-- ============================================================================
+
+BEGIN;
+
+ALTER TABLE ondc_api_log ALTER COLUMN request_body SET COMPRESSION lz4;
+ALTER TABLE ondc_api_log ALTER COLUMN response_body SET COMPRESSION lz4;
+
+COMMIT;
@@ -0,0 +1,56 @@
+-- ============================================================================
+-- QuickCatalog - ONDC Callback Delivery Migration
+-- ============================================================================
+-- Run this AFTER ondc_migration.sql. Adds the durable retry queue and the
+-- dead-letter table for outgoing Beckn callbacks (on_search, on_select, ...).
+-- ============================================================================
+
+BEGIN;
+
+-- ============================================================================
+-- 1. CALLBACK RETRY QUEUE
+-- ============================================================================
+
+CREATE TABLE ondc_callback_retry (
+    id                      UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    tenant_id               UUID REFERENCES tenant(id),
+    subscriber_id           UUID NOT NULL REFERENCES ondc_subscriber(id) ON DELETE CASCADE,
+    action                  VARCHAR(50) NOT NULL,
+    callback_url            VARCHAR(1000) NOT NULL,
+    transaction_id          VARCHAR(255),
+    request_body            JSONB NOT NULL,
+    attempts                INT NOT NULL DEFAULT 0,
+    next_attempt_at         TIMESTAMP NOT NULL DEFAULT NOW(),
+    last_http_status        INT,
+    last_error              TEXT,
+    created_at              TIMESTAMP DEFAULT NOW(),
+    updated_at              TIMESTAMP DEFAULT NOW()
+);
+
+CREATE INDEX idx_ondc_callback_retry_next ON ondc_callback_retry(next_attempt_at);
+
+CREATE TRIGGER trg_ondc_callback_retry_updated_at
+    BEFORE UPDATE ON ondc_callback_retry FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+-- ============================================================================
+-- 2. CALLBACK DEAD LETTERS (retries exhausted or non-retryable failure)
+-- ============================================================================
+
+CREATE TABLE ondc_callback_dead_letter (
+    id                      UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    tenant_id               UUID REFERENCES tenant(id),
+    subscriber_id           UUID,
+    action                  VARCHAR(50) NOT NULL,
+    callback_url            VARCHAR(1000) NOT NULL,
+    transaction_id          VARCHAR(255),
+    request_body            JSONB NOT NULL,
+    attempts                INT NOT NULL,
+    last_http_status        INT,
+    last_error              TEXT,
+    created_at              TIMESTAMP DEFAULT NOW()
+);
+
+CREATE INDEX idx_ondc_callback_dead_letter_tenant ON ondc_callback_dead_letter(tenant_id, created_at DESC);
+
+COMMIT;
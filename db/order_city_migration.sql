@@ -0,0 +1,14 @@
+-- ============================================================================
+-- QuickCatalog - ONDC Order City Migration
+-- ============================================================================
+-- Run this AFTER keyset_pagination_migration.sql. Stores the context city of
+-- the /confirm that created an ONDC order, so callbacks the seller sends on
+-- its own (such as on_cancel for an order never accepted) carry the same
+-- context as the ones answering a buyer app request.
+-- ============================================================================
+
+BEGIN;
+
+ALTER TABLE ondc_order ADD COLUMN IF NOT EXISTS city VARCHAR(50);
+
+COMMIT;
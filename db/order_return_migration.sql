@@ -0,0 +1,13 @@
+-- ============================================================================
+-- QuickCatalog - ONDC Order Return Migration
+-- ============================================================================
+-- Run this AFTER order_city_migration.sql. Stores how many units of an order
+-- item the buyer app asked to return, so the seller can approve the return
+-- and restock that many units once the goods are back.
+-- ============================================================================
+
+BEGIN;
+
+ALTER TABLE ondc_order_item ADD COLUMN IF NOT EXISTS return_quantity INT;
+
+COMMIT;
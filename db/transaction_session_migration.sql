@@ -0,0 +1,33 @@
+-- ============================================================================
+-- QuickCatalog - Transaction Session Migration
+-- ============================================================================
+-- Run this AFTER inventory_ledger_migration.sql. Adds the shared store for
+-- Beckn transaction sessions (provider, quote, billing and fulfillment kept
+-- between /select, /init and /confirm). Only used when
+-- ondc.session.persist=true, so that every node of a multi-node deployment
+-- sees the sessions started on the others.
+-- ============================================================================
+
+BEGIN;
+
+-- ============================================================================
+-- 1. SESSIONS
+-- ============================================================================
+
+CREATE TABLE ondc_transaction_session (
+    tenant_id               UUID NOT NULL REFERENCES tenant(id),
+    transaction_id          VARCHAR(255) NOT NULL,
+    state                   JSONB NOT NULL,
+    expires_at              TIMESTAMP NOT NULL,
+    created_at              TIMESTAMP DEFAULT NOW(),
+    updated_at              TIMESTAMP DEFAULT NOW(),
+    PRIMARY KEY (tenant_id, transaction_id)
+);
+
+CREATE INDEX idx_ondc_transaction_session_expires ON ondc_transaction_session(expires_at);
+
+CREATE TRIGGER trg_ondc_transaction_session_updated_at
+    BEFORE UPDATE ON ondc_transaction_session FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+COMMIT;
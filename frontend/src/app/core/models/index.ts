@@ -175,6 +175,8 @@ export interface PagedResponse<T> {
   totalElements: number;
   totalPages: number;
   last: boolean;
+  nextCursor?: string | null;
+  approximateTotal?: boolean;
 }
 
 // Attribute schema model